@@ -0,0 +1,784 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+
+import java.util.List;
+import java.util.Random;
+/******************************************************************
+* Command-line entry point for scripted runs.
+* Reads a trace, runs the headless engine to completion and prints
+* the final stats. Never touches Swing, so it works without a
+* display and starts quickly.
+* Usage: java BatchRunner [options] trace.data (or - for stdin)
+*   --help, -h         print the usage and exit
+*   --frames N         number of frames in memory
+*   --page-size N      page size in bytes
+*   --address-bits N   bits in a virtual address
+*   --processes N      number of processes
+*   --policy NAME      replacement policy: lru, fifo, clock, lfu, random, opt
+*   --placement MODE   random or sequential free-frame placement
+*   --seed N           seed for random placement (default 0)
+*   --format FORMAT    text, csv or json
+*   --mode MODE        simulate, or mrc for LRU's fault counts at
+*                      every power-of-two frame count in one pass
+*   --sample-rate R    mrc from a SHARDS sample of R of the pages
+*   --sample-size N    mrc from a SHARDS sample of at most N pages
+*   --mode sweep       run every combination of --sweep-frames,
+*                      --sweep-policies and --sweep-placements
+*                      (comma-separated lists) on --threads cores,
+*                      decoding the trace in parallel if it is indexed
+*   --mode index       build and cache the trace's TraceIndex and
+*                      print each PID's reference count from it
+*   --seek N,N,..      print the stats at each of these references,
+*                      in the order given, backwards too, restoring
+*                      checkpoints taken every --checkpoint-interval
+*                      references (default 100000)
+* Unset geometry options fall back to the vimpares.* properties.
+* @since 10/18/2026
+******************************************************************/
+public class BatchRunner {
+
+  /** The usage message printed on bad arguments. */
+  private static final String USAGE =
+  "Usage: java BatchRunner [--help] [--frames N] [--page-size N] [--address-bits N]\n"
+  + "       [--processes N] [--policy lru|fifo|clock|lfu|random|opt]\n"
+  + "       [--placement random|sequential]\n"
+  + "       [--seed N] [--format text|csv|json] [--mode simulate|mrc|sweep|index]\n"
+  + "       [--sample-rate R | --sample-size N]\n"
+  + "       [--sweep-frames N,N,..] [--sweep-policies P,P,..]\n"
+  + "       [--sweep-placements M,M,..] [--threads N]\n"
+  + "       [--seek N,N,.. [--checkpoint-interval N]] trace.data";
+
+  /** The trace to be simulated. */
+  private String trace;
+
+  /** The replacement policy. */
+  private String policy = "lru";
+
+  /** The output format. */
+  private String format = "text";
+
+  /** Whether to simulate or compute a miss-ratio curve. */
+  private String mode = "simulate";
+
+  /** The fraction of pages sampled for the curve, 0 for all. */
+  private double sampleRate = 0.0;
+
+  /** The most pages sampled for the curve, 0 for no bound. */
+  private int sampleSize = 0;
+
+  /** The frame counts of a sweep. */
+  private int [] sweepFrames = {4, 8, 16, 32, 64, 128, 256, 512, 1024};
+
+  /** The policies of a sweep. */
+  private String [] sweepPolicies = {"lru", "fifo", "clock", "lfu", "random"};
+
+  /** The placements of a sweep, null for the --placement one. */
+  private String [] sweepPlacements;
+
+  /** The parallelism of a sweep. */
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  /** The references to print stats at, null for the end. */
+  private long [] seekTargets;
+
+  /** The references between checkpoints when seeking. */
+  private int checkpointInterval = 100000;
+
+  /** Whether only the usage was asked for. */
+  private boolean help;
+
+  /** The free-frame placement mode. */
+  private String placement = "random";
+
+  /** The seed for random placement. */
+  private long seed = 0L;
+
+  /** The geometry parameters, seeded from system properties. */
+  private int frames, pageSize, addressBits, processes;
+
+  public static void main ( String[] args ) {
+
+    BatchRunner runner = new BatchRunner();
+    try {
+      runner.parseArgs(args);
+    } catch ( IllegalArgumentException e ) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+    if ( runner.help ) {
+      System.out.println(USAGE);
+      System.exit(0);
+    }
+
+    try {
+      runner.run(System.out);
+    } catch ( IOException e ) {
+      System.err.println("Could not read input file " + runner.trace + ": "
+      + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /*******************************************************
+  * Instantiates a runner with the configured defaults.
+  *******************************************************/
+  public BatchRunner () {
+    Geometry defaults = Geometry.fromSystemProperties();
+    this.frames = defaults.getFrames();
+    this.pageSize = defaults.getPageSize();
+    this.addressBits = defaults.getAddressBits();
+    this.processes = defaults.getProcesses();
+  }
+
+  /**************************************************
+  * Parses the command-line arguments.
+  * @param args are the command-line arguments.
+  * @throws IllegalArgumentException on bad input.
+  **************************************************/
+  void parseArgs ( String[] args ) {
+    int i;
+    for ( i = 0; i < args.length; i++ ) {
+      String arg = args[i];
+      if ( arg.equals("--help") || arg.equals("-h") ) {
+        help = true;
+        return;
+      }
+      if ( !arg.startsWith("--") || arg.equals("-") ) {
+        if ( trace != null ) {
+          throw new IllegalArgumentException("Only one trace may be given: " + arg);
+        }
+        trace = arg;
+        continue;
+      }
+      if ( i + 1 >= args.length ) {
+        throw new IllegalArgumentException("Missing value for " + arg);
+      }
+      String value = args[++i];
+      switch ( arg ) {
+        case "--frames": frames = parseInt(arg, value);
+                break;
+        case "--page-size": pageSize = parseInt(arg, value);
+                break;
+        case "--address-bits": addressBits = parseInt(arg, value);
+                break;
+        case "--processes": processes = parseInt(arg, value);
+                break;
+        case "--policy": policy = value.toLowerCase();
+                break;
+        case "--format": format = value.toLowerCase();
+                break;
+        case "--mode": mode = value.toLowerCase();
+                break;
+        case "--sample-rate": sampleRate = parseDouble(arg, value);
+                break;
+        case "--sample-size": sampleSize = parseInt(arg, value);
+                break;
+        case "--sweep-frames": sweepFrames = parseIntList(arg, value);
+                break;
+        case "--sweep-policies": sweepPolicies = value.toLowerCase().split(",");
+                break;
+        case "--sweep-placements": sweepPlacements = value.toLowerCase().split(",");
+                break;
+        case "--threads": threads = parseInt(arg, value);
+                break;
+        case "--seek": seekTargets = parseLongList(arg, value);
+                break;
+        case "--checkpoint-interval": checkpointInterval = parseInt(arg, value);
+                break;
+        case "--placement": placement = value.toLowerCase();
+                break;
+        case "--seed": seed = parseLong(arg, value);
+                break;
+        default: throw new IllegalArgumentException("Unknown option " + arg);
+      }
+    }
+    if ( trace == null ) {
+      throw new IllegalArgumentException("No trace file given.");
+    }
+    if ( !java.util.Arrays.asList(Policies.NAMES).contains(policy) ) {
+      throw new IllegalArgumentException("Unknown policy " + policy);
+    }
+    if ( !placement.equals("random") && !placement.equals("sequential") ) {
+      throw new IllegalArgumentException("Unknown placement " + placement);
+    }
+    if ( !format.equals("text") && !format.equals("csv") && !format.equals("json") ) {
+      throw new IllegalArgumentException("Unknown format " + format);
+    }
+    if ( !mode.equals("simulate") && !mode.equals("mrc") && !mode.equals("sweep")
+    && !mode.equals("index") ) {
+      throw new IllegalArgumentException("Unknown mode " + mode);
+    }
+    if ( mode.equals("mrc") && !policy.equals("lru") ) {
+      throw new IllegalArgumentException("The miss-ratio curve is only exact for lru");
+    }
+    if ( sampleRate != 0.0 && sampleSize != 0 ) {
+      throw new IllegalArgumentException("Give either --sample-rate or --sample-size");
+    }
+    if ( (sampleRate != 0.0 || sampleSize != 0) && !mode.equals("mrc") ) {
+      throw new IllegalArgumentException("Sampling needs --mode mrc");
+    }
+    if ( sweepPlacements == null ) {
+      sweepPlacements = new String [] {placement};
+    }
+    for ( i = 0; i < sweepPolicies.length; i++ ) {
+      if ( !java.util.Arrays.asList(Policies.NAMES).contains(sweepPolicies[i]) ) {
+        throw new IllegalArgumentException("Unknown policy " + sweepPolicies[i]);
+      }
+    }
+    for ( i = 0; i < sweepPlacements.length; i++ ) {
+      if ( !sweepPlacements[i].equals("random") && !sweepPlacements[i].equals("sequential") ) {
+        throw new IllegalArgumentException("Unknown placement " + sweepPlacements[i]);
+      }
+    }
+    if ( threads < 1 ) {
+      throw new IllegalArgumentException("--threads must be positive");
+    }
+    // Geometry rejects bad frame, page, address and process counts.
+    new Geometry(frames, pageSize, addressBits, processes);
+    if ( !(sampleRate >= 0.0 && sampleRate <= 1.0) ) {
+      throw new IllegalArgumentException("--sample-rate must be in (0, 1]: " + sampleRate);
+    }
+    if ( sampleSize < 0 ) {
+      throw new IllegalArgumentException("--sample-size must be positive: " + sampleSize);
+    }
+    for ( i = 0; i < sweepFrames.length; i++ ) {
+      if ( sweepFrames[i] < 1 ) {
+        throw new IllegalArgumentException("--sweep-frames must be positive: " + sweepFrames[i]);
+      }
+    }
+    if ( seekTargets != null && !mode.equals("simulate") ) {
+      throw new IllegalArgumentException("--seek needs --mode simulate");
+    }
+    if ( mode.equals("index") && trace.equals("-") ) {
+      throw new IllegalArgumentException("Standard input cannot be indexed");
+    }
+    if ( seekTargets != null && trace.equals("-") ) {
+      throw new IllegalArgumentException("--seek cannot seek standard input");
+    }
+    if ( checkpointInterval < 1 ) {
+      throw new IllegalArgumentException("--checkpoint-interval must be positive");
+    }
+  }
+
+  /**********************************************
+  * Parses a comma-separated list of references.
+  * @param option is the option being parsed.
+  * @param value is its value.
+  * @return the parsed references.
+  **********************************************/
+  private static long [] parseLongList ( String option, String value ) {
+    String [] parts = value.split(",");
+    long [] list = new long [parts.length];
+    int i;
+    for ( i = 0; i < parts.length; i++ ) {
+      try {
+        list[i] = Long.parseLong(parts[i].trim());
+      } catch ( NumberFormatException e ) {
+        throw new IllegalArgumentException(option + " expects numbers: " + value);
+      }
+      if ( list[i] < 0 ) {
+        throw new IllegalArgumentException(option + " expects references from 0: " + value);
+      }
+    }
+    return list;
+  }
+
+  /**********************************************
+  * Parses a comma-separated list of integers.
+  * @param option is the option being parsed.
+  * @param value is its value.
+  * @return the parsed integers.
+  **********************************************/
+  static int [] parseIntList ( String option, String value ) {
+    String [] parts = value.split(",");
+    int [] list = new int [parts.length];
+    int i;
+    for ( i = 0; i < parts.length; i++ ) {
+      list[i] = parseInt(option, parts[i].trim());
+    }
+    return list;
+  }
+
+  /**********************************************
+  * Parses a decimal option value.
+  * @param option is the option being parsed.
+  * @param value is its value.
+  * @return the parsed number.
+  **********************************************/
+  static double parseDouble ( String option, String value ) {
+    try {
+      return Double.parseDouble(value);
+    } catch ( NumberFormatException e ) {
+      throw new IllegalArgumentException(option + " expects a number: " + value);
+    }
+  }
+
+  /**********************************************
+  * Parses a long option value.
+  * @param option is the option being parsed.
+  * @param value is its value.
+  * @return the parsed number.
+  **********************************************/
+  static long parseLong ( String option, String value ) {
+    try {
+      return Long.parseLong(value);
+    } catch ( NumberFormatException e ) {
+      throw new IllegalArgumentException(option + " expects a number: " + value);
+    }
+  }
+
+  /**********************************************
+  * Parses an integer option value.
+  * @param option is the option being parsed.
+  * @param value is its value.
+  * @return the parsed integer.
+  **********************************************/
+  static int parseInt ( String option, String value ) {
+    try {
+      return Integer.parseInt(value);
+    } catch ( NumberFormatException e ) {
+      throw new IllegalArgumentException(option + " expects a number: " + value);
+    }
+  }
+
+  /*************************************************
+  * Runs the trace to completion and prints stats.
+  * @param out is where the stats are printed.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  void run ( PrintStream out ) throws IOException {
+
+    Geometry geometry = new Geometry(frames, pageSize, addressBits, processes);
+    if ( mode.equals("mrc") ) {
+      runCurve(out, geometry);
+      return;
+    }
+    if ( mode.equals("sweep") ) {
+      runSweep(out, geometry);
+      return;
+    }
+    if ( mode.equals("index") ) {
+      runIndex(out, geometry);
+      return;
+    }
+    ReplacementPolicy victims = Policies.create(policy, geometry, new Random(seed), trace);
+    ReferenceSource input = Main.openInput(trace, geometry);
+
+    Tables tbl = new Tables(geometry, placement.equals("random") ? new Random(seed) : null,
+    victims);
+    SimulationEngine engine = new SimulationEngine(tbl, input);
+    if ( seekTargets != null ) {
+      try {
+        runSeeks(out, tbl, engine, geometry);
+      } finally {
+        input.close();
+      }
+      return;
+    }
+    long start = System.nanoTime();
+    try {
+      engine.runToCompletion();
+    } finally {
+      input.close();
+    }
+    long elapsed = System.nanoTime() - start;
+    printStats(out, tbl, engine, geometry, elapsed, -1);
+  }
+
+  /*************************************************
+  * Seeks to each target in turn and prints the stats
+  * there. Going forward takes checkpoints along the
+  * way, so going back restores the nearest one and
+  * replays at most an interval of references.
+  * @param out is where the stats are printed.
+  * @param tbl are the tables the engine runs on.
+  * @param engine is the engine over the trace.
+  * @param geometry is the geometry simulated.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  private void runSeeks ( PrintStream out, Tables tbl, SimulationEngine engine,
+  Geometry geometry ) throws IOException {
+    engine.enableCheckpoints(checkpointInterval);
+    int i;
+    for ( i = 0; i < seekTargets.length; i++ ) {
+      long start = System.nanoTime();
+      long at = engine.seek(seekTargets[i]);
+      long elapsed = System.nanoTime() - start;
+      if ( format.equals("csv") && i > 0 ) {
+        printCsvRows(out, tbl.passPCBArray(), engine, at);
+      } else {
+        printStats(out, tbl, engine, geometry, elapsed, at);
+      }
+    }
+  }
+
+  /*************************************************
+  * Prints the stats in the chosen format.
+  * @param at is the reference they are at, -1 for
+  * the final stats.
+  *************************************************/
+  private void printStats ( PrintStream out, Tables tbl, SimulationEngine engine,
+  Geometry geometry, long elapsed, long at ) {
+    switch ( format ) {
+      case "csv": printCsv(out, tbl.passPCBArray(), engine, at);
+              break;
+      case "json": printJson(out, tbl.passPCBArray(), engine, geometry, elapsed, at);
+              break;
+      default: printText(out, tbl.passPCBArray(), engine, geometry, elapsed, at);
+              break;
+    }
+  }
+
+  /*************************************************
+  * Decodes the trace once and runs every sweep
+  * combination in parallel, then prints the matrix.
+  * @param out is where the results are printed.
+  * @param geometry bounds the PIDs and page numbers.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  private void runSweep ( PrintStream out, Geometry geometry ) throws IOException {
+    long start = System.nanoTime();
+    TraceIndex index = trace.equals("-") || threads == 1 ? null
+    : TraceIndex.cached(Paths.get(trace), geometry);
+    DecodedTrace decoded = index == null
+    ? DecodedTrace.decode(Main.openInput(trace, geometry))
+    : DecodedTrace.decode(Paths.get(trace), geometry, index, threads);
+    long decodedAt = System.nanoTime();
+    List<Sweep.Result> results = new Sweep(geometry, decoded, seed).run(sweepFrames,
+    sweepPolicies, sweepPlacements, threads);
+    long elapsed = System.nanoTime() - start;
+
+    int i;
+    switch ( format ) {
+      case "csv":
+        out.println("frames,policy,placement,references,faults,faultRate,elapsedNanos");
+        for ( Sweep.Result r : results ) {
+          out.println(r.frames + "," + r.policy + "," + r.placement + "," + r.references
+          + "," + r.faults + "," + r.faultRate() + "," + r.elapsedNanos);
+        }
+        break;
+      case "json":
+        StringBuilder json = new StringBuilder();
+        json.append("{\"trace\":\"").append(escape(trace)).append("\"");
+        json.append(",\"references\":").append(decoded.length());
+        json.append(",\"threads\":").append(threads);
+        json.append(",\"elapsedNanos\":").append(elapsed);
+        json.append(",\"runs\":[");
+        i = 0;
+        for ( Sweep.Result r : results ) {
+          if ( i++ > 0 ) {
+            json.append(",");
+          }
+          json.append("{\"frames\":").append(r.frames);
+          json.append(",\"policy\":\"").append(r.policy).append("\"");
+          json.append(",\"placement\":\"").append(r.placement).append("\"");
+          json.append(",\"faults\":").append(r.faults);
+          json.append(",\"faultRate\":").append(r.faultRate());
+          json.append(",\"elapsedNanos\":").append(r.elapsedNanos).append("}");
+        }
+        json.append("]}");
+        out.println(json);
+        break;
+      default:
+        // One row per frame count, one column per policy/placement.
+        int columns = sweepPolicies.length * sweepPlacements.length;
+        out.println("-------------------------------------------------");
+        out.println("Sweep (" + decoded.length() + " refs, " + results.size() + " runs, "
+        + threads + " threads)\n");
+        StringBuilder header = new StringBuilder("Frames");
+        for ( i = 0; i < columns; i++ ) {
+          Sweep.Result r = results.get(i);
+          header.append("\t").append(r.policy);
+          if ( sweepPlacements.length > 1 ) {
+            header.append("/").append(r.placement.charAt(0));
+          }
+        }
+        out.println(header);
+        for ( i = 0; i < results.size(); i += columns ) {
+          StringBuilder row = new StringBuilder().append(results.get(i).frames);
+          int c;
+          for ( c = 0; c < columns; c++ ) {
+            row.append("\t").append(results.get(i + c).faults);
+          }
+          out.println(row);
+        }
+        out.printf("Decoded in %.1f ms, swept in %.1f ms%n", (decodedAt - start) / 1e6,
+        (System.nanoTime() - decodedAt) / 1e6);
+        break;
+    }
+  }
+
+  /*************************************************
+  * Loads or builds the trace's index and prints the
+  * references of every PID that makes any.
+  * @param out is where the counts are printed.
+  * @param geometry bounds the PIDs and page numbers.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  private void runIndex ( PrintStream out, Geometry geometry ) throws IOException {
+    long start = System.nanoTime();
+    TraceIndex index = TraceIndex.load(Paths.get(trace), geometry);
+    long elapsed = System.nanoTime() - start;
+
+    int pid;
+    switch ( format ) {
+      case "csv":
+        out.println("pid,references");
+        for ( pid = 1; pid <= geometry.getProcesses(); pid++ ) {
+          if ( index.getReferences(pid) > 0 ) {
+            out.println(pid + "," + index.getReferences(pid));
+          }
+        }
+        out.println("total," + index.getReferences());
+        break;
+      case "json":
+        StringBuilder json = new StringBuilder();
+        json.append("{\"trace\":\"").append(escape(trace)).append("\"");
+        json.append(",\"references\":").append(index.getReferences());
+        json.append(",\"records\":").append(index.getRecords());
+        json.append(",\"interval\":").append(index.getInterval());
+        json.append(",\"blocks\":").append(index.getBlocks());
+        json.append(",\"elapsedNanos\":").append(elapsed);
+        json.append(",\"processes\":[");
+        boolean first = true;
+        for ( pid = 1; pid <= geometry.getProcesses(); pid++ ) {
+          if ( index.getReferences(pid) > 0 ) {
+            json.append(first ? "" : ",");
+            json.append("{\"pid\":").append(pid);
+            json.append(",\"references\":").append(index.getReferences(pid)).append("}");
+            first = false;
+          }
+        }
+        json.append("]}");
+        out.println(json);
+        break;
+      default:
+        out.println("-------------------------------------------------");
+        out.println("Trace index (" + index.getReferences() + " refs, " + index.getBlocks()
+        + " blocks of " + index.getInterval() + ")\n");
+        out.println("Proc   Refs");
+        for ( pid = 1; pid <= geometry.getProcesses(); pid++ ) {
+          if ( index.getReferences(pid) > 0 ) {
+            out.println(pid + "\t" + index.getReferences(pid));
+          }
+        }
+        out.println("Total\t" + index.getReferences());
+        out.printf("%.1f ms%n", elapsed / 1e6);
+        break;
+    }
+  }
+
+  /*************************************************
+  * Computes LRU's miss-ratio curve in one pass, exact
+  * or from a SHARDS sample, and prints faults at every
+  * power-of-two frame count up to the point where only
+  * cold misses remain.
+  * @param out is where the curve is printed.
+  * @param geometry bounds the PIDs and page numbers.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  private void runCurve ( PrintStream out, Geometry geometry ) throws IOException {
+    long start = System.nanoTime();
+    MissRatioCurve sd;
+    ShardsCurve sampled = null;
+    ReferenceSource input = Main.openInput(trace, geometry);
+    if ( sampleRate != 0.0 ) {
+      sampled = ShardsCurve.fixedRate(sampleRate, geometry.getProcesses()).analyze(input);
+      sd = sampled;
+    } else if ( sampleSize != 0 ) {
+      sampled = ShardsCurve.fixedSize(sampleSize, geometry.getProcesses()).analyze(input);
+      sd = sampled;
+    } else {
+      sd = StackDistance.analyze(input, geometry.getProcesses());
+    }
+    long elapsed = System.nanoTime() - start;
+
+    int sizes = 1;
+    while ( (1 << (sizes - 1)) < sd.getMaxDistance() && sizes < 31 ) {
+      sizes++;
+    }
+    int np = geometry.getProcesses();
+    int i, pid;
+    switch ( format ) {
+      case "csv":
+        StringBuilder header = new StringBuilder("frames,total");
+        for ( pid = 1; pid <= np; pid++ ) {
+          header.append(",P").append(pid);
+        }
+        out.println(header);
+        for ( i = 0; i < sizes; i++ ) {
+          StringBuilder row = new StringBuilder();
+          row.append(1 << i).append(",").append(sd.faults(1 << i));
+          for ( pid = 1; pid <= np; pid++ ) {
+            row.append(",").append(sd.faults(pid, 1 << i));
+          }
+          out.println(row);
+        }
+        break;
+      case "json":
+        StringBuilder json = new StringBuilder();
+        json.append("{\"trace\":\"").append(escape(trace)).append("\"");
+        json.append(",\"policy\":\"lru\"");
+        json.append(",\"references\":").append(sd.getReferences());
+        json.append(",\"distinctPages\":").append(sd.getDistinctPages());
+        if ( sampled != null ) {
+          json.append(",\"sampleRate\":").append(sampled.getRate());
+          json.append(",\"sampledPages\":").append(sampled.getSampledPages());
+          json.append(",\"sampledReferences\":").append(sampled.getSampledReferences());
+          json.append(",\"errorEstimate\":").append(sampled.getErrorEstimate());
+        }
+        json.append(",\"elapsedNanos\":").append(elapsed);
+        json.append(",\"curve\":[");
+        for ( i = 0; i < sizes; i++ ) {
+          if ( i > 0 ) {
+            json.append(",");
+          }
+          json.append("{\"frames\":").append(1 << i);
+          json.append(",\"faults\":").append(sd.faults(1 << i));
+          json.append(",\"processes\":[");
+          for ( pid = 1; pid <= np; pid++ ) {
+            if ( pid > 1 ) {
+              json.append(",");
+            }
+            json.append(sd.faults(pid, 1 << i));
+          }
+          json.append("]}");
+        }
+        json.append("]}");
+        out.println(json);
+        break;
+      default:
+        out.println("-------------------------------------------------");
+        out.println("LRU miss-ratio curve (" + sd.getReferences() + " refs, "
+        + sd.getDistinctPages() + " pages)");
+        if ( sampled != null ) {
+          out.printf("Sampled %.6f of pages: %d pages, %d refs, error estimate %.4f%n",
+          sampled.getRate(), sampled.getSampledPages(), sampled.getSampledReferences(),
+          sampled.getErrorEstimate());
+        }
+        out.println();
+        out.println("Frames  Faults  Rate");
+        for ( i = 0; i < sizes; i++ ) {
+          long faults = sd.faults(1 << i);
+          out.printf("%d\t%d\t%.4f%n", 1 << i, faults,
+          sd.getReferences() == 0 ? 0.0 : (double) faults / sd.getReferences());
+        }
+        // One row per process that made references, one column per size.
+        out.println();
+        out.println("Faults per process by frame count");
+        StringBuilder sizesRow = new StringBuilder("Proc\tRefs");
+        for ( i = 0; i < sizes; i++ ) {
+          sizesRow.append("\t").append(1 << i);
+        }
+        out.println(sizesRow);
+        for ( pid = 1; pid <= np; pid++ ) {
+          if ( sd.getReferences(pid) == 0 ) {
+            continue;
+          }
+          StringBuilder row = new StringBuilder();
+          row.append(pid).append("\t").append(sd.getReferences(pid));
+          for ( i = 0; i < sizes; i++ ) {
+            row.append("\t").append(sd.faults(pid, 1 << i));
+          }
+          out.println(row);
+        }
+        out.printf("%.1f ms%n", elapsed / 1e6);
+        break;
+    }
+  }
+
+  /*************************************************
+  * Prints the stats the way ProcessTable does.
+  *************************************************/
+  private void printText ( PrintStream out, PCB [] pcbs, SimulationEngine engine,
+  Geometry geometry, long elapsed, long at ) {
+    out.println("-------------------------------------------------");
+    out.println((at < 0 ? "Final Stats" : "Stats at reference " + at)
+    + " (" + policy + ", " + geometry + ")\n");
+    out.println("Proc   Refs  Faults");
+    int i;
+    for ( i = 0; i < pcbs.length; i++ ) {
+      out.println(pcbs[i].getPID() + "\t" + pcbs[i].getTotalReferences() + "\t"
+      + pcbs[i].getTotalPageFaults());
+    }
+    out.println("Total\t" + engine.getReferences() + "\t" + engine.getFaults());
+    out.printf("Fault rate %.4f, %.1f ms%n", faultRate(engine), elapsed / 1e6);
+  }
+
+  /*************************************************
+  * Prints one CSV row per process plus a total row,
+  * led by the reference they are at when seeking.
+  *************************************************/
+  private void printCsv ( PrintStream out, PCB [] pcbs, SimulationEngine engine, long at ) {
+    out.println(at < 0 ? "pid,references,faults" : "atReference,pid,references,faults");
+    printCsvRows(out, pcbs, engine, at);
+  }
+
+  /*************************************************
+  * Prints the CSV rows without the header.
+  *************************************************/
+  private void printCsvRows ( PrintStream out, PCB [] pcbs, SimulationEngine engine,
+  long at ) {
+    String lead = at < 0 ? "" : at + ",";
+    int i;
+    for ( i = 0; i < pcbs.length; i++ ) {
+      out.println(lead + pcbs[i].getPID() + "," + pcbs[i].getTotalReferences() + ","
+      + pcbs[i].getTotalPageFaults());
+    }
+    out.println(lead + "total," + engine.getReferences() + "," + engine.getFaults());
+  }
+
+  /*************************************************
+  * Prints the run configuration and stats as JSON,
+  * one object per line when seeking.
+  *************************************************/
+  private void printJson ( PrintStream out, PCB [] pcbs, SimulationEngine engine,
+  Geometry geometry, long elapsed, long at ) {
+    StringBuilder json = new StringBuilder();
+    json.append("{\"trace\":\"").append(escape(trace)).append("\"");
+    json.append(",\"policy\":\"").append(policy).append("\"");
+    if ( at >= 0 ) {
+      json.append(",\"atReference\":").append(at);
+    }
+    json.append(",\"frames\":").append(geometry.getFrames());
+    json.append(",\"pageSize\":").append(geometry.getPageSize());
+    json.append(",\"addressBits\":").append(geometry.getAddressBits());
+    json.append(",\"references\":").append(engine.getReferences());
+    json.append(",\"faults\":").append(engine.getFaults());
+    json.append(",\"faultRate\":").append(faultRate(engine));
+    json.append(",\"elapsedNanos\":").append(elapsed);
+    json.append(",\"processes\":[");
+    int i;
+    for ( i = 0; i < pcbs.length; i++ ) {
+      if ( i > 0 ) {
+        json.append(",");
+      }
+      json.append("{\"pid\":").append(pcbs[i].getPID());
+      json.append(",\"references\":").append(pcbs[i].getTotalReferences());
+      json.append(",\"faults\":").append(pcbs[i].getTotalPageFaults()).append("}");
+    }
+    json.append("]}");
+    out.println(json);
+  }
+
+  /*********************************************
+  * Reports faults per reference for the run.
+  * @return the fault rate, 0 for an empty run.
+  *********************************************/
+  private static double faultRate ( SimulationEngine engine ) {
+    if ( engine.getReferences() == 0 ) {
+      return 0.0;
+    }
+    return (double) engine.getFaults() / engine.getReferences();
+  }
+
+  /*********************************************
+  * Escapes a string for a JSON string literal.
+  * @return the escaped string, without quotes.
+  *********************************************/
+  private static String escape ( String raw ) {
+    return raw.replace("\\", "\\\\").replace("\"", "\\\"");
+  }
+}
@@ -0,0 +1,194 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+/******************************************************************
+* The layout of the compact binary trace format (*.vmt).
+* A 32-byte header describes the geometry, followed by fixed-width
+* little-endian records of (exit << (pidBits + pageBits) | pid <<
+* pageBits | page), each packed into the fewest whole bytes that
+* hold them. The exit bit marks a record saying the process exited;
+* version 1 traces have no exit bit and are still read.
+* Fixed-width records let a reader jump straight to reference n.
+*
+* Header (big-endian):
+*   0  int   magic "VMTR"
+*   4  short version
+*   6  byte  pidBits
+*   7  byte  pageBits
+*   8  byte  recordBytes
+*   9  3 bytes reserved
+*   12 int   pageSize
+*   16 int   addressBits
+*   20 int   processes
+*   24 long  number of records
+* @since 10/18/2026
+******************************************************************/
+public class BinaryTrace {
+
+  /** The magic number that opens every binary trace. */
+  public static final int MAGIC = 0x564D5452;
+
+  /** The current format version. */
+  public static final short VERSION = 2;
+
+  /** The size of the header in bytes. */
+  public static final int HEADER_BYTES = 32;
+
+  /** The offset of the record count in the header. */
+  public static final int COUNT_OFFSET = 24;
+
+  /** The number of bits used for a PID. */
+  private final int pidBits;
+
+  /** The number of bits used for a page number. */
+  private final int pageBits;
+
+  /** The format version, which decides the exit bit. */
+  private final short version;
+
+  /** The number of bytes in a record. */
+  private final int recordBytes;
+
+  /** The geometry the trace was recorded with. */
+  private final Geometry geometry;
+
+  /** The number of records in the trace. */
+  private final long count;
+
+  /*****************************************************
+  * Describes a trace recorded with the given geometry.
+  * @param pGeometry is the geometry of the trace.
+  * @param pCount is the number of records.
+  *****************************************************/
+  public BinaryTrace ( Geometry pGeometry, long pCount ) {
+    this(pGeometry, pCount, VERSION);
+  }
+
+  /*****************************************************
+  * Describes a trace in the given format version.
+  *****************************************************/
+  private BinaryTrace ( Geometry pGeometry, long pCount, short pVersion ) {
+    this.geometry = pGeometry;
+    this.version = pVersion;
+    this.pidBits = 32 - Integer.numberOfLeadingZeros(pGeometry.getProcesses());
+    this.pageBits = pGeometry.getPageBits();
+    this.recordBytes = (pidBits + pageBits + (pVersion >= 2 ? 1 : 0) + 7) / 8;
+    this.count = pCount;
+  }
+
+  /*****************************************************
+  * Reads a header from the start of the buffer.
+  * @param header holds at least HEADER_BYTES bytes.
+  * @return the trace description.
+  * @throws IOException if this is not a binary trace.
+  *****************************************************/
+  public static BinaryTrace readHeader ( ByteBuffer header ) throws IOException {
+    header.order(ByteOrder.BIG_ENDIAN);
+    if ( header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC ) {
+      throw new IOException("Not a binary trace");
+    }
+    short version = header.getShort(4);
+    if ( version < 1 || version > VERSION ) {
+      throw new IOException("Unsupported binary trace version " + version);
+    }
+    Geometry g = new Geometry(Geometry.DEFAULT_FRAMES, header.getInt(12),
+    header.getInt(16), header.getInt(20));
+    BinaryTrace trace = new BinaryTrace(g, header.getLong(COUNT_OFFSET), version);
+    if ( trace.pidBits != header.get(6) || trace.pageBits != header.get(7)
+    || trace.recordBytes != header.get(8) ) {
+      throw new IOException("Corrupt binary trace header");
+    }
+    return trace;
+  }
+
+  /*****************************************************
+  * Checks the first bytes of a file for the magic number.
+  * @param start holds the first bytes of the file.
+  * @return true if it looks like a binary trace.
+  *****************************************************/
+  public static boolean isBinary ( ByteBuffer start ) {
+    return start.remaining() >= 4
+    && start.order(ByteOrder.BIG_ENDIAN).getInt(start.position()) == MAGIC;
+  }
+
+  /*****************************************************
+  * Encodes the header.
+  * @return a buffer holding the header, ready to write.
+  *****************************************************/
+  public ByteBuffer encodeHeader () {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+    header.putInt(MAGIC);
+    header.putShort(version);
+    header.put((byte) pidBits);
+    header.put((byte) pageBits);
+    header.put((byte) recordBytes);
+    header.put(new byte [3]);
+    header.putInt(geometry.getPageSize());
+    header.putInt(geometry.getAddressBits());
+    header.putInt(geometry.getProcesses());
+    header.putLong(count);
+    header.flip();
+    return header;
+  }
+
+  /*****************************************************
+  * Checks that the trace fits the simulated geometry.
+  * @param sim is the geometry being simulated.
+  * @throws IOException if PIDs or pages would not fit.
+  *****************************************************/
+  public void checkFits ( Geometry sim ) throws IOException {
+    if ( geometry.getProcesses() > sim.getProcesses()
+    || pageBits > sim.getPageBits() ) {
+      throw new IOException("Trace recorded for " + geometry
+      + " does not fit " + sim);
+    }
+  }
+
+  /*******************************************
+  * Reports the number of bits in a PID.
+  * @return the PID width.
+  *******************************************/
+  public int getPidBits () {
+    return this.pidBits;
+  }
+
+  /*******************************************
+  * Reports whether records carry an exit bit.
+  * @return true from version 2, which has the exit bit.
+  *******************************************/
+  public boolean hasExitBit () {
+    return this.version >= 2;
+  }
+
+  /*******************************************
+  * Reports the number of bits in a page number.
+  * @return the page number width.
+  *******************************************/
+  public int getPageBits () {
+    return this.pageBits;
+  }
+
+  /*******************************************
+  * Reports the number of bytes in a record.
+  * @return the record size.
+  *******************************************/
+  public int getRecordBytes () {
+    return this.recordBytes;
+  }
+
+  /*******************************************
+  * Reports the number of records.
+  * @return the record count.
+  *******************************************/
+  public long getCount () {
+    return this.count;
+  }
+
+  /*******************************************
+  * Reports the geometry the trace was recorded with.
+  * @return the geometry.
+  *******************************************/
+  public Geometry getGeometry () {
+    return this.geometry;
+  }
+}
@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/******************************************************************
+* Streams references from a binary trace (see BinaryTrace).
+* The records are memory-mapped a window at a time and decoded
+* with a shift and a mask, so replaying a trace runs at close to
+* disk bandwidth. Windows hold whole records, so a record never
+* straddles two windows.
+* @since 10/18/2026
+******************************************************************/
+public class BinaryTraceReader implements ReferenceSource {
+
+  /** The channel over the trace file. */
+  private FileChannel channel;
+
+  /** The layout of the trace. */
+  private BinaryTrace trace;
+
+  /** The number of bytes in a record. */
+  private int recordBytes;
+
+  /** The number of bits in a page number. */
+  private int pageBits;
+
+  /** The mask of the PID once shifted down. */
+  private long pidMask;
+
+  /** The highest PID the simulated geometry allows. */
+  private int maxPid;
+
+  /** The exit bit of a record, 0 for traces without one. */
+  private long exitBit;
+
+  /** The number of records mapped at a time. */
+  private int windowRecords;
+
+  /** The currently mapped window. */
+  private MappedByteBuffer window;
+
+  /** The index of the next record to read. */
+  private long nextRecord;
+
+  /** The index of the record after the current window. */
+  private long windowEnd;
+
+  /** The current reference. */
+  private int pid, page;
+
+  /** Whether the end of input was reached. */
+  private boolean done;
+
+  /***************************************************
+  * Opens a binary trace for the given geometry.
+  * @param path is the trace file.
+  * @param pGeometry is the geometry being simulated.
+  * @throws IOException if the file cannot be opened,
+  * is not a binary trace or does not fit the geometry.
+  ***************************************************/
+  public BinaryTraceReader ( Path path, Geometry pGeometry ) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    ByteBuffer header = ByteBuffer.allocate(BinaryTrace.HEADER_BYTES);
+    while ( header.hasRemaining() && channel.read(header) >= 0 ) {
+      // Keep reading until the header is complete.
+    }
+    header.flip();
+    try {
+      this.trace = BinaryTrace.readHeader(header);
+      trace.checkFits(pGeometry);
+    } catch ( IOException e ) {
+      channel.close();
+      throw e;
+    }
+    long available = (channel.size() - BinaryTrace.HEADER_BYTES) / trace.getRecordBytes();
+    if ( available < trace.getCount() ) {
+      channel.close();
+      throw new IOException("Binary trace is truncated: " + available + " of "
+      + trace.getCount() + " records");
+    }
+    this.maxPid = pGeometry.getProcesses();
+    this.recordBytes = trace.getRecordBytes();
+    this.pageBits = trace.getPageBits();
+    this.pidMask = (1L << trace.getPidBits()) - 1;
+    this.exitBit = trace.hasExitBit() ? 1L << (trace.getPidBits() + pageBits) : 0;
+    this.windowRecords = MappedTraceReader.DEFAULT_WINDOW / recordBytes;
+  }
+
+  /*******************************************************
+  * Reads the next record.
+  * @return false at the end of the trace.
+  * @throws IOException if it cannot be read, or its PID
+  * is 0 or beyond the simulated processes.
+  *******************************************************/
+  @Override
+  public boolean next () throws IOException {
+    if ( done || nextRecord >= trace.getCount() ) {
+      done = true;
+      return false;
+    }
+    if ( nextRecord == windowEnd || window == null ) {
+      map(nextRecord);
+    }
+    long record = 0;
+    int i;
+    for ( i = 0; i < recordBytes; i++ ) {
+      record |= (window.get() & 0xFFL) << (8 * i);
+    }
+    pid = (int) ((record >>> pageBits) & pidMask);
+    page = (record & exitBit) != 0 ? EXIT : (int) (record & ((1L << pageBits) - 1));
+    if ( pid < 1 || pid > maxPid ) {
+      throw new IOException("Record " + nextRecord + " has PID " + pid
+      + ", outside 1.." + maxPid);
+    }
+    nextRecord++;
+    return true;
+  }
+
+  @Override
+  public double progress () {
+    return trace.getCount() == 0 ? 1.0 : nextRecord / (double) trace.getCount();
+  }
+
+  @Override
+  public long offset () {
+    return nextRecord;
+  }
+
+  /*******************************************************
+  * Moves to a record index, reusing the current window
+  * if it covers the record.
+  * @param offset is the index of the record.
+  * @throws IOException if it is outside the trace.
+  *******************************************************/
+  @Override
+  public void seek ( long offset ) throws IOException {
+    if ( offset < 0 || offset > trace.getCount() ) {
+      throw new IOException("Record " + offset + " is outside the trace");
+    }
+    if ( window != null && offset >= windowEnd - window.limit() / recordBytes
+    && offset < windowEnd ) {
+      window.position((int) (offset - (windowEnd - window.limit() / recordBytes)) * recordBytes);
+    } else {
+      window = null;
+    }
+    nextRecord = offset;
+    done = false;
+  }
+
+  @Override
+  public int pid () {
+    return this.pid;
+  }
+
+  @Override
+  public int page () {
+    return this.page;
+  }
+
+  @Override
+  public void close () throws IOException {
+    done = true;
+    window = null;
+    channel.close();
+  }
+
+  /*******************************************
+  * Reports the layout of the trace.
+  * @return the header of the trace.
+  *******************************************/
+  public BinaryTrace getTrace () {
+    return this.trace;
+  }
+
+  /*****************************************************
+  * Maps the window that starts at the given record.
+  * @param first is the index of the first record.
+  * @throws IOException if the window cannot be mapped.
+  *****************************************************/
+  private void map ( long first ) throws IOException {
+    long records = Math.min(windowRecords, trace.getCount() - first);
+    long offset = BinaryTrace.HEADER_BYTES + first * recordBytes;
+    this.window = channel.map(FileChannel.MapMode.READ_ONLY, offset, records * recordBytes);
+    this.windowEnd = first + records;
+  }
+}
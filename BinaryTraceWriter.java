@@ -0,0 +1,107 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/******************************************************************
+* Writes references to a binary trace (see BinaryTrace).
+* Records are buffered and written in large blocks; the record
+* count in the header is filled in when the writer is closed.
+* @since 10/18/2026
+******************************************************************/
+public class BinaryTraceWriter {
+
+  /** The number of bytes buffered before a write. */
+  private static final int BUFFER = 1 << 20;
+
+  /** The channel over the trace file. */
+  private FileChannel channel;
+
+  /** The layout of the trace. */
+  private BinaryTrace trace;
+
+  /** The buffered records. */
+  private ByteBuffer buf;
+
+  /** The number of records written. */
+  private long count;
+
+  /***************************************************
+  * Creates (or truncates) a binary trace file.
+  * @param path is the trace file.
+  * @param geometry is the geometry of the trace.
+  * @throws IOException if the file cannot be created.
+  ***************************************************/
+  public BinaryTraceWriter ( Path path, Geometry geometry ) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    this.trace = new BinaryTrace(geometry, 0);
+    this.buf = ByteBuffer.allocate(BUFFER);
+    writeFully(trace.encodeHeader());
+  }
+
+  /***************************************************
+  * Appends one reference, or an exit record.
+  * @param pid is the process that made the reference.
+  * @param page is the page that was referenced, or
+  * ReferenceSource.EXIT if the process exited.
+  * @throws IOException if the file cannot be written.
+  ***************************************************/
+  public void write ( int pid, int page ) throws IOException {
+    int recordBytes = trace.getRecordBytes();
+    if ( buf.remaining() < recordBytes ) {
+      flush();
+    }
+    long record = ((long) pid << trace.getPageBits());
+    if ( page == ReferenceSource.EXIT ) {
+      record |= 1L << (trace.getPidBits() + trace.getPageBits());
+    } else {
+      record |= page;
+    }
+    int i;
+    for ( i = 0; i < recordBytes; i++ ) {
+      buf.put((byte) (record >>> (8 * i)));
+    }
+    count++;
+  }
+
+  /***************************************************
+  * Flushes the records and fills in the header count.
+  * @throws IOException if the file cannot be written.
+  ***************************************************/
+  public void close () throws IOException {
+    flush();
+    ByteBuffer n = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+    n.putLong(count).flip();
+    channel.position(BinaryTrace.COUNT_OFFSET);
+    writeFully(n);
+    channel.close();
+  }
+
+  /*******************************************
+  * Reports the number of records written.
+  * @return the record count.
+  *******************************************/
+  public long getCount () {
+    return this.count;
+  }
+
+  /*******************************************
+  * Writes out the buffered records.
+  *******************************************/
+  private void flush () throws IOException {
+    buf.flip();
+    writeFully(buf);
+    buf.clear();
+  }
+
+  /*******************************************
+  * Writes the whole buffer to the channel.
+  *******************************************/
+  private void writeFully ( ByteBuffer data ) throws IOException {
+    while ( data.hasRemaining() ) {
+      channel.write(data);
+    }
+  }
+}
@@ -0,0 +1,332 @@
+/******************************************************************
+* A condition to run the simulation until.
+* A breakpoint listens to the engine like any other listener and
+* notes when its condition first holds; a run checks isTriggered()
+* after each step and stops there. The kinds are:
+* - reference N: the Nth reference has been processed;
+* - PID faults: the given process takes a page fault;
+* - page evicted: the given page is replaced, optionally only
+*   that page of one process;
+* - fault rate: the faults among the last W references exceed
+*   the given fraction of them.
+* Breakpoints are parsed from the text the user types, e.g. "5000",
+* "7", "P7:12" or "12", and "0.5/1000" (0.5 over 1000 references).
+* @since 10/18/2026
+******************************************************************/
+public abstract class Breakpoint implements SimulationListener {
+
+  /** Stops once a reference number is reached. */
+  public static final int REFERENCE = 0;
+
+  /** Stops when a process takes a fault. */
+  public static final int FAULT = 1;
+
+  /** Stops when a page is evicted. */
+  public static final int EVICTION = 2;
+
+  /** Stops when the fault rate over a window is too high. */
+  public static final int FAULT_RATE = 3;
+
+  /** The names of the kinds, indexed by kind. */
+  public static final String [] KINDS =
+  {"Reference #", "PID faults", "Page evicted", "Fault rate >"};
+
+  /** The window of a fault rate given without one. */
+  public static final int DEFAULT_WINDOW = 1000;
+
+  /** Whether the condition has held. */
+  private boolean triggered;
+
+  /*******************************************
+  * Reports whether the condition has held.
+  * @return true once triggered.
+  *******************************************/
+  public boolean isTriggered () {
+    return this.triggered;
+  }
+
+  /*******************************************
+  * Marks the condition as having held.
+  *******************************************/
+  protected void trigger () {
+    this.triggered = true;
+  }
+
+  /*******************************************
+  * Describes the condition for the user.
+  * @return a short description.
+  *******************************************/
+  public abstract String describe ();
+
+  @Override
+  public void pageHit ( int pid, int page, int frame ) {
+  }
+
+  @Override
+  public void pageLoaded ( int pid, int page, int frame ) {
+  }
+
+  @Override
+  public void pageReplaced ( int pid, int page, int frame, int victimPid, int victimPage ) {
+  }
+
+  @Override
+  public void processExited ( int pid, int released ) {
+  }
+
+  @Override
+  public void simulationDone () {
+  }
+
+  /*******************************************************
+  * Builds a breakpoint from the text the user typed.
+  * @param kind is one of REFERENCE, FAULT, EVICTION or
+  * FAULT_RATE.
+  * @param spec is the condition's value.
+  * @param engine is the engine it will watch.
+  * @return the breakpoint.
+  * @throws IllegalArgumentException if spec is malformed.
+  *******************************************************/
+  public static Breakpoint parse ( int kind, String spec, SimulationEngine engine ) {
+    String s = spec.trim();
+    switch ( kind ) {
+      case REFERENCE:
+        return atReference(engine, Long.parseLong(s));
+      case FAULT:
+        return onFault(Integer.parseInt(s.startsWith("P") ? s.substring(1) : s));
+      case EVICTION:
+        int colon = s.indexOf(':');
+        if ( colon < 0 ) {
+          return onEviction(0, Integer.parseInt(s));
+        }
+        String pid = s.substring(0, colon).trim();
+        return onEviction(Integer.parseInt(pid.startsWith("P") ? pid.substring(1) : pid),
+        Integer.parseInt(s.substring(colon + 1).trim()));
+      case FAULT_RATE:
+        int slash = s.indexOf('/');
+        if ( slash < 0 ) {
+          return onFaultRate(Double.parseDouble(s), DEFAULT_WINDOW);
+        }
+        return onFaultRate(Double.parseDouble(s.substring(0, slash).trim()),
+        Integer.parseInt(s.substring(slash + 1).trim()));
+      default:
+        throw new IllegalArgumentException("Unknown breakpoint kind " + kind);
+    }
+  }
+
+  /*******************************************************
+  * Stops once the engine has processed n references. It
+  * has already triggered if the engine is at or past n.
+  * @param engine is the engine to watch.
+  * @param n is the reference number.
+  * @return the breakpoint.
+  *******************************************************/
+  public static Breakpoint atReference ( SimulationEngine engine, long n ) {
+    return new ReferenceBreak(engine, n);
+  }
+
+  /*******************************************************
+  * Stops when a process takes a page fault.
+  * @param pid is the PID of the process.
+  * @return the breakpoint.
+  *******************************************************/
+  public static Breakpoint onFault ( int pid ) {
+    return new FaultBreak(pid);
+  }
+
+  /*******************************************************
+  * Stops when a page is evicted.
+  * @param pid is the PID of the page's process, 0 for any.
+  * @param page is the page number.
+  * @return the breakpoint.
+  *******************************************************/
+  public static Breakpoint onEviction ( int pid, int page ) {
+    return new EvictionBreak(pid, page);
+  }
+
+  /*******************************************************
+  * Stops when more than a fraction of the last references
+  * were faults.
+  * @param rate is the fraction, from 0 to 1.
+  * @param window is the number of references.
+  * @return the breakpoint.
+  *******************************************************/
+  public static Breakpoint onFaultRate ( double rate, int window ) {
+    if ( window <= 0 ) {
+      throw new IllegalArgumentException("The window must be at least one reference");
+    }
+    return new FaultRateBreak(rate, window);
+  }
+
+  /******************************************************************
+  * Stops at a reference number.
+  ******************************************************************/
+  private static class ReferenceBreak extends Breakpoint {
+
+    /** The engine whose references are counted. */
+    private final SimulationEngine engine;
+
+    /** The reference number to stop at. */
+    private final long target;
+
+    ReferenceBreak ( SimulationEngine pEngine, long pTarget ) {
+      this.engine = pEngine;
+      this.target = pTarget;
+      if ( pEngine.getReferences() >= pTarget ) {
+        trigger();
+      }
+    }
+
+    @Override
+    public void pageHit ( int pid, int page, int frame ) {
+      check();
+    }
+
+    @Override
+    public void pageLoaded ( int pid, int page, int frame ) {
+      check();
+    }
+
+    @Override
+    public void pageReplaced ( int pid, int page, int frame, int victimPid, int victimPage ) {
+      check();
+    }
+
+    private void check () {
+      if ( engine.getReferences() >= target ) {
+        trigger();
+      }
+    }
+
+    @Override
+    public String describe () {
+      return "reference " + target;
+    }
+  }
+
+  /******************************************************************
+  * Stops at a fault of one process.
+  ******************************************************************/
+  private static class FaultBreak extends Breakpoint {
+
+    /** The process to watch. */
+    private final int pid;
+
+    FaultBreak ( int pPid ) {
+      this.pid = pPid;
+    }
+
+    @Override
+    public void pageLoaded ( int pPid, int page, int frame ) {
+      if ( pPid == pid ) {
+        trigger();
+      }
+    }
+
+    @Override
+    public void pageReplaced ( int pPid, int page, int frame, int victimPid, int victimPage ) {
+      if ( pPid == pid ) {
+        trigger();
+      }
+    }
+
+    @Override
+    public String describe () {
+      return "P" + pid + " faults";
+    }
+  }
+
+  /******************************************************************
+  * Stops when a page is replaced.
+  ******************************************************************/
+  private static class EvictionBreak extends Breakpoint {
+
+    /** The process of the page, 0 for any. */
+    private final int pid;
+
+    /** The page to watch. */
+    private final int page;
+
+    EvictionBreak ( int pPid, int pPage ) {
+      this.pid = pPid;
+      this.page = pPage;
+    }
+
+    @Override
+    public void pageReplaced ( int pPid, int pPage, int frame, int victimPid, int victimPage ) {
+      if ( victimPage == page && (pid == 0 || victimPid == pid) ) {
+        trigger();
+      }
+    }
+
+    @Override
+    public String describe () {
+      return (pid == 0 ? "page " : "P" + pid + " page ") + page + " evicted";
+    }
+  }
+
+  /******************************************************************
+  * Stops when the faults in a sliding window pass a threshold.
+  * The outcome of each reference in the window is kept in a ring.
+  ******************************************************************/
+  private static class FaultRateBreak extends Breakpoint {
+
+    /** The fraction of faults to exceed. */
+    private final double rate;
+
+    /** Whether each of the last references faulted, as a ring. */
+    private final boolean [] outcomes;
+
+    /** The next slot of the ring. */
+    private int next;
+
+    /** The references recorded, up to the window. */
+    private int filled;
+
+    /** The faults among the recorded references. */
+    private int faults;
+
+    FaultRateBreak ( double pRate, int window ) {
+      this.rate = pRate;
+      this.outcomes = new boolean [window];
+    }
+
+    @Override
+    public void pageHit ( int pid, int page, int frame ) {
+      record(false);
+    }
+
+    @Override
+    public void pageLoaded ( int pid, int page, int frame ) {
+      record(true);
+    }
+
+    @Override
+    public void pageReplaced ( int pid, int page, int frame, int victimPid, int victimPage ) {
+      record(true);
+    }
+
+    private void record ( boolean fault ) {
+      if ( filled == outcomes.length ) {
+        if ( outcomes[next] ) {
+          faults--;
+        }
+      } else {
+        filled++;
+      }
+      outcomes[next] = fault;
+      if ( fault ) {
+        faults++;
+      }
+      next = next + 1 == outcomes.length ? 0 : next + 1;
+      if ( filled == outcomes.length && faults > rate * outcomes.length ) {
+        trigger();
+      }
+    }
+
+    @Override
+    public String describe () {
+      return "fault rate over " + rate + " in " + outcomes.length + " references";
+    }
+  }
+}
@@ -0,0 +1,177 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+/******************************************************************
+* A snapshot of the simulation after a given reference: the frame
+* table with its free frames, the replacement policy's order, every
+* PCB with its page table, and the offset in the trace to resume
+* reading from. Restoring it into tables of the same geometry and
+* policy and seeking the trace to the offset continues the run
+* exactly as if it had never stopped.
+*
+* Each table writes its own state to a DataOutput, as primitive
+* arrays written in bulk; derived structures such as the frame
+* index are rebuilt on restore rather than stored. The bytes are
+* deflated, which shrinks the mostly-regular frame arrays a lot.
+* Checkpoints are Serializable, so they can also be kept on disk.
+* @since 10/18/2026
+******************************************************************/
+public class Checkpoint implements Serializable {
+
+  /** Objects of the class are now serializable. */
+  private static final long serialVersionUID = 1L;
+
+  /** The buffer between the tables and the deflater. */
+  private static final int BUFFER = 64 << 10;
+
+  /** The number of references processed at the snapshot. */
+  private final long references;
+
+  /** The number of faults at the snapshot. */
+  private final long faults;
+
+  /** The trace offset of the next record, see ReferenceSource. */
+  private final long offset;
+
+  /** The deflated state of the tables. */
+  private final byte [] state;
+
+  /*************************************************
+  * Instantiates a checkpoint.
+  * @param pReferences is the references processed.
+  * @param pFaults is the faults so far.
+  * @param pOffset is the trace offset to resume at.
+  * @param pState is the deflated table state.
+  *************************************************/
+  public Checkpoint ( long pReferences, long pFaults, long pOffset, byte [] pState ) {
+    this.references = pReferences;
+    this.faults = pFaults;
+    this.offset = pOffset;
+    this.state = pState;
+  }
+
+  /*************************************************
+  * Snapshots the tables.
+  * @param tables are the tables to save.
+  * @return the deflated state.
+  *************************************************/
+  public static byte [] capture ( Tables tables ) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+      new DeflaterOutputStream(bytes, deflater), BUFFER));
+      tables.saveState(out);
+      out.close();
+    } catch ( IOException e ) {
+      // A byte array cannot fail to be written.
+      throw new IllegalStateException(e);
+    } finally {
+      deflater.end();
+    }
+    return bytes.toByteArray();
+  }
+
+  /*************************************************
+  * Puts the tables back in the saved state.
+  * @param tables must have the saved geometry and policy.
+  * @throws IOException if the state does not fit them.
+  *************************************************/
+  public void restore ( Tables tables ) throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(
+    new InflaterInputStream(new ByteArrayInputStream(state)), BUFFER));
+    try {
+      tables.restoreState(in);
+    } finally {
+      in.close();
+    }
+  }
+
+  /*******************************************
+  * Reports the references processed.
+  * @return the reference count.
+  *******************************************/
+  public long getReferences () {
+    return this.references;
+  }
+
+  /*******************************************
+  * Reports the faults so far.
+  * @return the fault count.
+  *******************************************/
+  public long getFaults () {
+    return this.faults;
+  }
+
+  /*******************************************
+  * Reports the trace offset to resume at.
+  * @return the offset in the reference source.
+  *******************************************/
+  public long getOffset () {
+    return this.offset;
+  }
+
+  /*******************************************
+  * Reports the size of the saved state.
+  * @return the number of deflated bytes.
+  *******************************************/
+  public int getSize () {
+    return this.state.length;
+  }
+
+  /*************************************************
+  * Writes a generator's exact state, or its absence.
+  * Random keeps its seed private, so it goes through
+  * its own serialized form.
+  * @param out is where the state is written.
+  * @param rnd is the generator, may be null.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  static void writeRandom ( DataOutput out, Random rnd ) throws IOException {
+    if ( rnd == null ) {
+      out.writeInt(0);
+      return;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream objects = new ObjectOutputStream(bytes);
+    objects.writeObject(rnd);
+    objects.close();
+    out.writeInt(bytes.size());
+    out.write(bytes.toByteArray());
+  }
+
+  /*************************************************
+  * Reads a generator written by writeRandom.
+  * @param in is where the state is read from.
+  * @return the generator, null if there was none.
+  * @throws IOException if it cannot be read.
+  *************************************************/
+  static Random readRandom ( DataInput in ) throws IOException {
+    int size = in.readInt();
+    if ( size == 0 ) {
+      return null;
+    }
+    byte [] bytes = new byte [size];
+    in.readFully(bytes);
+    ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes));
+    try {
+      return (Random) objects.readObject();
+    } catch ( ClassNotFoundException e ) {
+      throw new IOException("Bad generator state", e);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/*****************************************************************
+* Clock (second chance) replacement.
+* A hit sets the frame's reference bit. To pick a victim the hand
+* sweeps the frames, clearing set bits, and stops at the first
+* resident frame whose bit is already clear. Each bit is cleared
+* at most once per set, so the sweep is amortised O(1). Both bits
+* are packed 32 frames to an int in IntStores, so they can live
+* off the heap.
+* @since 10/18/2026
+*****************************************************************/
+public class ClockPolicy implements ReplacementPolicy {
+
+  /** The reference bit of each frame. */
+  private IntStore referenced;
+
+  /** Whether each frame holds a page the policy tracks. */
+  private IntStore resident;
+
+  /** The number of frames. */
+  private int frames;
+
+  /** The number of tracked frames. */
+  private int count;
+
+  /** The frame the hand points at. */
+  private int hand;
+
+  /*******************************************
+  * Instantiates the policy.
+  * @param pFrames is the number of frames.
+  *******************************************/
+  public ClockPolicy ( int pFrames ) {
+    int words = (int) (((long) pFrames + 31) >>> 5);
+    this.frames = pFrames;
+    this.referenced = new IntStore(words);
+    this.resident = new IntStore(words);
+  }
+
+  @Override
+  public void frameHit ( int frame ) {
+    set(referenced, frame);
+  }
+
+  @Override
+  public void frameLoaded ( int frame ) {
+    if ( !isSet(resident, frame) ) {
+      set(resident, frame);
+      count++;
+    }
+    set(referenced, frame);
+  }
+
+  @Override
+  public int pickVictim () {
+    if ( count == 0 ) {
+      return -1;
+    }
+    while ( true ) {
+      int frame = hand;
+      hand = (hand + 1 == frames) ? 0 : hand + 1;
+      if ( !isSet(resident, frame) ) {
+        continue;
+      }
+      if ( isSet(referenced, frame) ) {
+        clear(referenced, frame); // Second chance.
+      } else {
+        clear(resident, frame);
+        count--;
+        return frame;
+      }
+    }
+  }
+
+  @Override
+  public void frameReleased ( int frame ) {
+    if ( isSet(resident, frame) ) {
+      clear(resident, frame);
+      clear(referenced, frame);
+      count--;
+    }
+  }
+
+  @Override
+  public String getName () {
+    return "Clock";
+  }
+
+  @Override
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(hand);
+    resident.write(out);
+    referenced.write(out);
+  }
+
+  @Override
+  public void restoreState ( DataInput in ) throws IOException {
+    hand = in.readInt();
+    resident.read(in);
+    referenced.read(in);
+    count = 0;
+    int i;
+    for ( i = 0; i < resident.length(); i++ ) {
+      count += Integer.bitCount(resident.get(i));
+    }
+  }
+
+  /*******************************************
+  * Tests a frame's bit.
+  * @param bits is the bit set.
+  * @param frame is the frame.
+  * @return true if the bit is set.
+  *******************************************/
+  private static boolean isSet ( IntStore bits, int frame ) {
+    return (bits.get(frame >>> 5) & (1 << frame)) != 0;
+  }
+
+  /*******************************************
+  * Sets a frame's bit.
+  * @param bits is the bit set.
+  * @param frame is the frame.
+  *******************************************/
+  private static void set ( IntStore bits, int frame ) {
+    bits.set(frame >>> 5, bits.get(frame >>> 5) | (1 << frame));
+  }
+
+  /*******************************************
+  * Clears a frame's bit.
+  * @param bits is the bit set.
+  * @param frame is the frame.
+  *******************************************/
+  private static void clear ( IntStore bits, int frame ) {
+    bits.set(frame >>> 5, bits.get(frame >>> 5) & ~(1 << frame));
+  }
+}
@@ -1,6 +1,9 @@
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JPanel;
+import javax.swing.JTextField;
 import javax.swing.JLabel;
+import javax.swing.JProgressBar;
 import javax.swing.BorderFactory;
 import javax.swing.border.Border;
 import javax.swing.SwingConstants;
@@ -12,7 +15,11 @@ import java.awt.GridLayout;
 * The panel for the user commands.
 * Communicates with the GUI to set ActionListeners
 * in the controller.
-* Displays the LRU victim and memory reference.
+* Displays the latest victim and memory reference, and
+* the progress of a background run with a cancel button.
+* Run Until fast-forwards to the breakpoint picked in
+* the box next to it, e.g. a reference number or a PID.
+* Step Back undoes the latest reference.
 * @author Gloire Rubambiza
 * @since 11/22/2017
 **************************************************/
@@ -33,16 +40,25 @@ public class CommandsPanel extends JPanel {
   private JPanel command;
 
   /** The buttons for handling user actions. */
-  private JButton next, runf, runc, exit;
+  private JButton next, runf, runc, exit, cancel, runu, back;
+
+  /** The kind of breakpoint to run until. */
+  private JComboBox<String> breakKind;
+
+  /** The value of the breakpoint to run until. */
+  private JTextField breakSpec;
+
+  /** The progress of a background run. */
+  private JProgressBar progress;
 
   /** The label for the memory reference. */
   private JLabel ref;
 
-  /** The label for the LRU victim. */
+  /** The label for the latest victim. */
   private JLabel victim;
 
   /** The dimensions for the grid. */
-  private final int col = 1, row = 6;
+  private final int col = 1, row = 11;
 
   /*******************************************************
   * Instantiates the buttons to be used for user actions.
@@ -53,18 +69,39 @@ public class CommandsPanel extends JPanel {
 
     command = new JPanel();
 
-    victim = new JLabel("Latest LRU Victim:");
+    victim = new JLabel("Latest Victim:");
 
     ref = new JLabel("Mem References");
 
     next = new JButton("Next Input");
 
+    back = new JButton("Step Back");
+
     runf = new JButton("Run to Next Fault");
 
     runc = new JButton("Run to Completion");
 
     exit = new JButton("Exit");
 
+    cancel = new JButton("Cancel Run");
+    cancel.setEnabled(false);
+
+    runu = new JButton("Run Until");
+
+    breakKind = new JComboBox<String>(Breakpoint.KINDS);
+
+    breakSpec = new JTextField();
+    breakSpec.setToolTipText("<html>Reference #: 5000<br>PID faults: 7<br>"
+    + "Page evicted: 12 or P7:12<br>Fault rate &gt;: 0.5 or 0.5/1000</html>");
+
+    JPanel until = new JPanel(new GridLayout(1, 2));
+    until.add(breakKind);
+    until.add(breakSpec);
+
+    progress = new JProgressBar(0, 1000);
+    progress.setStringPainted(true);
+    progress.setString("Idle");
+
     setStandards();
 
     // Define the layout to be a grid.
@@ -74,8 +111,13 @@ public class CommandsPanel extends JPanel {
     add(victim);
     add(ref);
     add(next);
+    add(back);
     add(runf);
     add(runc);
+    add(until);
+    add(runu);
+    add(progress);
+    add(cancel);
     add(exit);
 
     setVisible(true);
@@ -87,14 +129,57 @@ public class CommandsPanel extends JPanel {
   * @return an array of the action buttons.
   ********************************************/
   public JButton [] sendButtons () {
-    JButton [] actionButtons = new JButton[4];
+    JButton [] actionButtons = new JButton[7];
     actionButtons[0] = next;
     actionButtons[1] = runf;
     actionButtons[2] = runc;
     actionButtons[3] = exit;
+    actionButtons[4] = cancel;
+    actionButtons[5] = runu;
+    actionButtons[6] = back;
     return actionButtons;
   }
 
+  /*******************************************
+  * Reports the kind of breakpoint picked.
+  * @return an index into Breakpoint.KINDS.
+  ********************************************/
+  public int getBreakpointKind () {
+    return breakKind.getSelectedIndex();
+  }
+
+  /*******************************************
+  * Reports the value typed for the breakpoint.
+  * @return the text of the breakpoint field.
+  ********************************************/
+  public String getBreakpointSpec () {
+    return breakSpec.getText();
+  }
+
+  /*****************************************************
+  * Shows a message in place of the progress, e.g. the
+  * breakpoint a run stopped at.
+  * @param text is the message.
+  *****************************************************/
+  public void setStatus ( String text ) {
+    progress.setIndeterminate(false);
+    progress.setString(text);
+  }
+
+  /*****************************************************
+  * Shows the progress of a background run.
+  * @param fraction is how far through the input the run
+  * is, from 0 to 1, or negative if it is not known.
+  * @param references is the number of references so far.
+  *****************************************************/
+  public void setProgress ( double fraction, long references ) {
+    progress.setIndeterminate(fraction < 0);
+    if ( fraction >= 0 ) {
+      progress.setValue((int) (fraction * progress.getMaximum()));
+    }
+    progress.setString(references + " references");
+  }
+
   /**************************************
   * Sets some aesthetics for the panel.
   ***************************************/
@@ -110,17 +195,23 @@ public class CommandsPanel extends JPanel {
     runc.setFont(NORMAL_FONT);
     exit.setFont(NORMAL_FONT);
     exit.setForeground(Color.RED);
+    cancel.setFont(NORMAL_FONT);
+    runu.setFont(NORMAL_FONT);
+    back.setFont(NORMAL_FONT);
+    breakKind.setFont(VICTIM_FONT);
+    breakSpec.setFont(VICTIM_FONT);
+    progress.setFont(VICTIM_FONT);
   }
 
   /*******************************************
-  * Updates the latest LRU victim.
+  * Updates the latest victim.
   * @param vic is info about the victim that was picked.
   ********************************************/
   public void setVictim( int [] vic ) {
     int frame = vic[0];
     int pid = vic[1];
     int page = vic[2];
-    victim.setText("LRU Victim:" +  " P" + pid + " Page " + page );
+    victim.setText("Victim:" +  " P" + pid + " Page " + page );
     victim.setForeground(Color.RED);
   }
 
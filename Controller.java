@@ -1,16 +1,36 @@
 import java.awt.event.ActionListener;
 import java.awt.event.ActionEvent;
 import javax.swing.JButton;
-import java.util.*;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 /*************************************************************
 * The Virtual Memory Management Manager a.k.a Controller
-* Sends messages to the tables with any new updates dictacted
-* by the file input.
-* Points the GUI to the right tables to update its contents.
+* Drives the simulation engine with the user's commands.
+* Listens to the engine and points the GUI to the right tables
+* to update its contents.
+* Next Input runs on the Event Dispatch Thread and redraws after
+* the reference. Run to Next Fault and Run to Completion run the
+* engine on a worker thread instead, in batches under the engine's
+* lock. The listener then only notes the latest event, and a timer
+* redraws the panels from the current state at most 30 times a
+* second, so the cost of drawing does not grow with the trace.
+* Run Until fast-forwards the same way to a Breakpoint, but the
+* timer only shows the progress: the panels are redrawn once, when
+* the breakpoint fires, so the engine runs at headless speed.
+* The page table panel is kept up to date with the pages mapped
+* and unmapped for the process it shows; during a background run
+* these are queued and handed over at the next redraw.
+* When the input can seek, the engine takes a checkpoint every
+* vimpares.checkpoint references (10000 by default). Step Back,
+* and Run Until a reference already passed, then restore the
+* nearest checkpoint, replay up to the reference and redraw.
 * @author Gloire Rubambiza
 * @since 11/22/2017
 **************************************************************/
-public class Controller implements ActionListener {
+public class Controller implements ActionListener, SimulationListener {
 
   /** The GUI to be displayed. */
   private SystemGUI gui;
@@ -18,11 +38,62 @@ public class Controller implements ActionListener {
   /** The table object that holds the frame and page table. */
   private Tables table;
 
-  /** The Queue of inputs read from the file. */
-  private Queue<Integer[]> input;
+  /** The engine that processes the input. */
+  private SimulationEngine engine;
+
+  /** The redraw period of a background run, about 30 fps. */
+  private static final int FRAME_MILLIS = 33;
+
+  /** The references a background run steps per lock. */
+  private static final int BATCH = 4096;
+
+  /** The page table updates queued between redraws. */
+  private static final int DELTAS = 1024;
+
+  /** The default references between checkpoints. */
+  private static final long CHECKPOINT_INTERVAL = 10000;
 
   /** The buttons for handling user actions. */
-  private JButton next, runf, runc, exit;
+  private JButton next, runf, runc, exit, cancel, runu, back;
+
+  /** The source of references, for its progress. */
+  private ReferenceSource input;
+
+  /** Redraws the panels during a background run. */
+  private Timer frameTimer;
+
+  /** Whether a background run owns the engine. */
+  private volatile boolean running;
+
+  /** Set to stop a background run after its batch. */
+  private volatile boolean stopRequested;
+
+  /** The latest reference seen during a background run. */
+  private int lastPid, lastPage;
+
+  /** The latest victim seen during a background run. */
+  private int victimFrame, victimPid, victimPage;
+
+  /** The breakpoint of the current run, null for none. */
+  private Breakpoint stop;
+
+  /** Whether the latest reference replaced the victim. */
+  private boolean replaced;
+
+  /** The process on the page table panel during a run. */
+  private int shownPid = -1;
+
+  /** The queued pages of the shown process. */
+  private int [] deltaPages = new int [DELTAS];
+
+  /** The queued frames of those pages, -1 if unmapped. */
+  private int [] deltaFrames = new int [DELTAS];
+
+  /** The number of queued updates. */
+  private int deltas;
+
+  /** Whether the queue overflowed and a rebuild is due. */
+  private boolean deltaOverflow;
 
   /** The array of action buttons. */
   private JButton [] userActionBtns;
@@ -31,16 +102,26 @@ public class Controller implements ActionListener {
   * Instantiates the tables, GUI, and buttons to be
   * used for user actions.
   *************************************************/
-  public Controller (SystemGUI pGUI, Tables pTable, Queue<Integer[]> pInput) {
+  public Controller (SystemGUI pGUI, Tables pTable, ReferenceSource pInput) {
 
     gui = pGUI;
     table = pTable;
     input = pInput;
+    engine = new SimulationEngine(pTable, pInput);
+    engine.addListener(this);
     userActionBtns = gui.sendButtons();
     next = userActionBtns[0];
     runf = userActionBtns[1];
     runc = userActionBtns[2];
     exit = userActionBtns[3];
+    cancel = userActionBtns[4];
+    runu = userActionBtns[5];
+    back = userActionBtns[6];
+    if ( pInput.offset() >= 0 ) {
+      engine.enableCheckpoints(Long.getLong("vimpares.checkpoint", CHECKPOINT_INTERVAL));
+    }
+    back.setEnabled(false);
+    frameTimer = new Timer(FRAME_MILLIS, e -> tick());
     addCommandListeners();
   }
 
@@ -52,6 +133,9 @@ public class Controller implements ActionListener {
     runf.addActionListener(this);
     runc.addActionListener(this);
     exit.addActionListener(this);
+    cancel.addActionListener(this);
+    runu.addActionListener(this);
+    back.addActionListener(this);
   }
 
   /**********************************************
@@ -60,7 +144,10 @@ public class Controller implements ActionListener {
   * @param pid is the PID of the process.
   **********************************************/
   public void updatePageTable (int pid) {
-    gui.displayPageTable(table.passProcessTable(pid), pid);
+    PageTableView view = table.passProcessTable(pid);
+    if ( view != null ) {
+      gui.displayPageTable(view, pid);
+    }
   }
 
   /**************************************************
@@ -90,230 +177,418 @@ public class Controller implements ActionListener {
     gui.displayStats(table.passPCBArray());
   }
 
-  /********************************************************************
-  * Pops input from the queue to be read when the user presses next.
-  * Tells the controller whether the read caused a page fault.
-  * Otherwise the LRU Queue is updated with the least recently
-  * used frame if the page is already in memory.
-  * @param queue is the input queue.
-  * @return 1 if we're done reading input, -1 if there was a page
-  * fault, 0 if the page was already in memory.
-  *******************************************************************/
-  private int readNext ( Queue<Integer[]> myQ ) {
-
-    // Check if we have input.
-    Integer [] pair = new Integer[2];
-    if ( ( pair = myQ.poll() ) == null ) { // Error checking
-      return 1; // Input is done.
-    }
-
-    // Send the input to check for a page fault.
-    int procNum =  pair[0];
-    int page = pair[1];
-    if ( isFault(procNum, page) ) {
-      return -1; // Page fault occured.
-    } else {
-      return 0;
+  /****************************************************
+  * Shows a reference to a page already in memory.
+  * @param pid is the PID of the process.
+  * @param page is the page already in memory.
+  * @param frame is the frame holding the page.
+  *****************************************************/
+  @Override
+  public void pageHit( int pid, int page, int frame ) {
+    if ( running ) {
+      lastPid = pid;
+      lastPage = page;
+      replaced = false;
+      return;
     }
-  }
 
-  /*****************************************************************
-  * Handles the given input and takes care of page faults as needed.
-  * @param procNum is the processing reading in a page.
-  * @param pageNum is the page being read.
-  * @return true if the update caused a page fault, false otherwise.
-  *****************************************************************/
-  private boolean isFault ( int procNum, int pageNum ) {
+    // Update the referenced page on the GUI.
+    this.updateReference(pid, page);
 
-    // Check if there is a free frame.
-    int freeFrame;
-
-    if ( table.checkPageInTable( procNum, pageNum) ) { // Check in memory
+    // Display the page table for the process of interest.
+    this.updatePageTable(pid);
+  }
 
-      // Handles the case of a page being already in memory.
-      this.handlePageInMemory(procNum, pageNum);
+  /****************************************************
+  * Shows a page fault served from a free frame.
+  * @param pid is the PID of the process.
+  * @param page is the page brought in.
+  * @param frame is the frame that was free.
+  *****************************************************/
+  @Override
+  public void pageLoaded( int pid, int page, int frame ) {
+    if ( running ) {
+      lastPid = pid;
+      lastPage = page;
+      replaced = false;
+      this.queuePageTable(pid, page, frame);
+      return;
+    }
 
-      // The page is in memory. No page fault.
-      return false;
+    // Update the referenced page on the GUI.
+    this.updateReference(pid, page);
 
-    } else if ( (freeFrame = table.checkFreeFrame()) >= 0 ) {
+    // Display the page table for the process of interest.
+    gui.displayPageMapped(pid, page, frame);
+    this.updatePageTable(pid);
 
-      // Handles the case of a page fault with free frames available.
-      this.handleFreeFrameAvailable(procNum, pageNum, freeFrame);
+    // Display the frame table with the new updates.
+    this.updateFrameTable(false, -1);
+  }
 
-      // The page is not in memory. It's a page fault, but we have free frames.
-      return true;
+  /****************************************************
+  * Shows a page fault that replaced a victim's page.
+  * @param pid is the PID of the process.
+  * @param page is the page brought in.
+  * @param frame is the victim frame.
+  * @param victimPid is the PID owning the evicted page.
+  * @param victimPage is the evicted page.
+  *****************************************************/
+  @Override
+  public void pageReplaced( int pid, int page, int frame,
+  int victimPid, int victimPage ) {
+    if ( running ) {
+      lastPid = pid;
+      lastPage = page;
+      this.victimFrame = frame;
+      this.victimPid = victimPid;
+      this.victimPage = victimPage;
+      replaced = true;
+      this.queuePageTable(victimPid, victimPage, -1);
+      this.queuePageTable(pid, page, frame);
+      return;
+    }
 
-    } else { // We actually have to kick a process' page out of memory.
+    // Update the referenced page on the GUI.
+    this.updateReference(pid, page);
 
-    // Handles the case of a page fault with replacement.
-    this.handlePageReplacement(procNum, pageNum);
+    // Notify the GUI that a victim was picked.
+    this.notifyGUI(new int [] {frame, victimPid, victimPage});
 
-    // The page is not in memory. It's a page fault, a replacement occured.
-    return true;
+    // Update the page/frame table on the GUI.
+    gui.displayPageUnmapped(victimPid, victimPage);
+    gui.displayPageMapped(pid, page, frame);
+    this.updatePageTable(pid);
+    this.updateFrameTable(true, frame);
   }
-}
-
-/****************************************************
-* Handles the case of a page already being in memory
-* after the input is read.
-* @param pid is the PID of the process.
-* @param page is the page already in memory.
-*****************************************************/
-private void handlePageInMemory( int pid, int page ) {
 
-  // Update the referenced page on the GUI.
-  this.updateReference(pid, page);
+  /****************************************************
+  * Shows memory after a process exited.
+  * @param pid is the PID of the process.
+  * @param released is the number of frames freed.
+  *****************************************************/
+  @Override
+  public void processExited( int pid, int released ) {
+    if ( running ) {
+      if ( pid == shownPid ) {
+        deltaOverflow = true; // Rebuilt, i.e. emptied, at the next redraw.
+      }
+      return;
+    }
 
-  // Update the reference count.
-  table.updateProcessRefCount(pid);
+    // The freed frames show up as empty.
+    gui.displayProcessExited(pid);
+    this.updateFrameTable(false, -1);
+  }
 
-  // Search which frame is associated with the process/page pair.
-  int frameOfInterest = (table.searchAssociatedFrame(pid, page))[0];
+  /*********************************************************
+  * Shows the final stats and disables the buttons once the
+  * input is done.
+  *********************************************************/
+  @Override
+  public void simulationDone() {
+    if ( running ) {
+      return; // Shown once the background run finishes.
+    }
+    this.updateStats();
+    this.disableButtons(userActionBtns);
+    back.setEnabled(engine.getCheckpointCount() > 0);
+  }
 
-  // Add the reference frame to LRU Queue as a replacement candidate.
-  table.addCandidateFrame(frameOfInterest);
+/***************************************************
+* Notifies the GUI that a page replacement occured.
+* GUI Updates who was the victim on the replacement.
+* @param vic is info about the victim that was picked.
+****************************************************/
+public void notifyGUI( int [] vic ) {
+  gui.displayVictim(vic);
+}
 
-  // Display the page table for the process of interest.
-  this.updatePageTable(pid);
+/******************************************************
+* Disables all the buttons when the input is done.
+* @param btns is the collection of user action buttons.
+*******************************************************/
+private void disableButtons( JButton[] btns ) {
 
+  int i;
+  for ( i = 0; i < 3; i++ ) {
+    btns[i].setEnabled(false);
+  }
+  cancel.setEnabled(false);
+  runu.setEnabled(false);
+  back.setEnabled(false);
 }
 
-/****************************************************
-* Handles the case of a page fault with free frames
-* being available.
+/******************************************************
+* Queues a page table update during a background run,
+* if it is for the process on the page table panel.
 * @param pid is the PID of the process.
-* @param page is the page already in memory.
-* @param freeFrame is the frame that is available.
-*****************************************************/
-private void handleFreeFrameAvailable( int pid, int page, int freeFrame ) {
+* @param page is the page mapped or unmapped.
+* @param frame is its new frame, -1 if unmapped.
+*******************************************************/
+private void queuePageTable( int pid, int page, int frame ) {
+  if ( pid != shownPid || deltaOverflow ) {
+    return;
+  }
+  if ( deltas == DELTAS ) {
+    deltaOverflow = true;
+    return;
+  }
+  deltaPages[deltas] = page;
+  deltaFrames[deltas] = frame;
+  deltas++;
+}
 
-  // Update the referenced page on the GUI.
-  this.updateReference(pid, page);
+/******************************************************
+* Starts a background run and the redraw timer.
+* @param toFault is true to stop at the next fault.
+* @param pStop is a breakpoint to stop at, null for none.
+*******************************************************/
+private void startRun( boolean toFault, Breakpoint pStop ) {
+  next.setEnabled(false);
+  runf.setEnabled(false);
+  runc.setEnabled(false);
+  runu.setEnabled(false);
+  back.setEnabled(false);
+  cancel.setEnabled(true);
+  stop = pStop;
+  if ( stop != null ) {
+    engine.addListener(stop);
+  }
+  lastPid = -1;
+  victimPid = -1;
+  replaced = false;
+  shownPid = gui.getPageTablePID();
+  deltas = 0;
+  deltaOverflow = false;
+  stopRequested = false;
+  running = true;
+  frameTimer.start();
+  new RunWorker(toFault).execute();
+}
 
-  // Update all the tables with the right info regarding the page fault.
-  table.updateProcessFaultCount(pid);
-  table.updateProcessRefCount(pid);
-  table.updateFrameTable(freeFrame, pid, page);
-  table.updatePageTable(false, pid, page, freeFrame);
+/******************************************************
+* Ends a background run on the Event Dispatch Thread:
+* draws the final state and either shows the stats or
+* hands the buttons back.
+* @param worker is the run that finished.
+*******************************************************/
+private void finishRun( RunWorker worker ) {
+  frameTimer.stop();
+  refresh();
+  running = false;
+  Breakpoint reached = stop;
+  stop = null;
+  if ( reached != null ) {
+    engine.removeListener(reached);
+    gui.displayStatus((reached.isTriggered() ? "Stopped at " : "Never reached ")
+    + reached.describe() + " (" + engine.getReferences() + " references)");
+  }
+  try {
+    worker.get();
+  } catch ( ExecutionException ex ) {
+    JOptionPane.showMessageDialog(gui, "Could not read input: "
+    + ex.getCause().getMessage());
+    this.disableButtons(userActionBtns);
+    return;
+  } catch ( InterruptedException ex ) {
+    Thread.currentThread().interrupt();
+  }
+  if ( engine.isDone() ) {
+    this.simulationDone();
+  } else {
+    next.setEnabled(true);
+    runf.setEnabled(true);
+    runc.setEnabled(true);
+    runu.setEnabled(true);
+    back.setEnabled(engine.getCheckpointCount() > 0);
+    cancel.setEnabled(false);
+  }
+}
 
-  // Add the reference frame to LRU Queue as a replacement candidate.
-  table.addCandidateFrame(freeFrame);
+/******************************************************
+* Updates the GUI on a timer tick of a background run:
+* fully during the run commands, and only the progress
+* while fast-forwarding to a breakpoint.
+*******************************************************/
+private void tick() {
+  if ( stop == null ) {
+    refresh();
+    return;
+  }
+  synchronized ( engine ) {
+    gui.displayProgress(input.progress(), engine.getReferences());
+  }
+}
 
-  // Display the page table for the process of interest.
-  this.updatePageTable(pid);
+/******************************************************
+* Starts a run to the breakpoint the user picked, or
+* explains why it cannot.
+* @throws IOException if a seek cannot read the input.
+*******************************************************/
+private void runUntil() throws IOException {
+  Breakpoint until;
+  try {
+    until = Breakpoint.parse(gui.getBreakpointKind(), gui.getBreakpointSpec(), engine);
+  } catch ( IllegalArgumentException ex ) {
+    JOptionPane.showMessageDialog(gui, "Could not read the breakpoint: " + ex.getMessage());
+    return;
+  }
+  if ( until.isTriggered() ) {
+    if ( gui.getBreakpointKind() == Breakpoint.REFERENCE && engine.getCheckpointCount() > 0 ) {
+      seekTo(Long.parseLong(gui.getBreakpointSpec().trim()));
+    } else {
+      gui.displayStatus("Already at " + until.describe());
+    }
+    return;
+  }
+  startRun(false, until);
+}
 
-  // Display the frame table with the new updates.
+/******************************************************
+* Moves the engine to a reference through its
+* checkpoints and redraws every panel from the tables,
+* since the listeners saw none of the replay.
+* @param target is the number of references to be at.
+* @throws IOException if the input cannot be read.
+*******************************************************/
+private void seekTo( long target ) throws IOException {
+  long at = engine.seek(Math.max(0, target));
+  int pid = gui.getPageTablePID();
+  if ( pid > 0 ) {
+    gui.redrawPageTable(table.passProcessTable(pid), pid);
+  }
   this.updateFrameTable(false, -1);
+  this.updateStats();
+  gui.displayStatus("At reference " + at);
+  if ( engine.isDone() ) {
+    this.disableButtons(userActionBtns);
+  } else {
+    next.setEnabled(true);
+    runf.setEnabled(true);
+    runc.setEnabled(true);
+    runu.setEnabled(true);
+  }
+  back.setEnabled(true);
+}
 
+/******************************************************
+* Redraws the panels from the current state and shows
+* the progress, under the engine's lock so a running
+* batch is never seen half done.
+*******************************************************/
+private void refresh() {
+  synchronized ( engine ) {
+    if ( deltaOverflow ) {
+      gui.redrawPageTable(table.passProcessTable(shownPid), shownPid);
+    } else {
+      int i;
+      for ( i = 0; i < deltas; i++ ) {
+        if ( deltaFrames[i] < 0 ) {
+          gui.displayPageUnmapped(shownPid, deltaPages[i]);
+        } else {
+          gui.displayPageMapped(shownPid, deltaPages[i], deltaFrames[i]);
+        }
+      }
+    }
+    deltas = 0;
+    deltaOverflow = false;
+    if ( lastPid > 0 ) {
+      gui.displayReference(lastPid, lastPage);
+      this.updatePageTable(lastPid);
+    }
+    shownPid = gui.getPageTablePID();
+    if ( victimPid > 0 ) {
+      this.notifyGUI(new int [] {victimFrame, victimPid, victimPage});
+    }
+    this.updateFrameTable(replaced, replaced ? victimFrame : -1);
+    gui.displayProgress(input.progress(), engine.getReferences());
+  }
 }
 
-/****************************************************
-* Handles the case of replacing a page when a page fault
-* occurs and there are no free frame availables.
-* Picks a victim and updates the tables accordingly.
-* @param procNum is the PID of the process.
-* @param pageNum is the page already in memory.
-*****************************************************/
-private void handlePageReplacement( int procNum, int pageNum ) {
 
-  // Update the referenced page on the GUI.
-  this.updateReference(procNum, pageNum);
+@Override
+public void actionPerformed(ActionEvent e) {
 
-  // Increment reference and fault counts for the process.
-  table.updateProcessFaultCount(procNum);
-  table.updateProcessRefCount(procNum);
+  // Get the source of event;
+  JButton click = (JButton) e.getSource();
 
-  // Find a victim.
-  int [] victimInfo = table.pickVictim();
+  try {
+    if ( click.equals(next) ) {
 
-  int victimFrame = victimInfo[0];
+      engine.step();
+      back.setEnabled(engine.getCheckpointCount() > 0);
 
-  // Notify the GUI that a victim was picked.
-  this.notifyGUI(victimInfo);
+    } else if ( click.equals(runf) ) {
 
-  // Send the victim a message to update their page table.
-  int [] replacementPair = table.searchVictimPair(victimFrame);
-  int pid = replacementPair[0];
-  int page = replacementPair[1];
-  table.updatePageTable(true, pid, page, victimFrame);
+      // Keep reading until we're done with input or a page fault occurs.
+      startRun(true, null);
 
-  // Send a message to the replacing process to update their page table.
-  table.updatePageTable(false, procNum, pageNum, victimFrame);
+    } else if ( click.equals(runc) ) {
 
-  // Update the frame table.
-  table.updateFrameTable(victimFrame, procNum, pageNum);
+      startRun(false, null);
 
-  // Add the reference frame to LRU Queue as a replacement candidate.
-  table.addCandidateFrame(victimFrame);
+    } else if ( click.equals(runu) ) {
 
-  // Update the page/frame table on the GUI.
-  this.updatePageTable(procNum);
-  this.updateFrameTable(true, victimFrame);
+      runUntil();
 
-}
+    } else if ( click.equals(back) ) {
 
-/***************************************************
-* Notifies the GUI that a page replacement occured.
-* GUI Updates who was the victim on the replacement.
-* @param vic is info about the victim that was picked.
-****************************************************/
-public void notifyGUI( int [] vic ) {
-  gui.displayVictim(vic);
-}
+      seekTo(engine.getReferences() - 1);
 
-/******************************************************
-* Disables all the buttons when the input is done.
-* @param btns is the collection of user action buttons.
-*******************************************************/
-private void disableButtons( JButton[] btns ) {
+    } else if ( click.equals(cancel) ) {
 
-  int i;
-  for ( i = 0; i < 3; i++ ) {
-    btns[i].setEnabled(false);
+      stopRequested = true;
+
+    } else if ( click.equals(exit) ) {
+      System.exit(0);
+    }
+  } catch ( IOException ex ) {
+    JOptionPane.showMessageDialog(gui, "Could not read input: " + ex.getMessage());
+    this.disableButtons(userActionBtns);
   }
 }
 
+/*************************************************************
+* Runs the engine off the Event Dispatch Thread, a batch of
+* references at a time under the engine's lock, so the redraw
+* timer samples the state between batches.
+*************************************************************/
+private class RunWorker extends SwingWorker<Integer, Void> {
 
-@Override
-public void actionPerformed(ActionEvent e) {
-
-  // Get the source of event;
-  JButton click = (JButton) e.getSource();
-
-  if ( click.equals(next) ) {
+  /** Whether to stop at the first page fault. */
+  private final boolean toFault;
 
-    int check = this.readNext(input);
-    if ( check > 0 ) { // Inputs are done, deactivate buttons
-      this.updateStats();
-      this.disableButtons(userActionBtns);
-    }
+  /*******************************************
+  * Instantiates a run.
+  * @param pToFault is true to stop at a fault.
+  *******************************************/
+  RunWorker ( boolean pToFault ) {
+    this.toFault = pToFault;
+  }
 
-  } else if ( click.equals(runf) ) {
-
-    int check;
-    // Keep reading until we're done with input or a page fault occurs.
-    while ( ( check = this.readNext(input)) >= 0 ) {
-      if (check < 0 ) {
-        break;
-      } else if ( check > 0 ) { // Input ended while searching for page fault.
-        this.updateStats();
-        this.disableButtons(userActionBtns);
-        break;
+  @Override
+  protected Integer doInBackground () throws IOException {
+    int check = SimulationEngine.HIT;
+    while ( !stopRequested ) {
+      synchronized ( engine ) {
+        int i;
+        for ( i = 0; i < BATCH; i++ ) {
+          check = engine.step();
+          if ( check == SimulationEngine.DONE
+          || (toFault && check == SimulationEngine.FAULT)
+          || (stop != null && stop.isTriggered()) ) {
+            return check;
+          }
+        }
       }
     }
-  } else if ( click.equals(runc) ) {
-
-    int check;
-    while ( ( check = this.readNext(input)) > -2 ) {
-      if ( check == 1 ){
-        this.updateStats();
-        this.disableButtons(userActionBtns);
-        break;
-      }
-    }
-  } else if ( click.equals(exit) ) {
-    System.exit(0);
+    return check;
+  }
+
+  @Override
+  protected void done () {
+    finishRun(this);
   }
 }
 }
@@ -0,0 +1,210 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+/******************************************************************
+* A trace decoded once into memory, as packed process/page keys.
+* After decoding it is never written again, so any number of
+* threads can replay it at once: each open() hands out a cursor
+* whose position is the only state it owns.
+* A trace file with a TraceIndex can be decoded in parallel, each
+* thread reading a range of blocks into its own slice of the array.
+* @since 10/18/2026
+******************************************************************/
+public class DecodedTrace {
+
+  /** The packed process/page key of each reference. */
+  private long [] refs;
+
+  /** The number of references. */
+  private int length;
+
+  /*************************************************
+  * Instantiates a trace over decoded references.
+  * @param pRefs holds the packed keys.
+  * @param pLength is the number of keys in use.
+  *************************************************/
+  private DecodedTrace ( long [] pRefs, int pLength ) {
+    this.refs = pRefs;
+    this.length = pLength;
+  }
+
+  /*************************************************
+  * Reads a source to its end.
+  * @param input is the trace; it is closed after.
+  * @return the decoded trace.
+  * @throws IOException if the trace cannot be read.
+  * @throws IllegalArgumentException if the trace has
+  * more references than an array can hold.
+  *************************************************/
+  public static DecodedTrace decode ( ReferenceSource input ) throws IOException {
+    long [] refs = new long [1 << 16];
+    int n = 0;
+    try {
+      while ( input.next() ) {
+        if ( n == refs.length ) {
+          if ( n == Integer.MAX_VALUE - 8 ) {
+            throw new IllegalArgumentException("Trace too long to decode into memory");
+          }
+          refs = java.util.Arrays.copyOf(refs, (int) Math.min(2L * n, Integer.MAX_VALUE - 8));
+        }
+        refs[n++] = FrameIndex.pack(input.pid(), input.page());
+      }
+    } finally {
+      input.close();
+    }
+    return new DecodedTrace(java.util.Arrays.copyOf(refs, n), n);
+  }
+
+  /*************************************************
+  * Reads a trace file in parallel, one range of the
+  * index's blocks per task. Rejected lines are only
+  * reported by the first range, since the others
+  * cannot number their lines.
+  * @param trace is the trace file.
+  * @param geometry is the geometry it is read with.
+  * @param index is the index of the trace.
+  * @param threads is the parallelism of the pool.
+  * @return the decoded trace.
+  * @throws IOException if the trace cannot be read or
+  * no longer matches the index.
+  * @throws IllegalArgumentException if the trace has
+  * more references than an array can hold.
+  *************************************************/
+  public static DecodedTrace decode ( final Path trace, final Geometry geometry,
+  final TraceIndex index, int threads ) throws IOException {
+    if ( index.getRecords() > Integer.MAX_VALUE - 8 ) {
+      throw new IllegalArgumentException("Trace too long to decode into memory");
+    }
+    final long [] refs = new long [(int) index.getRecords()];
+    int tasks = Math.max(1, Math.min(index.getBlocks(), threads * 4));
+    List<Callable<Void>> ranges = new ArrayList<Callable<Void>>();
+    int i;
+    for ( i = 0; i < tasks; i++ ) {
+      final int from = (int) ((long) index.getBlocks() * i / tasks);
+      final int to = (int) ((long) index.getBlocks() * (i + 1) / tasks);
+      ranges.add(new Callable<Void>() {
+        public Void call () throws IOException {
+          decodeRange(trace, geometry, index, from, to, refs);
+          return null;
+        }
+      });
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      for ( Future<Void> done : pool.invokeAll(ranges) ) {
+        done.get();
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Decoding interrupted", e);
+    } catch ( java.util.concurrent.ExecutionException e ) {
+      if ( e.getCause() instanceof IOException ) {
+        throw (IOException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+    return new DecodedTrace(refs, refs.length);
+  }
+
+  /*************************************************
+  * Reads a range of blocks into their slice.
+  *************************************************/
+  private static void decodeRange ( Path trace, Geometry geometry, TraceIndex index,
+  int from, int to, long [] refs ) throws IOException {
+    ReferenceSource file = Main.openInput(trace.toString(), geometry);
+    if ( from > 0 && file instanceof MappedTraceReader ) {
+      ((MappedTraceReader) file).getParser().setVerbose(false);
+    }
+    ReferenceSource input = index.range(file, from, to);
+    int at = (int) index.getRecordStart(from);
+    int end = (int) index.getRecordStart(to);
+    try {
+      while ( at < end && input.next() ) {
+        refs[at++] = FrameIndex.pack(input.pid(), input.page());
+      }
+    } finally {
+      input.close();
+    }
+    if ( at != end ) {
+      throw new IOException("The trace changed since it was indexed");
+    }
+  }
+
+  /*************************************************
+  * Reports the number of references.
+  * @return the trace length.
+  *************************************************/
+  public int length () {
+    return this.length;
+  }
+
+  /*************************************************
+  * Starts a replay from the first reference.
+  * @return a new cursor over the trace.
+  *************************************************/
+  public ReferenceSource open () {
+    return new Cursor();
+  }
+
+  /******************************************************************
+  * One replay of the trace.
+  ******************************************************************/
+  private class Cursor implements ReferenceSource {
+
+    /** The index of the next reference. */
+    private int position;
+
+    /** The current reference. */
+    private long current;
+
+    @Override
+    public boolean next () {
+      if ( position >= length ) {
+        return false;
+      }
+      current = refs[position++];
+      return true;
+    }
+
+    @Override
+    public double progress () {
+      return length == 0 ? 1.0 : position / (double) length;
+    }
+
+    @Override
+    public long offset () {
+      return position;
+    }
+
+    @Override
+    public void seek ( long offset ) throws IOException {
+      if ( offset < 0 || offset > length ) {
+        throw new IOException("Reference " + offset + " is outside the trace");
+      }
+      position = (int) offset;
+    }
+
+    @Override
+    public int pid () {
+      return (int) (current >>> 32);
+    }
+
+    @Override
+    public int page () {
+      return (int) current;
+    }
+
+    @Override
+    public void close () {
+      position = length;
+    }
+  }
+}
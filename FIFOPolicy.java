@@ -0,0 +1,57 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/*****************************************************************
+* First-in first-out replacement.
+* Frames queue up in the order their pages were loaded; hits do
+* not change the order, and the victim is the oldest load.
+* @since 10/18/2026
+*****************************************************************/
+public class FIFOPolicy implements ReplacementPolicy {
+
+  /** The frames in load order. */
+  private LRUList queue;
+
+  /*******************************************
+  * Instantiates the policy.
+  * @param frames is the number of frames.
+  *******************************************/
+  public FIFOPolicy ( int frames ) {
+    this.queue = new LRUList(frames);
+  }
+
+  @Override
+  public void frameHit ( int frame ) {
+    // Hits do not change the load order.
+  }
+
+  @Override
+  public void frameLoaded ( int frame ) {
+    queue.touch(frame);
+  }
+
+  @Override
+  public int pickVictim () {
+    return queue.removeHead();
+  }
+
+  @Override
+  public void frameReleased ( int frame ) {
+    queue.remove(frame);
+  }
+
+  @Override
+  public String getName () {
+    return "FIFO";
+  }
+
+  @Override
+  public void saveState ( DataOutput out ) throws IOException {
+    queue.saveState(out);
+  }
+
+  @Override
+  public void restoreState ( DataInput in ) throws IOException {
+    queue.restoreState(in);
+  }
+}
@@ -39,18 +39,19 @@ public class FileChoice {
   }
 
   /***************************************
-  * Narrows the selection to *.data files.
+  * Narrows the selection to *.data and *.vmt files.
   ****************************************/
   class Filter extends javax.swing.filechooser.FileFilter {
 
     @Override
     public boolean accept(File f) {
-      return f.isDirectory( ) || f.getAbsolutePath( ).endsWith( ".data" );
+      return f.isDirectory( ) || f.getAbsolutePath( ).endsWith( ".data" )
+      || f.getAbsolutePath( ).endsWith( ".vmt" );
     }
 
     @Override
     public String getDescription() {
-      return "Data files ( *.data )";
+      return "Trace files ( *.data, *.vmt )";
     }
   }
 
@@ -34,7 +34,7 @@ public class FinalStatsPanel extends JPanel {
   new java.awt.Color(153, 153, 0);
 
   /** The number of total processes to be displayed. */
-  private int max = 10;
+  private int max;
 
   /** The table header. */
   private JLabel header;
@@ -48,8 +48,13 @@ public class FinalStatsPanel extends JPanel {
   /** The final statistics label. */
   private JLabel statLabel;
 
-  public FinalStatsPanel () {
+  /*********************************************
+  * Instantiates the final statistics panel.
+  * @param processes is the number of processes.
+  *********************************************/
+  public FinalStatsPanel ( int processes ) {
     super();
+    max = processes;
 
     // Create the components
     header = new JLabel("Proc |  Refs  |  Faults", SwingConstants.CENTER);
@@ -85,17 +90,34 @@ public class FinalStatsPanel extends JPanel {
   }
 
   /******************************************
-  * Displays the final stats for the system.
+  * Displays the final stats for the system,
+  * adding rows when more PIDs ran than the
+  * panel was sized for.
   * @param pcbtable is the array of PCBs.
   ******************************************/
   public void displayFinalStats ( PCB [] pcbtable ) {
 
     int i;
     String display = "";
+    if ( pcbtable.length > max ) {
+      JLabel [] more = java.util.Arrays.copyOf(pairs, pcbtable.length);
+      for ( i = max; i < more.length; i++ ) {
+        more[i] = new JLabel("", SwingConstants.CENTER);
+        setStandards(more[i]);
+        add(more[i]);
+      }
+      pairs = more;
+      max = more.length;
+      revalidate();
+    }
     for ( i = 0; i < max; i++ ) {
+      if ( i >= pcbtable.length ) {
+        pairs[i].setText("");
+        continue;
+      }
       int pid = pcbtable[i].getPID();
-      int totalRefs = pcbtable[i].getTotalReferences();
-      int totalFaults = pcbtable[i].getTotalPageFaults();
+      long totalRefs = pcbtable[i].getTotalReferences();
+      long totalFaults = pcbtable[i].getTotalPageFaults();
       display = pid + "    |    " + totalRefs + "    |    " + totalFaults;
       pairs[i].setText(display);
       //Set the color based on the process number.
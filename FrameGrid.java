@@ -0,0 +1,349 @@
+import javax.swing.JComponent;
+import javax.swing.ToolTipManager;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+/******************************************************************
+* A virtualized, custom-painted view of physical memory.
+* Only the frames that fit on screen are ever read or drawn: the
+* grid starts at a scroll row and fills its own size, so its cost
+* does not depend on the number of frames. At zoom level 0 each
+* frame is a line of text; at the other levels each frame is a
+* square cell of 16 down to 1 pixel, coloured by its process.
+*
+* Cells are drawn into a backing image. A redraw compares each
+* visible frame with what was last drawn there and only redraws
+* the cells that changed, and then repaints just the area around
+* them; scrolling, zooming or resizing redraws the whole view.
+* @since 10/18/2026
+******************************************************************/
+public class FrameGrid extends JComponent {
+
+  /** Objects of the class are now serializable. */
+  private static final long serialVersionUID = 1L;
+
+  /** The cell size in pixels at each zoom level, 0 for text. */
+  public static final int [] CELL_SIZES = {0, 16, 8, 4, 2, 1};
+
+  /** The height of a text row. */
+  private static final int ROW_HEIGHT = 20;
+
+  /** The font of a text row. */
+  private static final Font ROW_FONT = new Font("Cooper Black", Font.PLAIN, 14);
+
+  /** The colour of a free frame. */
+  private static final Color FREE = new Color(40, 40, 40);
+
+  /** The colour of the frame that was just replaced. */
+  private static final Color FAULT = Color.RED;
+
+  /** The frames being shown, null until the first redraw. */
+  private transient FrameTableView table;
+
+  /** The number of frames in memory. */
+  private int frames;
+
+  /** The current zoom level, an index into CELL_SIZES. */
+  private int zoom;
+
+  /** The first row on screen. */
+  private int firstRow;
+
+  /** The frame to be highlighted, -1 for none. */
+  private int highlight = -1;
+
+  /** The image the cells are drawn into. */
+  private transient BufferedImage canvas;
+
+  /** The PID last drawn in each visible slot. */
+  private int [] shownPid;
+
+  /** The page last drawn in each visible slot. */
+  private int [] shownPage;
+
+  /** Whether every visible cell must be redrawn. */
+  private boolean stale = true;
+
+  /** Called when the number of rows or columns changes. */
+  private transient Runnable layoutListener;
+
+  /*******************************************
+  * Instantiates the grid.
+  * @param pFrames is the number of frames.
+  * @param pZoom is the initial zoom level.
+  *******************************************/
+  public FrameGrid ( int pFrames, int pZoom ) {
+    this.frames = pFrames;
+    this.zoom = pZoom;
+    setOpaque(true);
+    setBackground(Color.WHITE);
+    setPreferredSize(new Dimension(280, 16 * ROW_HEIGHT));
+    ToolTipManager.sharedInstance().registerComponent(this);
+  }
+
+  /*******************************************************
+  * Shows the latest state of memory, redrawing only the
+  * visible frames whose owner or page changed.
+  * @param pTable is the frame table.
+  * @param frame is the frame to highlight, -1 for none.
+  *******************************************************/
+  public void redraw ( FrameTableView pTable, int frame ) {
+    this.table = pTable;
+    int oldHighlight = this.highlight;
+    this.highlight = frame;
+    Rectangle dirty = drawCells(oldHighlight);
+    if ( dirty != null ) {
+      repaint(dirty);
+    }
+  }
+
+  /*********************************************
+  * Changes the zoom level and redraws.
+  * @param pZoom is an index into CELL_SIZES.
+  *********************************************/
+  public void setZoom ( int pZoom ) {
+    this.zoom = pZoom;
+    this.firstRow = Math.min(this.firstRow, Math.max(0, getRowCount() - 1));
+    invalidateCells();
+  }
+
+  /*********************************************
+  * Scrolls so a row is the first one on screen.
+  * @param row is the row number.
+  *********************************************/
+  public void setFirstRow ( int row ) {
+    if ( row != this.firstRow ) {
+      this.firstRow = row;
+      invalidateCells();
+    }
+  }
+
+  /*********************************************
+  * Reports the first row on screen.
+  * @return the row number.
+  *********************************************/
+  public int getFirstRow () {
+    return this.firstRow;
+  }
+
+  /*********************************************
+  * Reports the number of frames per row.
+  * @return the column count.
+  *********************************************/
+  public int getColumns () {
+    int cell = CELL_SIZES[zoom];
+    return cell == 0 ? 1 : Math.max(1, getWidth() / cell);
+  }
+
+  /*********************************************
+  * Reports the height of a row in pixels.
+  * @return the row height.
+  *********************************************/
+  public int getRowHeight () {
+    int cell = CELL_SIZES[zoom];
+    return cell == 0 ? ROW_HEIGHT : cell;
+  }
+
+  /*********************************************
+  * Reports the number of rows all frames take.
+  * @return the row count.
+  *********************************************/
+  public int getRowCount () {
+    int columns = getColumns();
+    return (int) (((long) frames + columns - 1) / columns);
+  }
+
+  /*********************************************
+  * Reports the number of whole rows on screen.
+  * @return the visible row count.
+  *********************************************/
+  public int getVisibleRows () {
+    return Math.max(1, getHeight() / getRowHeight());
+  }
+
+  /*********************************************
+  * Registers a callback for layout changes, e.g.
+  * to keep a scroll bar in step.
+  * @param listener is called on the EDT.
+  *********************************************/
+  public void setLayoutListener ( Runnable listener ) {
+    this.layoutListener = listener;
+  }
+
+  /*********************************************
+  * Finds the frame under a point.
+  * @return the frame, -1 if there is none.
+  *********************************************/
+  public int frameAt ( int x, int y ) {
+    int columns = getColumns();
+    int cell = CELL_SIZES[zoom];
+    int col = cell == 0 ? 0 : x / cell;
+    if ( col >= columns ) {
+      return -1;
+    }
+    long frame = (long) (firstRow + y / getRowHeight()) * columns + col;
+    return frame < frames ? (int) frame : -1;
+  }
+
+  @Override
+  public String getToolTipText ( MouseEvent e ) {
+    int frame = frameAt(e.getX(), e.getY());
+    if ( frame < 0 || table == null ) {
+      return null;
+    }
+    return "Frame " + frame + " P" + table.getPID(frame) + "  Page " + table.getPage(frame);
+  }
+
+  @Override
+  public void setBounds ( int x, int y, int width, int height ) {
+    boolean resized = width != getWidth() || height != getHeight();
+    super.setBounds(x, y, width, height);
+    if ( resized ) {
+      invalidateCells();
+    }
+  }
+
+  @Override
+  protected void paintComponent ( Graphics g ) {
+    if ( canvas == null || stale ) {
+      drawCells(-1);
+    }
+    if ( canvas != null ) {
+      g.drawImage(canvas, 0, 0, null);
+    }
+  }
+
+  /*********************************************
+  * Marks every visible cell for redrawing.
+  *********************************************/
+  private void invalidateCells () {
+    this.stale = true;
+    if ( layoutListener != null ) {
+      layoutListener.run();
+    }
+    repaint();
+  }
+
+  /*******************************************************
+  * Draws the visible cells that changed into the canvas,
+  * or all of them when the canvas is stale.
+  * @param oldHighlight is a frame that must be redrawn
+  * because its highlight moved, -1 for none.
+  * @return the area that changed, null if none.
+  *******************************************************/
+  private Rectangle drawCells ( int oldHighlight ) {
+    int width = getWidth(), height = getHeight();
+    if ( width <= 0 || height <= 0 ) {
+      return null;
+    }
+    int columns = getColumns();
+    int rowHeight = getRowHeight();
+    int rows = (height + rowHeight - 1) / rowHeight;
+    int slots = rows * columns;
+    if ( canvas == null || canvas.getWidth() != width || canvas.getHeight() != height ) {
+      canvas = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      stale = true;
+    }
+    if ( shownPid == null || shownPid.length != slots ) {
+      shownPid = new int [slots];
+      shownPage = new int [slots];
+      stale = true;
+    }
+
+    boolean all = stale;
+    stale = false;
+    Graphics2D g = null;
+    int [] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+    if ( all ) {
+      java.util.Arrays.fill(pixels, getBackground().getRGB());
+    }
+    int cell = CELL_SIZES[zoom];
+    int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+    long first = (long) firstRow * columns;
+    int k;
+    for ( k = 0; k < slots; k++ ) {
+      long f = first + k;
+      if ( f >= frames ) {
+        break;
+      }
+      int frame = (int) f;
+      int pid = table == null ? -1 : table.getPID(frame);
+      int page = table == null ? -1 : table.getPage(frame);
+      if ( !all && pid == shownPid[k] && page == shownPage[k]
+      && frame != highlight && frame != oldHighlight ) {
+        continue;
+      }
+      shownPid[k] = pid;
+      shownPage[k] = page;
+      int y = (k / columns) * rowHeight;
+      if ( cell == 0 ) {
+        if ( g == null ) {
+          g = canvas.createGraphics();
+          g.setFont(ROW_FONT);
+        }
+        g.setColor(getBackground());
+        g.fillRect(0, y, width, rowHeight);
+        g.setColor(frame == highlight ? FAULT : PhysicalStatePanel.customizeFont(pid));
+        g.drawString("Frame " + frame + " P" + pid + "  Page " + page, 4, y + rowHeight - 5);
+        minX = 0;
+        maxX = width;
+      } else {
+        int x = (k % columns) * cell;
+        Color color = frame == highlight ? FAULT : colorOf(pid);
+        fillCell(pixels, width, height, x, y, cell, color.getRGB());
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x + cell);
+      }
+      minY = Math.min(minY, y);
+      maxY = Math.max(maxY, y + rowHeight);
+    }
+    if ( g != null ) {
+      g.dispose();
+    }
+    if ( all ) {
+      return new Rectangle(0, 0, width, height);
+    }
+    return maxY < 0 ? null : new Rectangle(minX, minY, maxX - minX, maxY - minY);
+  }
+
+  /*********************************************
+  * Fills a cell straight into the pixel array,
+  * leaving a one pixel gap in cells of 4 or more.
+  *********************************************/
+  private static void fillCell ( int [] pixels, int width, int height, int x, int y,
+  int size, int rgb ) {
+    int inner = size >= 4 ? size - 1 : size;
+    int row, col;
+    for ( row = y; row < y + inner && row < height; row++ ) {
+      int base = row * width;
+      for ( col = x; col < x + inner && col < width; col++ ) {
+        pixels[base + col] = rgb;
+      }
+    }
+  }
+
+  /**************************************
+  * Picks the colour of a process: the
+  * panel's palette for the first nine,
+  * then hues spread by the golden ratio.
+  * @param pid is the process id.
+  * @return the colour.
+  ***************************************/
+  public static Color colorOf ( int pid ) {
+    if ( pid < 0 ) {
+      return FREE;
+    }
+    if ( pid <= 9 ) {
+      return PhysicalStatePanel.customizeFont(pid);
+    }
+    float hue = (float) ((pid * 0.6180339887) % 1.0);
+    return Color.getHSBColor(hue, 0.7f, 0.95f);
+  }
+}
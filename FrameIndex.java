@@ -0,0 +1,86 @@
+/******************************************************************
+* A reverse index from process/page pairs to frames.
+* Keys pack the PID and page into one long and live in a
+* LongKeyMap, so a lookup never boxes and usually costs a single
+* probe, and removal leaves no tombstones.
+* The table starts small and doubles as pages are loaded, so a
+* huge memory with a small resident set stays small. The slots are
+* Long/IntStores, so they can live off the heap.
+* @since 10/18/2026
+******************************************************************/
+public class FrameIndex {
+
+  /** The most slots allocated before any page is loaded. */
+  private static final int INITIAL = 1 << 16;
+
+  /** The frame of each packed process/page key. */
+  private LongKeyMap frames;
+
+  /*******************************************************
+  * Instantiates an index sized for the given frame count.
+  * The table is kept at most half full.
+  * @param maxFrames is the number of frames in memory.
+  *******************************************************/
+  public FrameIndex ( int maxFrames ) {
+    int capacity = Integer.highestOneBit(Math.max(2, maxFrames) * 2 - 1) << 1;
+    this.frames = new LongKeyMap(Math.min(capacity, INITIAL), false);
+  }
+
+  /*******************************************
+  * Packs a process/page pair into one key.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  * @return the packed key.
+  *******************************************/
+  public static long pack ( int pid, int page ) {
+    return ((long) pid << 32) | (page & 0xFFFFFFFFL);
+  }
+
+  /*************************************************
+  * Finds the frame holding a process/page pair.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  * @return the frame number, -1 if not in memory.
+  *************************************************/
+  public int get ( int pid, int page ) {
+    int slot = this.frames.find(pack(pid, page));
+    return slot < 0 ? -1 : this.frames.intAt(slot);
+  }
+
+  /*************************************************
+  * Records that a process/page pair is in a frame.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  * @param frame is the frame holding the page.
+  *************************************************/
+  public void put ( int pid, int page, int frame ) {
+    this.frames.setIntAt(this.frames.add(pack(pid, page)), frame);
+  }
+
+  /*************************************************
+  * Forgets a process/page pair, e.g. on eviction.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  *************************************************/
+  public void remove ( int pid, int page ) {
+    int slot = this.frames.find(pack(pid, page));
+    if ( slot >= 0 ) {
+      this.frames.removeAt(slot);
+    }
+  }
+
+  /*******************************************
+  * Forgets every pair, keeping the slots.
+  *******************************************/
+  public void clear () {
+    this.frames.clear();
+  }
+
+  /*******************************************
+  * Reports the number of indexed pairs.
+  * @return the size of the index.
+  *******************************************/
+  public int size () {
+    return this.frames.size();
+  }
+}
@@ -1,44 +1,83 @@
-import java.util.Queue;
-import java.util.LinkedList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 import java.util.Random;
 /************************************************************
 * A frame table data structure
 * Keeps track of process and pages associated with frames.
-* Physical memory is specified to be 16 KB with 1KB frames.
-* There are 16 total frames in physical memory.
+* The number of frames in physical memory comes from the
+* memory geometry (16 frames of 1KB by default).
 * The frame table also keeps track of its free frames in a
-* frame.
+* bitmap.
+* Frames are stored as parallel primitive arrays (owner PID,
+* page and flags) rather than Frame objects, and every query
+* returns primitives, so a hit or fault allocates nothing.
+* The arrays are IntStores, so they move off the heap when
+* the vimpares.storage property asks for it.
+* The frames of each process are also linked into a list of
+* their own, so a process exit releases its frames in time
+* proportional to its resident set.
 * @author Gloire Rubambiza
 * @since 11/12/2017
 ************************************************************/
-public class FrameTable {
+public class FrameTable implements FrameTableView {
+
+  /** The flag of a frame holding a page. */
+  public static final int RESIDENT = 1;
+
+  /** The PID of the process owning each frame's page, -1 if free. */
+  private IntStore pids;
+
+  /** The page held in each frame, -1 if free. */
+  private IntStore pages;
+
+  /** The flags of each frame. */
+  private IntStore flags;
 
-  /** The array of frames in physical memory. */
-  private Frame [] frameTable;
+  /** The next frame owned by the same process, -1 at the end. */
+  private IntStore nextOwned;
+
+  /** The previous frame owned by the same process, -1 at the head. */
+  private IntStore prevOwned;
+
+  /** The first frame owned by each PID with resident pages. */
+  private LongKeyMap firstOwned;
 
   /** The max amount of frames to be created. */
-  private int max = 16;
+  private int max;
 
   /** The list of free frames in the system. */
-  private boolean [] freeFrameList;
+  private FreeFrameMap freeFrameList;
+
+  /** The reverse index from process/page pairs to frames. */
+  private FrameIndex index;
 
-  /** The Queue for deciding which frame to vacate for a new page reference. */
-  private Queue<Integer> kicker;
+  /** The policy deciding which frame to vacate for a new page reference. */
+  private ReplacementPolicy kicker;
 
   /**********************************************************
-  * Instantiates an array of 16 frames and a free frame list.
+  * Instantiates the frame arrays and a free frame list.
+  * @param frames is the number of frames in memory.
+  * @param placement picks pseudo-random free frames, or null
+  * to always use the lowest free frame.
+  * @param policy picks the victims for replacement.
   ***********************************************************/
-  public FrameTable () {
-    this.frameTable = new Frame [max];
-    this.freeFrameList = new boolean [max];
-    kicker = new LinkedList<Integer>();
-    int i;
+  public FrameTable ( int frames, Random placement, ReplacementPolicy policy ) {
+    this.max = frames;
+    this.pids = new IntStore(max);
+    this.pages = new IntStore(max);
+    this.flags = new IntStore(max);
+    this.nextOwned = new IntStore(max);
+    this.prevOwned = new IntStore(max);
+    this.firstOwned = new LongKeyMap(16, false);
+    this.freeFrameList = new FreeFrameMap(max, placement);
+    kicker = policy;
+    index = new FrameIndex(max);
 
-    // Creates each new frame
-    for ( i = 0; i < max; i++ ) {
-      this.frameTable[i] = new Frame ();
-      this.freeFrameList[i] = true;
-    }
+    // Every frame starts out free.
+    this.pids.fill(-1);
+    this.pages.fill(-1);
   }
 
   /******************************************************
@@ -48,59 +87,69 @@ public class FrameTable {
   * @return the presence of the page in the frame table.
   ******************************************************/
   public boolean checkPage(int pPid, int pPage){
-    int i, pid, page;
-    for ( i = 0; i < max; i++ ) {
-      pid = this.frameTable[i].getPID();
-      page = this.frameTable[i].getPage();
-      if ( (pid == pPid) && (page == pPage) ) {
-        return true;
-      }
-    }
-    return false;
+    return this.index.get(pPid, pPage) >= 0;
+  }
+
+  /******************************************************
+  * Finds the frame holding a page with a single probe.
+  * @param pPid is the process that owns the page.
+  * @param pPage is the page that was referenced.
+  * @return the frame number, -1 if the page is not in memory.
+  ******************************************************/
+  public int lookupFrame(int pPid, int pPage){
+    return this.index.get(pPid, pPage);
   }
 
   /**************************************************
   * Checks for empty spots in the frame table.
+  * Takes the frame it returns out of the free list.
   * @return a free frame number if one is available,
-  *  -1 if the frame table is empty.
+  *  -1 if the frame table is full.
   *************************************************/
   public int getFreeFrame() {
-    int i, j;
-
-    // Simulate pseudorandomness
-    Random rnd = new Random();
-    i = 0;
-    while ( i < max ) {
-      int freeFrame = rnd.nextInt(max);
-      if ( isFree(freeFrame) ) {
-        return freeFrame;
-      }
-      i++;
-    }
+    return this.freeFrameList.allocate();
+  }
 
-    // Try sequentially after 16 unsuccessful "random" picks.
-    for ( j = 0; j < max; j++) {
-      if ( isFree(j) ) {
-        System.out.println("Free frame returned is " + j);
-        return j;
-      }
+  /***************************************************
+  * Frees a frame, e.g. when its process exits: the
+  * page leaves the index, the policy stops tracking
+  * the frame and it goes back to the free list.
+  * @param frame is the frame to be released.
+  **************************************************/
+  public void releaseFrame ( int frame ) {
+    int f = this.flags.get(frame);
+    if ( (f & RESIDENT) == 0 ) {
+      return;
     }
-    return -1;
+    this.index.remove(this.pids.get(frame), this.pages.get(frame));
+    unlink(frame, this.pids.get(frame));
+    this.pids.set(frame, -1);
+    this.pages.set(frame, -1);
+    this.flags.set(frame, f & ~RESIDENT);
+    this.kicker.frameReleased(frame);
+    this.freeFrameList.release(frame);
   }
 
-  /*****************************************
-  * Checks if a given frame is free.
-  * Sets the frame to false if it's free.
-  * @param frame is the frame to be checked.
-  * @return true if it is, false otherwise.
-  ******************************************/
-  private boolean isFree( int frame) {
-
-    if( this.freeFrameList[frame] ) {
-      this.freeFrameList[frame] = false;
-      return true;
+  /***************************************************
+  * Frees every frame a process owns, walking its own
+  * list of frames.
+  * @param pid is the PID of the process.
+  * @return the number of frames released.
+  **************************************************/
+  public int releaseProcess ( int pid ) {
+    int slot = this.firstOwned.find(pid);
+    if ( slot < 0 ) {
+      return 0;
+    }
+    int frame = this.firstOwned.intAt(slot);
+    int released = 0;
+    while ( frame >= 0 ) {
+      int next = this.nextOwned.get(frame);
+      releaseFrame(frame);
+      released++;
+      frame = next;
     }
-    return false;
+    return released;
   }
 
   /***************************************************
@@ -111,12 +160,57 @@ public class FrameTable {
   * @param page is the page to be inserted.
   **************************************************/
   public void insertFrameEntry(int frame, int process, int page) {
-    int i;
-    for ( i = 0; i < max; i++ ) {
-      if ( i == frame ) {
-        this.frameTable[i].updateProcess(process);
-        this.frameTable[i].updatePage(page);
-      }
+
+    // Drop the pair being replaced from the index.
+    int f = this.flags.get(frame);
+    if ( (f & RESIDENT) != 0 ) {
+      this.index.remove(this.pids.get(frame), this.pages.get(frame));
+      unlink(frame, this.pids.get(frame));
+    }
+    this.pids.set(frame, process);
+    this.pages.set(frame, page);
+    this.flags.set(frame, f | RESIDENT);
+    this.index.put(process, page, frame);
+    link(frame, process);
+  }
+
+  /***************************************************
+  * Puts a frame at the head of its process's list.
+  * @param frame is the frame.
+  * @param pid is the PID of the process owning it.
+  **************************************************/
+  private void link ( int frame, int pid ) {
+    int known = this.firstOwned.size();
+    int slot = this.firstOwned.add(pid);
+    int head = this.firstOwned.size() > known ? -1 : this.firstOwned.intAt(slot);
+    this.nextOwned.set(frame, head);
+    this.prevOwned.set(frame, -1);
+    if ( head >= 0 ) {
+      this.prevOwned.set(head, frame);
+    }
+    this.firstOwned.setIntAt(slot, frame);
+  }
+
+  /***************************************************
+  * Takes a frame out of its process's list.
+  * @param frame is the frame.
+  * @param pid is the PID of the process owning it.
+  **************************************************/
+  private void unlink ( int frame, int pid ) {
+    int prev = this.prevOwned.get(frame);
+    int next = this.nextOwned.get(frame);
+    if ( next >= 0 ) {
+      this.prevOwned.set(next, prev);
+    }
+    if ( prev >= 0 ) {
+      this.nextOwned.set(prev, next);
+      return;
+    }
+    int slot = this.firstOwned.find(pid);
+    if ( next >= 0 ) {
+      this.firstOwned.setIntAt(slot, next);
+    } else {
+      this.firstOwned.removeAt(slot);
     }
   }
 
@@ -126,84 +220,140 @@ public class FrameTable {
   public void printCurrentState() {
     int i;
     for ( i = 0; i < max; i++ ) {
-      int pid = this.frameTable[i].getPID();
-      int page = this.frameTable[i].getPage();
-      System.out.println(i + "\t" + pid + "\t" + page + "\n");
+      System.out.println(i + "\t" + this.pids.get(i) + "\t" + this.pages.get(i) + "\n");
     }
   }
 
   /***************************************
-  * Adds a frame to the replacement queue.
+  * Adds a frame to the replacement queue
+  * after a page was loaded into it.
   * @param frame is the frame to be added.
   ****************************************/
   public void addCandidate(int frame) {
-    this.kicker.remove(frame);
-    this.kicker.add(frame);
+    this.kicker.frameLoaded(frame);
   }
 
-  /*****************************************************************
-  * Searches for which frame is associated with a PID/page pair.
-  * @param pid is the PID of the process owning the frame.
-  * @param page is the page located at the frame.
-  * @return the frame number associated with the PID/page pair.
-  /****************************************************************/
-  public int [] searchPotentialReplacement(int pPid, int pPage) {
-    int i;
-    int [] interestArray = new int [3];
-    for ( i = 0; i < max; i++ ) {
-      int pid = this.frameTable[i].getPID();
-      int page = this.frameTable[i].getPage();
-      if ( (pid == pPid) && (page == pPage) ) {
-        interestArray[0] = i;
-        interestArray[1] = pid;
-        interestArray[2] = page;
-        return interestArray;
-      }
-    }
-    return interestArray;
+  /***************************************
+  * Tells the replacement policy a resident
+  * frame was referenced again.
+  * @param frame is the frame that was hit.
+  ****************************************/
+  public void touchCandidate(int frame) {
+    this.kicker.frameHit(frame);
   }
 
   /*****************************************************
-  * Reports the PID/page pair associated with
-  * a victim frame.
-  * @param frame is the frame associated with the pair.
-  * @return the PID and page of the victims.
+  * Reports the process owning a frame's page.
+  * @param frame is the frame number.
+  * @return the PID, -1 for a free frame.
   *****************************************************/
-  public int [] searchVictim (int frame ) {
-    int i;
-    int [] pair = new int [2];
-    for ( i = 0; i < max ; i++ ) {
-      if ( i == frame ) {
-        int pid = this.frameTable[i].getPID();
-        int page = this.frameTable[i].getPage();
-        pair[0] = pid;
-        pair[1] = page;
-        return pair;
-      }
-    }
-    return pair;
+  public int getPID ( int frame ) {
+    return this.pids.get(frame);
+  }
+
+  /*****************************************************
+  * Reports the page held in a frame.
+  * @param frame is the frame number.
+  * @return the page number, -1 for a free frame.
+  *****************************************************/
+  public int getPage ( int frame ) {
+    return this.pages.get(frame);
+  }
+
+  /*****************************************************
+  * Reports the flags of a frame, e.g. RESIDENT.
+  * @param frame is the frame number.
+  * @return the flag bits.
+  *****************************************************/
+  public int getFlags ( int frame ) {
+    return this.flags.get(frame);
+  }
+
+  /*****************************************************
+  * Reports the number of frames in memory.
+  * @return the frame count.
+  *****************************************************/
+  public int getFrameCount () {
+    return this.max;
   }
 
   /********************************************
   * Picks a candidate for page replacement.
-  * Removes it from the head of the queue.
+  * Removes it from the replacement policy.
   * @return the frame that needs to be updated.
   *********************************************/
-  public int pickLRUCandidate () {
-    int vic = this.kicker.remove();
+  public int pickCandidate () {
+    int vic = this.kicker.pickVictim();
     return vic;
   }
 
+  /*********************************************************
+  * Writes the frames with their per-process lists, the
+  * free frames and the policy's state for a checkpoint.
+  * The reverse index is left out and rebuilt from the
+  * frames on restore. The lists are kept, since their
+  * order decides the order an exit releases frames in.
+  * @param out is where the state is written.
+  * @throws IOException if it cannot be written.
+  *********************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(this.max);
+    this.pids.write(out);
+    this.pages.write(out);
+    this.flags.write(out);
+    this.nextOwned.write(out);
+    this.prevOwned.write(out);
+    this.firstOwned.saveState(out);
+    this.freeFrameList.saveState(out);
+    this.kicker.saveState(out);
+  }
+
+  /*********************************************************
+  * Replaces the frames with a state written by saveState.
+  * @param in is where the state is read from.
+  * @throws IOException if it cannot be read or is for a
+  * different number of frames.
+  *********************************************************/
+  public void restoreState ( DataInput in ) throws IOException {
+    int frames = in.readInt();
+    if ( frames != this.max ) {
+      throw new IOException("Checkpoint is for " + frames + " frames, not " + this.max);
+    }
+    this.pids.read(in);
+    this.pages.read(in);
+    this.flags.read(in);
+    this.nextOwned.read(in);
+    this.prevOwned.read(in);
+    this.firstOwned = LongKeyMap.readState(in);
+    this.freeFrameList.restoreState(in);
+    this.kicker.restoreState(in);
+    this.index.clear();
+    int i;
+    for ( i = 0; i < this.max; i++ ) {
+      if ( (this.flags.get(i) & RESIDENT) != 0 ) {
+        this.index.put(this.pids.get(i), this.pages.get(i), i);
+      }
+    }
+  }
+
+  /*********************************************
+  * Reports the replacement policy in use.
+  * @return the policy.
+  *********************************************/
+  public ReplacementPolicy getPolicy () {
+    return this.kicker;
+  }
+
   /*********************************************
-  * Returns a reference to the frame table for
-  * the GUI to display.
-  * The reference is passed to the Tables class
+  * Returns a read-only view of the frame table
+  * for the GUI to display.
+  * The view is passed to the Tables class
   * which sends it to the controller, which in
   * turn passes it to the GUI.
-  * This ensures the view never calls the model.
-  * @return an array of frames.
+  * This ensures the view never changes the model.
+  * @return the frame table view.
   **********************************************/
-  public Frame [] getFrameTable () {
-    return this.frameTable;
+  public FrameTableView getFrameTable () {
+    return this;
   }
 }
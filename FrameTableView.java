@@ -0,0 +1,28 @@
+/*************************************************************
+* A read-only view of the frame table, i.e. the physical state
+* of memory, for the GUI. Every accessor returns a primitive, so
+* repainting allocates nothing on the model side.
+* @since 10/18/2026
+*************************************************************/
+public interface FrameTableView {
+
+  /*********************************************
+  * Reports the number of frames in memory.
+  * @return the frame count.
+  *********************************************/
+  int getFrameCount ();
+
+  /*********************************************
+  * Reports the process owning a frame's page.
+  * @param frame is the frame number.
+  * @return the PID, -1 for a free frame.
+  *********************************************/
+  int getPID ( int frame );
+
+  /*********************************************
+  * Reports the page held in a frame.
+  * @param frame is the frame number.
+  * @return the page number, -1 for a free frame.
+  *********************************************/
+  int getPage ( int frame );
+}
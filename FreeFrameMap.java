@@ -0,0 +1,159 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.util.Random;
+/******************************************************************
+* A bitmap of free frames, one bit per frame, scanned a 64-bit word
+* at a time. Knowing the free count makes "memory is full" an O(1)
+* answer, and finding a free frame costs at most frames/64 word
+* reads. Frames are handed out either first-free or at a
+* pseudo-random spot drawn from a seedable generator, so global
+* allocation runs can be reproduced exactly.
+* @since 10/18/2026
+******************************************************************/
+public class FreeFrameMap {
+
+  /** One bit per frame, set while the frame is free. */
+  private long [] words;
+
+  /** The number of frames. */
+  private int frames;
+
+  /** The number of free frames. */
+  private int free;
+
+  /** The generator for random placement, null for first-free. */
+  private Random rnd;
+
+  /*******************************************************
+  * Instantiates a map with every frame free.
+  * @param pFrames is the number of frames in memory.
+  * @param pRnd picks random spots, or null to always hand
+  * out the lowest free frame.
+  *******************************************************/
+  public FreeFrameMap ( int pFrames, Random pRnd ) {
+    this.frames = pFrames;
+    this.free = pFrames;
+    this.rnd = pRnd;
+    this.words = new long [(pFrames + 63) >>> 6];
+    java.util.Arrays.fill(this.words, -1L);
+    int tail = pFrames & 63;
+    if ( tail != 0 ) {
+      this.words[words.length - 1] = (1L << tail) - 1;
+    }
+  }
+
+  /*************************************************
+  * Takes a free frame out of the map.
+  * @return the frame, -1 if every frame is in use.
+  *************************************************/
+  public int allocate () {
+    if ( free == 0 ) {
+      return -1;
+    }
+    int frame;
+    if ( rnd == null ) {
+      frame = nextFree(0);
+    } else {
+      frame = nextFree(rnd.nextInt(frames));
+    }
+    take(frame);
+    return frame;
+  }
+
+  /*************************************************
+  * Takes a specific frame out of the map.
+  * @param frame is the frame to be taken.
+  * @return true if it was free, false otherwise.
+  *************************************************/
+  public boolean allocate ( int frame ) {
+    if ( !isFree(frame) ) {
+      return false;
+    }
+    take(frame);
+    return true;
+  }
+
+  /*******************************************
+  * Returns a frame to the map.
+  * @param frame is the frame being released.
+  *******************************************/
+  public void release ( int frame ) {
+    if ( !isFree(frame) ) {
+      words[frame >>> 6] |= 1L << frame;
+      free++;
+    }
+  }
+
+  /*******************************************
+  * Checks if a given frame is free.
+  * @return true if the frame is free.
+  *******************************************/
+  public boolean isFree ( int frame ) {
+    return (words[frame >>> 6] & (1L << frame)) != 0;
+  }
+
+  /*************************************************
+  * Writes the free bits and the placement state.
+  * @param out is where the state is written.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(free);
+    int i;
+    for ( i = 0; i < words.length; i++ ) {
+      out.writeLong(words[i]);
+    }
+    Checkpoint.writeRandom(out, rnd);
+  }
+
+  /*************************************************
+  * Reads a state written by saveState.
+  * @param in is where the state is read from.
+  * @throws IOException if it cannot be read.
+  *************************************************/
+  public void restoreState ( DataInput in ) throws IOException {
+    free = in.readInt();
+    int i;
+    for ( i = 0; i < words.length; i++ ) {
+      words[i] = in.readLong();
+    }
+    rnd = Checkpoint.readRandom(in);
+  }
+
+  /*******************************************
+  * Reports the number of free frames.
+  * @return the free frame count.
+  *******************************************/
+  public int getFreeCount () {
+    return this.free;
+  }
+
+  /*******************************************
+  * Clears a frame's bit.
+  *******************************************/
+  private void take ( int frame ) {
+    words[frame >>> 6] &= ~(1L << frame);
+    free--;
+  }
+
+  /*****************************************************
+  * Finds the first free frame at or after start,
+  * wrapping around. Only called while free > 0.
+  * @param start is the frame to start looking from.
+  * @return a free frame.
+  *****************************************************/
+  private int nextFree ( int start ) {
+    int w = start >>> 6;
+    long word = words[w] & (-1L << start);
+    while ( word == 0 ) {
+      w++;
+      if ( w == words.length ) {
+        w = 0;
+      }
+      word = words[w];
+    }
+    return (w << 6) + Long.numberOfTrailingZeros(word);
+  }
+}
@@ -0,0 +1,148 @@
+/******************************************************************
+* The memory geometry of the simulated machine.
+* Holds the frame count, page size, virtual address bits and
+* process count shared by the tables, the input parser and the
+* panels. The defaults model the original system: 16 frames of
+* 1KB, a 64KB (16-bit) address space and 10 processes.
+* Values can be overridden with system properties, e.g.
+* -Dvimpares.frames=4096 -Dvimpares.addressBits=32
+* @since 10/18/2026
+******************************************************************/
+public class Geometry {
+
+  /** The default number of frames in physical memory. */
+  public static final int DEFAULT_FRAMES = 16;
+
+  /** The default page (and frame) size in bytes. */
+  public static final int DEFAULT_PAGE_SIZE = 1024;
+
+  /** The default number of bits in a virtual address. */
+  public static final int DEFAULT_ADDRESS_BITS = 16;
+
+  /** The default number of processes. */
+  public static final int DEFAULT_PROCESSES = 10;
+
+  /** The number of frames in physical memory. */
+  private final int frames;
+
+  /** The page size in bytes, a power of two. */
+  private final int pageSize;
+
+  /** The number of bits in a virtual address. */
+  private final int addressBits;
+
+  /** The number of processes. */
+  private final int processes;
+
+  /*******************************************
+  * Instantiates the default geometry.
+  *******************************************/
+  public Geometry () {
+    this(DEFAULT_FRAMES, DEFAULT_PAGE_SIZE, DEFAULT_ADDRESS_BITS,
+    DEFAULT_PROCESSES);
+  }
+
+  /*********************************************************
+  * Instantiates a geometry with the given parameters.
+  * @param frames is the number of frames in memory.
+  * @param pageSize is the page size in bytes.
+  * @param addressBits is the number of virtual address bits.
+  * @param processes is the number of processes.
+  *********************************************************/
+  public Geometry ( int frames, int pageSize, int addressBits, int processes ) {
+    if ( frames < 1 ) {
+      throw new IllegalArgumentException("Frame count must be positive: " + frames);
+    }
+    if ( pageSize < 1 || Integer.bitCount(pageSize) != 1 ) {
+      throw new IllegalArgumentException("Page size must be a power of two: " + pageSize);
+    }
+    int offsetBits = Integer.numberOfTrailingZeros(pageSize);
+    if ( addressBits <= offsetBits || addressBits - offsetBits > 30 ) {
+      throw new IllegalArgumentException("Address bits must leave 1 to 30 page bits: "
+      + addressBits);
+    }
+    if ( processes < 1 ) {
+      throw new IllegalArgumentException("Process count must be positive: " + processes);
+    }
+    this.frames = frames;
+    this.pageSize = pageSize;
+    this.addressBits = addressBits;
+    this.processes = processes;
+  }
+
+  /*******************************************************
+  * Builds a geometry from vimpares.* system properties,
+  * falling back to the defaults for any that are unset.
+  * @return the configured geometry.
+  *******************************************************/
+  public static Geometry fromSystemProperties () {
+    return new Geometry(
+    Integer.getInteger("vimpares.frames", DEFAULT_FRAMES),
+    Integer.getInteger("vimpares.pageSize", DEFAULT_PAGE_SIZE),
+    Integer.getInteger("vimpares.addressBits", DEFAULT_ADDRESS_BITS),
+    Integer.getInteger("vimpares.processes", DEFAULT_PROCESSES));
+  }
+
+  /*******************************************
+  * Reports the number of frames in memory.
+  * @return the frame count.
+  *******************************************/
+  public int getFrames () {
+    return this.frames;
+  }
+
+  /*******************************************
+  * Reports the page size in bytes.
+  * @return the page size.
+  *******************************************/
+  public int getPageSize () {
+    return this.pageSize;
+  }
+
+  /*******************************************
+  * Reports the number of virtual address bits.
+  * @return the address width.
+  *******************************************/
+  public int getAddressBits () {
+    return this.addressBits;
+  }
+
+  /*******************************************
+  * Reports the number of processes.
+  * @return the process count.
+  *******************************************/
+  public int getProcesses () {
+    return this.processes;
+  }
+
+  /*******************************************
+  * Reports the number of bits in a page number.
+  * @return the page number width.
+  *******************************************/
+  public int getPageBits () {
+    return this.addressBits - Integer.numberOfTrailingZeros(this.pageSize);
+  }
+
+  /*******************************************
+  * Reports the number of pages per process.
+  * @return the pages in an address space.
+  *******************************************/
+  public int getPagesPerProcess () {
+    return 1 << getPageBits();
+  }
+
+  /*****************************************************
+  * Reports the most pages a process can have resident,
+  * i.e. the largest a page table can grow.
+  * @return the resident page limit.
+  *****************************************************/
+  public int getMaxResidentPages () {
+    return Math.min(getPagesPerProcess(), this.frames);
+  }
+
+  @Override
+  public String toString () {
+    return this.frames + " frames x " + this.pageSize + "B, "
+    + this.addressBits + "-bit address space, " + this.processes + " processes";
+  }
+}
@@ -0,0 +1,156 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+/******************************************************************
+* A fixed-length array of ints, on the heap or off it as Storage
+* decides. Off-heap stores are split into 1GB buffers, so lengths
+* are not limited by a single buffer. The class is final and
+* checks for the heap array first, so heap-mode tables cost little
+* over a plain int[].
+* @since 10/18/2026
+******************************************************************/
+public final class IntStore {
+
+  /** The ints in each off-heap buffer, as a shift. */
+  private static final int CHUNK_SHIFT = 28;
+
+  /** The mask of an index within its buffer. */
+  private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+  /** The ints copied at a time by write and read. */
+  private static final int IO_INTS = 1 << 14;
+
+  /** The ints when on the heap, else null. */
+  private final int [] heap;
+
+  /** The buffers when off the heap, else null. */
+  private final IntBuffer [] chunks;
+
+  /** The number of ints. */
+  private final int length;
+
+  /*************************************************
+  * Allocates a store of zeroes.
+  * @param pLength is the number of ints.
+  *************************************************/
+  public IntStore ( int pLength ) {
+    this.length = pLength;
+    if ( !Storage.offHeap(4L * pLength) ) {
+      this.heap = new int [pLength];
+      this.chunks = null;
+      return;
+    }
+    this.heap = null;
+    this.chunks = new IntBuffer [(int) (((long) pLength + CHUNK_MASK) >>> CHUNK_SHIFT)];
+    int i;
+    for ( i = 0; i < this.chunks.length; i++ ) {
+      int n = Math.min(CHUNK_MASK + 1, pLength - (i << CHUNK_SHIFT));
+      this.chunks[i] = Storage.allocate(4 * n).asIntBuffer();
+    }
+  }
+
+  /*************************************************
+  * Reads an int.
+  * @param i is the index.
+  * @return the value.
+  *************************************************/
+  public int get ( int i ) {
+    if ( heap != null ) {
+      return heap[i];
+    }
+    return chunks[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+  }
+
+  /*************************************************
+  * Writes an int.
+  * @param i is the index.
+  * @param value is the value.
+  *************************************************/
+  public void set ( int i, int value ) {
+    if ( heap != null ) {
+      heap[i] = value;
+      return;
+    }
+    chunks[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, value);
+  }
+
+  /*************************************************
+  * Sets every int to a value.
+  * @param value is the value.
+  *************************************************/
+  public void fill ( int value ) {
+    if ( heap != null ) {
+      java.util.Arrays.fill(heap, value);
+      return;
+    }
+    int i;
+    for ( i = 0; i < length; i++ ) {
+      set(i, value);
+    }
+  }
+
+  /*************************************************
+  * Writes every int, big-endian, in blocks.
+  * @param out is where the ints are written.
+  * @throws IOException if they cannot be written.
+  *************************************************/
+  public void write ( DataOutput out ) throws IOException {
+    byte [] buf = new byte [4 * Math.min(length, IO_INTS)];
+    IntBuffer ints = ByteBuffer.wrap(buf).asIntBuffer();
+    int i, j;
+    for ( i = 0; i < length; i += IO_INTS ) {
+      int n = Math.min(IO_INTS, length - i);
+      ints.clear();
+      if ( heap != null ) {
+        ints.put(heap, i, n);
+      } else {
+        for ( j = 0; j < n; j++ ) {
+          ints.put(get(i + j));
+        }
+      }
+      out.write(buf, 0, 4 * n);
+    }
+  }
+
+  /*************************************************
+  * Reads every int, as written by write.
+  * @param in is where the ints are read from.
+  * @throws IOException if they cannot be read.
+  *************************************************/
+  public void read ( DataInput in ) throws IOException {
+    byte [] buf = new byte [4 * Math.min(length, IO_INTS)];
+    IntBuffer ints = ByteBuffer.wrap(buf).asIntBuffer();
+    int i, j;
+    for ( i = 0; i < length; i += IO_INTS ) {
+      int n = Math.min(IO_INTS, length - i);
+      in.readFully(buf, 0, 4 * n);
+      ints.clear();
+      if ( heap != null ) {
+        ints.get(heap, i, n);
+      } else {
+        for ( j = 0; j < n; j++ ) {
+          set(i + j, ints.get());
+        }
+      }
+    }
+  }
+
+  /*************************************************
+  * Reports the number of ints.
+  * @return the length.
+  *************************************************/
+  public int length () {
+    return this.length;
+  }
+
+  /*************************************************
+  * Reports whether the ints live off the heap.
+  * @return true for direct or mapped storage.
+  *************************************************/
+  public boolean isOffHeap () {
+    return this.heap == null;
+  }
+}
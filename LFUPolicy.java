@@ -0,0 +1,250 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/*****************************************************************
+* Least frequently used replacement in O(1) per reference.
+* Frames with the same reference count share a bucket; buckets
+* sit in a linked list ordered by count. A hit moves a frame to
+* the next bucket up (creating it if needed), and the victim is
+* the oldest frame in the lowest bucket, so ties go to the frame
+* that reached that count first. A frame's count starts at one
+* when its page is loaded. Everything lives in IntStores, so it
+* can sit off the heap; there are never more than frames + 1
+* buckets in use.
+* @since 10/18/2026
+*****************************************************************/
+public class LFUPolicy implements ReplacementPolicy {
+
+  /** Marks the end of a list, or a frame that is not tracked. */
+  private static final int NIL = -1;
+
+  /** The bucket holding each frame, NIL if not tracked. */
+  private IntStore bucketOf;
+
+  /** The neighbouring frames within a bucket. */
+  private IntStore prev, next;
+
+  /** The reference count of each bucket. */
+  private IntStore freq;
+
+  /** The oldest and newest frame in each bucket. */
+  private IntStore head, tail;
+
+  /** The neighbouring buckets in count order. */
+  private IntStore bPrev, bNext;
+
+  /** The stack of unused bucket slots. */
+  private IntStore spare;
+
+  /** The number of unused bucket slots on the stack. */
+  private int spareCount;
+
+  /** The bucket with the lowest count. */
+  private int lowest;
+
+  /*******************************************
+  * Instantiates the policy.
+  * @param frames is the number of frames.
+  *******************************************/
+  public LFUPolicy ( int frames ) {
+    this.bucketOf = new IntStore(frames);
+    this.prev = new IntStore(frames);
+    this.next = new IntStore(frames);
+
+    // One spare bucket: a hit may open the next bucket up before
+    // the frame leaves its old one.
+    int buckets = frames + 1;
+    this.freq = new IntStore(buckets);
+    this.head = new IntStore(buckets);
+    this.tail = new IntStore(buckets);
+    this.bPrev = new IntStore(buckets);
+    this.bNext = new IntStore(buckets);
+    this.spare = new IntStore(buckets);
+    this.bucketOf.fill(NIL);
+    int i;
+    for ( i = 0; i < buckets; i++ ) {
+      spare.set(i, buckets - 1 - i);
+    }
+    this.spareCount = buckets;
+    this.lowest = NIL;
+  }
+
+  @Override
+  public void frameHit ( int frame ) {
+    int b = bucketOf.get(frame);
+    if ( b == NIL ) {
+      frameLoaded(frame);
+      return;
+    }
+    if ( freq.get(b) == Integer.MAX_VALUE ) { // Saturated; just refresh the tie order.
+      if ( head.get(b) != tail.get(b) ) {
+        removeFromBucket(frame);
+        append(b, frame);
+      }
+      return;
+    }
+    int target = bNext.get(b);
+    if ( target == NIL || freq.get(target) != freq.get(b) + 1 ) {
+      target = newBucket(freq.get(b) + 1, b);
+    }
+    removeFromBucket(frame);
+    append(target, frame);
+  }
+
+  @Override
+  public void frameLoaded ( int frame ) {
+    if ( bucketOf.get(frame) != NIL ) {
+      removeFromBucket(frame);
+    }
+    int target = lowest;
+    if ( target == NIL || freq.get(target) != 1 ) {
+      target = newBucket(1, NIL);
+    }
+    append(target, frame);
+  }
+
+  @Override
+  public int pickVictim () {
+    if ( lowest == NIL ) {
+      return NIL;
+    }
+    int vic = head.get(lowest);
+    removeFromBucket(vic);
+    return vic;
+  }
+
+  @Override
+  public void frameReleased ( int frame ) {
+    if ( bucketOf.get(frame) != NIL ) {
+      removeFromBucket(frame);
+    }
+  }
+
+  @Override
+  public String getName () {
+    return "LFU";
+  }
+
+  /*************************************************
+  * Writes the buckets from the lowest count up, each
+  * as its count and its frames oldest first.
+  *************************************************/
+  @Override
+  public void saveState ( DataOutput out ) throws IOException {
+    int buckets = 0;
+    int b, f;
+    for ( b = lowest; b != NIL; b = bNext.get(b) ) {
+      buckets++;
+    }
+    out.writeInt(buckets);
+    for ( b = lowest; b != NIL; b = bNext.get(b) ) {
+      int n = 0;
+      for ( f = head.get(b); f != NIL; f = next.get(f) ) {
+        n++;
+      }
+      out.writeInt(freq.get(b));
+      out.writeInt(n);
+      for ( f = head.get(b); f != NIL; f = next.get(f) ) {
+        out.writeInt(f);
+      }
+    }
+  }
+
+  /*************************************************
+  * Rebuilds the buckets written by saveState.
+  *************************************************/
+  @Override
+  public void restoreState ( DataInput in ) throws IOException {
+    bucketOf.fill(NIL);
+    int i;
+    for ( i = 0; i < spare.length(); i++ ) {
+      spare.set(i, spare.length() - 1 - i);
+    }
+    spareCount = spare.length();
+    lowest = NIL;
+    int buckets = in.readInt();
+    int previous = NIL;
+    int k;
+    for ( k = 0; k < buckets; k++ ) {
+      int b = newBucket(in.readInt(), previous);
+      int n = in.readInt();
+      for ( i = 0; i < n; i++ ) {
+        append(b, in.readInt());
+      }
+      previous = b;
+    }
+  }
+
+  /*****************************************************
+  * Takes a bucket slot and links it in after another.
+  * @param count is the reference count of the bucket.
+  * @param after is the bucket before it, NIL for first.
+  * @return the new bucket.
+  *****************************************************/
+  private int newBucket ( int count, int after ) {
+    int b = spare.get(--spareCount);
+    freq.set(b, count);
+    head.set(b, NIL);
+    tail.set(b, NIL);
+    bPrev.set(b, after);
+    if ( after == NIL ) {
+      bNext.set(b, lowest);
+      lowest = b;
+    } else {
+      bNext.set(b, bNext.get(after));
+      bNext.set(after, b);
+    }
+    if ( bNext.get(b) != NIL ) {
+      bPrev.set(bNext.get(b), b);
+    }
+    return b;
+  }
+
+  /*****************************************************
+  * Appends a frame as the newest in a bucket.
+  *****************************************************/
+  private void append ( int b, int frame ) {
+    bucketOf.set(frame, b);
+    prev.set(frame, tail.get(b));
+    next.set(frame, NIL);
+    if ( tail.get(b) == NIL ) {
+      head.set(b, frame);
+    } else {
+      next.set(tail.get(b), frame);
+    }
+    tail.set(b, frame);
+  }
+
+  /*****************************************************
+  * Unlinks a frame from its bucket, returning the bucket
+  * to the spare stack if it becomes empty.
+  *****************************************************/
+  private void removeFromBucket ( int frame ) {
+    int b = bucketOf.get(frame);
+    int p = prev.get(frame);
+    int n = next.get(frame);
+    if ( p == NIL ) {
+      head.set(b, n);
+    } else {
+      next.set(p, n);
+    }
+    if ( n == NIL ) {
+      tail.set(b, p);
+    } else {
+      prev.set(n, p);
+    }
+    bucketOf.set(frame, NIL);
+
+    if ( head.get(b) == NIL ) {
+      if ( bPrev.get(b) == NIL ) {
+        lowest = bNext.get(b);
+      } else {
+        bNext.set(bPrev.get(b), bNext.get(b));
+      }
+      if ( bNext.get(b) != NIL ) {
+        bPrev.set(bNext.get(b), bPrev.get(b));
+      }
+      spare.set(spareCount++, b);
+    }
+  }
+}
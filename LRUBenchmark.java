@@ -0,0 +1,130 @@
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.Random;
+/**************************************************************
+* Measures references per second for the LRU replacement order.
+* Compares the old LinkedList queue against the index-linked
+* LRUList for a range of frame counts.
+* Usage: java LRUBenchmark [references]
+* @since 10/18/2026
+**************************************************************/
+public class LRUBenchmark {
+
+  /** The frame counts to be measured. */
+  private static final int [] FRAME_COUNTS = {16, 256, 1024, 4096};
+
+  /** One in this many references evicts the LRU frame. */
+  private static final int FAULT_EVERY = 8;
+
+  public static void main ( String[] args ) {
+
+    int refs = 500000;
+    if ( args.length > 0 ) {
+      refs = Integer.parseInt(args[0]);
+    }
+
+    System.out.println("Frames    Queue refs/s    LRUList refs/s");
+    int i;
+    for ( i = 0; i < FRAME_COUNTS.length; i++ ) {
+      int frames = FRAME_COUNTS[i];
+      int [] trace = buildTrace(frames, refs);
+
+      // Warm up both versions before timing them.
+      runQueue(frames, trace);
+      runList(frames, trace);
+
+      double queueRate = rate(trace.length, timeQueue(frames, trace));
+      double listRate = rate(trace.length, timeList(frames, trace));
+      System.out.printf("%-10d%-16.0f%-16.0f%n", frames, queueRate, listRate);
+    }
+  }
+
+  /***************************************************
+  * Builds a trace of frame references to be replayed.
+  * @param frames is the number of frames in memory.
+  * @param refs is the number of references.
+  * @return the referenced frames.
+  ***************************************************/
+  private static int [] buildTrace ( int frames, int refs ) {
+    Random rnd = new Random(42);
+    int [] trace = new int [refs];
+    int i;
+    for ( i = 0; i < refs; i++ ) {
+      trace[i] = rnd.nextInt(frames);
+    }
+    return trace;
+  }
+
+  /*************************************************
+  * Times a replay of the trace on the old queue.
+  * @return the elapsed time in nanoseconds.
+  *************************************************/
+  private static long timeQueue ( int frames, int [] trace ) {
+    long start = System.nanoTime();
+    runQueue(frames, trace);
+    return System.nanoTime() - start;
+  }
+
+  /*************************************************
+  * Times a replay of the trace on the LRU list.
+  * @return the elapsed time in nanoseconds.
+  *************************************************/
+  private static long timeList ( int frames, int [] trace ) {
+    long start = System.nanoTime();
+    runList(frames, trace);
+    return System.nanoTime() - start;
+  }
+
+  /****************************************************
+  * Replays the trace on a LinkedList queue the way the
+  * frame table used to: remove then add on every hit,
+  * pop the head on a fault.
+  * @return the last victim, so the work is not elided.
+  ****************************************************/
+  private static int runQueue ( int frames, int [] trace ) {
+    Queue<Integer> kicker = new LinkedList<Integer>();
+    int i, vic = -1;
+    for ( i = 0; i < frames; i++ ) {
+      kicker.add(i);
+    }
+    for ( i = 0; i < trace.length; i++ ) {
+      if ( i % FAULT_EVERY == 0 ) {
+        vic = kicker.remove();
+        kicker.add(vic);
+      } else {
+        kicker.remove(Integer.valueOf(trace[i]));
+        kicker.add(trace[i]);
+      }
+    }
+    return vic;
+  }
+
+  /****************************************************
+  * Replays the trace on the index-linked LRU list.
+  * @return the last victim, so the work is not elided.
+  ****************************************************/
+  private static int runList ( int frames, int [] trace ) {
+    LRUList kicker = new LRUList(frames);
+    int i, vic = -1;
+    for ( i = 0; i < frames; i++ ) {
+      kicker.touch(i);
+    }
+    for ( i = 0; i < trace.length; i++ ) {
+      if ( i % FAULT_EVERY == 0 ) {
+        vic = kicker.removeHead();
+        kicker.touch(vic);
+      } else {
+        kicker.touch(trace[i]);
+      }
+    }
+    return vic;
+  }
+
+  /********************************************
+  * Converts a count and duration into a rate.
+  * @return references per second.
+  ********************************************/
+  private static double rate ( int refs, long nanos ) {
+    return refs / (nanos / 1e9);
+  }
+}
@@ -0,0 +1,172 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/****************************************************************
+* An index-linked LRU list of frames.
+* Each frame number is its own node: prev/next arrays hold the
+* neighbouring frame numbers, so touching, inserting and evicting
+* a frame are constant time and never allocate.
+* The head of the list is the least recently used frame and the
+* tail is the most recently used one. The links are IntStores, so
+* they can live off the heap; a frame outside the list has its
+* prev link set to UNLINKED.
+* @since 10/18/2026
+****************************************************************/
+public class LRUList {
+
+  /** Marks the end of the list. */
+  private static final int NIL = -1;
+
+  /** The prev link of a frame that is not in the list. */
+  private static final int UNLINKED = -2;
+
+  /** The frame before each frame in LRU order. */
+  private IntStore prev;
+
+  /** The frame after each frame in LRU order. */
+  private IntStore next;
+
+  /** The least recently used frame. */
+  private int head;
+
+  /** The most recently used frame. */
+  private int tail;
+
+  /** The number of frames currently in the list. */
+  private int size;
+
+  /*************************************************
+  * Instantiates an empty list for the given frames.
+  * @param frames is the number of frames in memory.
+  *************************************************/
+  public LRUList ( int frames ) {
+    this.prev = new IntStore(frames);
+    this.next = new IntStore(frames);
+    this.prev.fill(UNLINKED);
+    this.head = NIL;
+    this.tail = NIL;
+    this.size = 0;
+  }
+
+  /*****************************************************
+  * Marks a frame as the most recently used one.
+  * The frame is inserted if it is not in the list yet.
+  * @param frame is the frame that was referenced.
+  *****************************************************/
+  public void touch ( int frame ) {
+    if ( this.prev.get(frame) != UNLINKED ) {
+      if ( frame == this.tail ) { // Already the most recent.
+        return;
+      }
+      unlink(frame);
+    }
+    append(frame);
+  }
+
+  /****************************************************
+  * Removes the least recently used frame from the list.
+  * @return the frame that was removed, -1 if empty.
+  ****************************************************/
+  public int removeHead () {
+    int vic = this.head;
+    if ( vic != NIL ) {
+      unlink(vic);
+    }
+    return vic;
+  }
+
+  /**************************************************
+  * Removes a frame from the list if it is present.
+  * @param frame is the frame to be removed.
+  **************************************************/
+  public void remove ( int frame ) {
+    if ( this.prev.get(frame) != UNLINKED ) {
+      unlink(frame);
+    }
+  }
+
+  /*********************************************
+  * Reports the least recently used frame.
+  * @return the head of the list, -1 if empty.
+  *********************************************/
+  public int peekHead () {
+    return this.head;
+  }
+
+  /*********************************************
+  * Reports the number of frames in the list.
+  * @return the size of the list.
+  *********************************************/
+  public int size () {
+    return this.size;
+  }
+
+  /*************************************************
+  * Writes the frames in LRU order, least recent
+  * first, for a checkpoint.
+  * @param out is where the order is written.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(this.size);
+    int frame;
+    for ( frame = this.head; frame != NIL; frame = this.next.get(frame) ) {
+      out.writeInt(frame);
+    }
+  }
+
+  /*************************************************
+  * Rebuilds the list from an order written by
+  * saveState.
+  * @param in is where the order is read from.
+  * @throws IOException if it cannot be read.
+  *************************************************/
+  public void restoreState ( DataInput in ) throws IOException {
+    this.prev.fill(UNLINKED);
+    this.head = NIL;
+    this.tail = NIL;
+    this.size = 0;
+    int n = in.readInt();
+    int i;
+    for ( i = 0; i < n; i++ ) {
+      append(in.readInt());
+    }
+  }
+
+  /*******************************************
+  * Links a frame in as the new tail.
+  * @param frame is the frame to be appended.
+  *******************************************/
+  private void append ( int frame ) {
+    this.prev.set(frame, this.tail);
+    this.next.set(frame, NIL);
+    if ( this.tail == NIL ) {
+      this.head = frame;
+    } else {
+      this.next.set(this.tail, frame);
+    }
+    this.tail = frame;
+    this.size++;
+  }
+
+  /*******************************************
+  * Unlinks a frame from its neighbours.
+  * @param frame is the frame to be unlinked.
+  *******************************************/
+  private void unlink ( int frame ) {
+    int p = this.prev.get(frame);
+    int n = this.next.get(frame);
+    if ( p == NIL ) {
+      this.head = n;
+    } else {
+      this.next.set(p, n);
+    }
+    if ( n == NIL ) {
+      this.tail = p;
+    } else {
+      this.prev.set(n, p);
+    }
+    this.prev.set(frame, UNLINKED);
+    this.size--;
+  }
+}
@@ -0,0 +1,57 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/*****************************************************************
+* Least recently used replacement.
+* Every reference moves its frame to the tail of an index-linked
+* LRUList; the victim is the frame at the head.
+* @since 10/18/2026
+*****************************************************************/
+public class LRUPolicy implements ReplacementPolicy {
+
+  /** The frames in LRU order. */
+  private LRUList kicker;
+
+  /*******************************************
+  * Instantiates the policy.
+  * @param frames is the number of frames.
+  *******************************************/
+  public LRUPolicy ( int frames ) {
+    this.kicker = new LRUList(frames);
+  }
+
+  @Override
+  public void frameHit ( int frame ) {
+    kicker.touch(frame);
+  }
+
+  @Override
+  public void frameLoaded ( int frame ) {
+    kicker.touch(frame);
+  }
+
+  @Override
+  public int pickVictim () {
+    return kicker.removeHead();
+  }
+
+  @Override
+  public void frameReleased ( int frame ) {
+    kicker.remove(frame);
+  }
+
+  @Override
+  public String getName () {
+    return "LRU";
+  }
+
+  @Override
+  public void saveState ( DataOutput out ) throws IOException {
+    kicker.saveState(out);
+  }
+
+  @Override
+  public void restoreState ( DataInput in ) throws IOException {
+    kicker.restoreState(in);
+  }
+}
@@ -0,0 +1,281 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/******************************************************************
+* An open-addressing hash table from long keys to an int or a long
+* value per key, shared by the simulator's primitive maps. It uses
+* linear probing over Int/LongStores, so a lookup never boxes and
+* usually costs a single probe, and the slots can live off the
+* heap. Removal shifts later entries back instead of leaving
+* tombstones, which keeps probe chains short as keys come and go.
+* The table doubles once it is half full. Int keys are simply
+* widened; any key but EMPTY can be stored.
+* Entries are reached by slot: find or add a key, then read or
+* write the value in its slot. A slot stays valid until the next
+* add or remove.
+* @since 10/18/2026
+******************************************************************/
+public final class LongKeyMap {
+
+  /** The key stored in an empty slot. */
+  public static final long EMPTY = -1L;
+
+  /** The keys. */
+  private LongStore keys;
+
+  /** The int values, or null if the values are longs. */
+  private IntStore ints;
+
+  /** The long values, or null if the values are ints. */
+  private LongStore longs;
+
+  /** The mask used to wrap slot numbers. */
+  private int mask;
+
+  /** The number of keys stored. */
+  private int size;
+
+  /*******************************************************
+  * Instantiates an empty map.
+  * @param capacity is the initial number of slots, a
+  * power of two.
+  * @param longValues tells whether the values are longs
+  * rather than ints.
+  *******************************************************/
+  public LongKeyMap ( int capacity, boolean longValues ) {
+    allocate(capacity, longValues);
+  }
+
+  /*************************************************
+  * Finds the slot holding a key.
+  * @param key is the key.
+  * @return the slot, -1 if the key is not stored.
+  *************************************************/
+  public int find ( long key ) {
+    int slot = slotFor(key);
+    long k;
+    while ( (k = this.keys.get(slot)) != EMPTY ) {
+      if ( k == key ) {
+        return slot;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return -1;
+  }
+
+  /*************************************************
+  * Finds the slot holding a key, adding the key if
+  * it is not stored. The value of a new key is left
+  * for the caller to set; size() tells whether the
+  * key was added.
+  * @param key is the key, not EMPTY.
+  * @return the slot.
+  *************************************************/
+  public int add ( long key ) {
+    if ( (this.size + 1) * 2L > this.keys.length() ) {
+      grow();
+    }
+    int slot = slotFor(key);
+    long k;
+    while ( (k = this.keys.get(slot)) != EMPTY ) {
+      if ( k == key ) {
+        return slot;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    this.keys.set(slot, key);
+    this.size++;
+    return slot;
+  }
+
+  /*******************************************************
+  * Removes the key in a slot, moving later entries of the
+  * same probe chain back so lookups never stop short.
+  * @param gap is a used slot.
+  *******************************************************/
+  public void removeAt ( int gap ) {
+    int slot = gap;
+    while ( true ) {
+      slot = (slot + 1) & this.mask;
+      long k = this.keys.get(slot);
+      if ( k == EMPTY ) {
+        break;
+      }
+      int home = slotFor(k);
+      // Move the entry only if its home is not between the gap and it.
+      if ( ((slot - home) & this.mask) >= ((slot - gap) & this.mask) ) {
+        this.keys.set(gap, k);
+        if ( this.ints != null ) {
+          this.ints.set(gap, this.ints.get(slot));
+        } else {
+          this.longs.set(gap, this.longs.get(slot));
+        }
+        gap = slot;
+      }
+    }
+    this.keys.set(gap, EMPTY);
+    this.size--;
+  }
+
+  /*******************************************
+  * Reports the key in a slot.
+  * @param slot is the slot number.
+  * @return the key, EMPTY for a free slot.
+  *******************************************/
+  public long keyAt ( int slot ) {
+    return this.keys.get(slot);
+  }
+
+  /*******************************************
+  * Reports the int value in a used slot.
+  * @param slot is the slot number.
+  * @return the value.
+  *******************************************/
+  public int intAt ( int slot ) {
+    return this.ints.get(slot);
+  }
+
+  /*******************************************
+  * Sets the int value in a used slot.
+  * @param slot is the slot number.
+  * @param value is the value.
+  *******************************************/
+  public void setIntAt ( int slot, int value ) {
+    this.ints.set(slot, value);
+  }
+
+  /*******************************************
+  * Reports the long value in a used slot.
+  * @param slot is the slot number.
+  * @return the value.
+  *******************************************/
+  public long longAt ( int slot ) {
+    return this.longs.get(slot);
+  }
+
+  /*******************************************
+  * Sets the long value in a used slot.
+  * @param slot is the slot number.
+  * @param value is the value.
+  *******************************************/
+  public void setLongAt ( int slot, long value ) {
+    this.longs.set(slot, value);
+  }
+
+  /*******************************************
+  * Forgets every key, keeping the slots.
+  *******************************************/
+  public void clear () {
+    this.keys.fill(EMPTY);
+    this.size = 0;
+  }
+
+  /*******************************************
+  * Reports the number of keys stored.
+  * @return the size of the map.
+  *******************************************/
+  public int size () {
+    return this.size;
+  }
+
+  /*******************************************
+  * Reports the number of slots to walk.
+  * @return the slot count.
+  *******************************************/
+  public int slots () {
+    return this.keys.length();
+  }
+
+  /*********************************************************
+  * Writes the map slot by slot for a checkpoint, so a
+  * restored map walks its keys in the same order.
+  * @param out is where the map is written.
+  * @throws IOException if it cannot be written.
+  *********************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeBoolean(this.longs != null);
+    out.writeInt(this.keys.length());
+    out.writeInt(this.size);
+    this.keys.write(out);
+    if ( this.ints != null ) {
+      this.ints.write(out);
+    } else {
+      this.longs.write(out);
+    }
+  }
+
+  /*********************************************************
+  * Reads a map written by saveState.
+  * @param in is where the map is read from.
+  * @return the map.
+  * @throws IOException if it cannot be read.
+  *********************************************************/
+  public static LongKeyMap readState ( DataInput in ) throws IOException {
+    boolean longValues = in.readBoolean();
+    LongKeyMap map = new LongKeyMap(in.readInt(), longValues);
+    map.size = in.readInt();
+    map.keys.read(in);
+    if ( longValues ) {
+      map.longs.read(in);
+    } else {
+      map.ints.read(in);
+    }
+    return map;
+  }
+
+  /*******************************************
+  * Allocates empty slots.
+  * @param capacity is a power of two.
+  * @param longValues tells the value type.
+  *******************************************/
+  private void allocate ( int capacity, boolean longValues ) {
+    this.keys = new LongStore(capacity);
+    this.keys.fill(EMPTY);
+    if ( longValues ) {
+      this.ints = null;
+      this.longs = new LongStore(capacity);
+    } else {
+      this.ints = new IntStore(capacity);
+      this.longs = null;
+    }
+    this.mask = capacity - 1;
+    this.size = 0;
+  }
+
+  /*******************************************
+  * Doubles the slots and rehashes.
+  *******************************************/
+  private void grow () {
+    LongStore oldKeys = this.keys;
+    IntStore oldInts = this.ints;
+    LongStore oldLongs = this.longs;
+    allocate(oldKeys.length() * 2, oldLongs != null);
+    int i;
+    for ( i = 0; i < oldKeys.length(); i++ ) {
+      long k = oldKeys.get(i);
+      if ( k != EMPTY ) {
+        int slot = slotFor(k);
+        while ( this.keys.get(slot) != EMPTY ) {
+          slot = (slot + 1) & this.mask;
+        }
+        this.keys.set(slot, k);
+        if ( oldInts != null ) {
+          this.ints.set(slot, oldInts.get(i));
+        } else {
+          this.longs.set(slot, oldLongs.get(i));
+        }
+        this.size++;
+      }
+    }
+  }
+
+  /*******************************************
+  * Hashes a key to its home slot.
+  * @param key is the key.
+  * @return the home slot of the key.
+  *******************************************/
+  private int slotFor ( long key ) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & this.mask;
+  }
+}
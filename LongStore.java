@@ -0,0 +1,156 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+/******************************************************************
+* A fixed-length array of longs, on the heap or off it as Storage
+* decides. Off-heap stores are split into 1GB buffers, so lengths
+* are not limited by a single buffer. The class is final and
+* checks for the heap array first, so heap-mode tables cost little
+* over a plain long[].
+* @since 10/18/2026
+******************************************************************/
+public final class LongStore {
+
+  /** The longs in each off-heap buffer, as a shift. */
+  private static final int CHUNK_SHIFT = 27;
+
+  /** The mask of an index within its buffer. */
+  private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+  /** The longs copied at a time by write and read. */
+  private static final int IO_LONGS = 1 << 13;
+
+  /** The longs when on the heap, else null. */
+  private final long [] heap;
+
+  /** The buffers when off the heap, else null. */
+  private final LongBuffer [] chunks;
+
+  /** The number of longs. */
+  private final int length;
+
+  /*************************************************
+  * Allocates a store of zeroes.
+  * @param pLength is the number of longs.
+  *************************************************/
+  public LongStore ( int pLength ) {
+    this.length = pLength;
+    if ( !Storage.offHeap(8L * pLength) ) {
+      this.heap = new long [pLength];
+      this.chunks = null;
+      return;
+    }
+    this.heap = null;
+    this.chunks = new LongBuffer [(int) (((long) pLength + CHUNK_MASK) >>> CHUNK_SHIFT)];
+    int i;
+    for ( i = 0; i < this.chunks.length; i++ ) {
+      int n = Math.min(CHUNK_MASK + 1, pLength - (i << CHUNK_SHIFT));
+      this.chunks[i] = Storage.allocate(8 * n).asLongBuffer();
+    }
+  }
+
+  /*************************************************
+  * Reads a long.
+  * @param i is the index.
+  * @return the value.
+  *************************************************/
+  public long get ( int i ) {
+    if ( heap != null ) {
+      return heap[i];
+    }
+    return chunks[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+  }
+
+  /*************************************************
+  * Writes a long.
+  * @param i is the index.
+  * @param value is the value.
+  *************************************************/
+  public void set ( int i, long value ) {
+    if ( heap != null ) {
+      heap[i] = value;
+      return;
+    }
+    chunks[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, value);
+  }
+
+  /*************************************************
+  * Sets every long to a value.
+  * @param value is the value.
+  *************************************************/
+  public void fill ( long value ) {
+    if ( heap != null ) {
+      java.util.Arrays.fill(heap, value);
+      return;
+    }
+    int i;
+    for ( i = 0; i < length; i++ ) {
+      set(i, value);
+    }
+  }
+
+  /*************************************************
+  * Writes every long, big-endian, in blocks.
+  * @param out is where the longs are written.
+  * @throws IOException if they cannot be written.
+  *************************************************/
+  public void write ( DataOutput out ) throws IOException {
+    byte [] buf = new byte [8 * Math.min(length, IO_LONGS)];
+    LongBuffer longs = ByteBuffer.wrap(buf).asLongBuffer();
+    int i, j;
+    for ( i = 0; i < length; i += IO_LONGS ) {
+      int n = Math.min(IO_LONGS, length - i);
+      longs.clear();
+      if ( heap != null ) {
+        longs.put(heap, i, n);
+      } else {
+        for ( j = 0; j < n; j++ ) {
+          longs.put(get(i + j));
+        }
+      }
+      out.write(buf, 0, 8 * n);
+    }
+  }
+
+  /*************************************************
+  * Reads every long, as written by write.
+  * @param in is where the longs are read from.
+  * @throws IOException if they cannot be read.
+  *************************************************/
+  public void read ( DataInput in ) throws IOException {
+    byte [] buf = new byte [8 * Math.min(length, IO_LONGS)];
+    LongBuffer longs = ByteBuffer.wrap(buf).asLongBuffer();
+    int i, j;
+    for ( i = 0; i < length; i += IO_LONGS ) {
+      int n = Math.min(IO_LONGS, length - i);
+      in.readFully(buf, 0, 8 * n);
+      longs.clear();
+      if ( heap != null ) {
+        longs.get(heap, i, n);
+      } else {
+        for ( j = 0; j < n; j++ ) {
+          set(i + j, longs.get());
+        }
+      }
+    }
+  }
+
+  /*************************************************
+  * Reports the number of longs.
+  * @return the length.
+  *************************************************/
+  public int length () {
+    return this.length;
+  }
+
+  /*************************************************
+  * Reports whether the longs live off the heap.
+  * @return true for direct or mapped storage.
+  *************************************************/
+  public boolean isOffHeap () {
+    return this.heap == null;
+  }
+}
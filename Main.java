@@ -1,14 +1,18 @@
 import java.io.IOException;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.File;
 
-import java.util.Queue;
-import java.util.LinkedList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Random;
 /******************************************************
 * Main entry into the program.
-* Reads an input file, creates a table and GUI.
+* Opens an input file, creates a table and GUI.
 * Passes the table, input, and file to the controller.
+* With command-line arguments it hands off to the
+* headless BatchRunner instead.
 * @author Gloire Rubambiza
 * @since 11/22/2017
 ******************************************************/
@@ -16,20 +20,26 @@ public class Main {
 
   public static void main (String[] args) {
 
+    // Arguments mean a scripted run: skip the file chooser and GUI.
+    if ( args.length > 0 ) {
+      BatchRunner.main(args);
+      return;
+    }
+
     String filename = "";
     FileChoice chooser = new FileChoice();
     filename = chooser.chooseFile();
-    Tables tbl = new Tables();
-    SystemGUI gui = new SystemGUI();
-    Queue<Integer[]> myQ = new LinkedList<Integer[]>();
+    Geometry geometry = Geometry.fromSystemProperties();
+    SystemGUI gui = new SystemGUI(geometry);
+    Random placement = new Random(Long.getLong("vimpares.seed", System.nanoTime()));
+    Tables tbl = null;
+    ReferenceSource myQ = null;
 
     try  {
-      BufferedReader reader = new BufferedReader(new FileReader(filename));
-      String line  = null;
-
-      while ( (line = reader.readLine() ) != null) {
-        sanitizeInput(line, myQ);
-      }
+      ReplacementPolicy policy = Policies.create(System.getProperty("vimpares.policy", "lru"),
+      geometry, new Random(placement.nextLong()), filename);
+      tbl = new Tables(geometry, placement, policy);
+      myQ = openInput(filename, geometry);
     } catch ( IOException e) {
       System.err.println("Could not find input file.\n");
       e.printStackTrace();
@@ -41,28 +51,45 @@ public class Main {
   }
 
   /*************************************************
-  * Sanitizes the input from the file i.e. trims it.
-  * Accounts for the possibility of 10 processes.
-  * Adds the input to the queue.
-  * @param line is the line that was read from file.
-  * @param queue is the queue of inputs
+  * Opens a streaming source over the input file.
+  * Binary traces are recognised by their magic number
+  * and text traces are memory-mapped; "-" reads text
+  * references from standard input instead.
+  * @param filename is the input file.
+  * @param geometry bounds the PIDs and page numbers.
+  * @return the source of pid/page references.
+  * @throws IOException if the file cannot be opened.
   **************************************************/
-  private static void sanitizeInput ( String line, Queue<Integer[]> queue ) {
-
-    // The string that will produce the integers to be used
-    String newLine  = (line.replaceAll(":\\s", "")).substring(1);
-
-    // The array that will store the pid and page requested.
-    Integer [] mapping = new Integer[2];
+  static ReferenceSource openInput ( String filename, Geometry geometry )
+  throws IOException {
+    if ( filename.equals("-") ) {
+      return new TraceReader(System.in, geometry);
+    }
+    Path path = Paths.get(filename);
+    if ( isBinaryTrace(path) ) {
+      return new BinaryTraceReader(path, geometry);
+    }
+    return new MappedTraceReader(path, geometry);
+  }
 
-    // Check if we are dealing with process #10.
-    if ( newLine.length() == 7 ) {
-      mapping[0] = Integer.parseInt(newLine.substring(0,1));
-      mapping[1] = Integer.parseInt(newLine.substring(1),2);
-    } else {
-      mapping[0] = Integer.parseInt(newLine.substring(0,2));
-      mapping[1] = Integer.parseInt(newLine.substring(2),2);
+  /*************************************************
+  * Checks whether a file starts with the binary
+  * trace magic number.
+  * @param path is the input file.
+  * @return true for a binary trace.
+  * @throws IOException if the file cannot be read.
+  **************************************************/
+  private static boolean isBinaryTrace ( Path path ) throws IOException {
+    ByteBuffer start = ByteBuffer.allocate(4);
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      while ( start.hasRemaining() && channel.read(start) >= 0 ) {
+        // Keep reading until we have the magic number.
+      }
+    } finally {
+      channel.close();
     }
-    queue.add(mapping);
+    start.flip();
+    return BinaryTrace.isBinary(start);
   }
 }
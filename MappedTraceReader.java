@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/******************************************************************
+* Streams references from a local text trace through NIO memory
+* mapping. The file is mapped one window at a time, so only the
+* current window is resident no matter how large the trace is,
+* and files past 2GB are handled by sliding the window forward.
+* Lines are parsed in place, so reading allocates nothing.
+* @since 10/18/2026
+******************************************************************/
+public class MappedTraceReader implements ReferenceSource {
+
+  /** The default number of bytes mapped at a time. */
+  public static final int DEFAULT_WINDOW = 64 << 20;
+
+  /** The channel over the trace file. */
+  private FileChannel channel;
+
+  /** Decodes the lines straight out of the window. */
+  private TraceParser parser;
+
+  /** The size of the trace file in bytes. */
+  private long fileSize;
+
+  /** The size of the window to map. */
+  private int windowSize;
+
+  /** The currently mapped window. */
+  private MappedByteBuffer window;
+
+  /** The file offset at which the window starts. */
+  private long windowStart;
+
+  /** The index just past the current line in the window. */
+  private int lineEnd;
+
+  /** The current reference. */
+  private int pid, page;
+
+  /** The number of lines read so far. */
+  private long lineNumber;
+
+  /** Whether the end of input was reached. */
+  private boolean done;
+
+  /***************************************************
+  * Opens a trace file with the default window size.
+  * @param path is the trace file.
+  * @param pGeometry bounds the PIDs and page numbers.
+  * @throws IOException if the file cannot be opened.
+  ***************************************************/
+  public MappedTraceReader ( Path path, Geometry pGeometry ) throws IOException {
+    this(path, pGeometry, DEFAULT_WINDOW);
+  }
+
+  /***************************************************
+  * Opens a trace file with the given window size.
+  * @param path is the trace file.
+  * @param pGeometry bounds the PIDs and page numbers.
+  * @param pWindowSize is the number of bytes mapped at a time.
+  * @throws IOException if the file cannot be opened.
+  ***************************************************/
+  public MappedTraceReader ( Path path, Geometry pGeometry, int pWindowSize )
+  throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.parser = new TraceParser(pGeometry);
+    this.fileSize = channel.size();
+    this.windowSize = pWindowSize;
+    map(0);
+  }
+
+  @Override
+  public double progress () {
+    return fileSize == 0 ? 1.0 : Math.min(1.0, (windowStart + lineEnd) / (double) fileSize);
+  }
+
+  @Override
+  public boolean next () throws IOException {
+    while ( !done ) {
+      int start = readLine();
+      if ( start < 0 ) {
+        done = true;
+        break;
+      }
+      lineNumber++;
+      long ref = parser.parse(window, start, lineEnd, lineNumber);
+      if ( ref != TraceParser.SKIP ) {
+        pid = (int) (ref >>> 32);
+        page = (int) ref;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public long offset () {
+    return windowStart + window.position();
+  }
+
+  /*******************************************************
+  * Moves to a file offset, reusing the current window if
+  * it covers the offset. Line numbers in later errors
+  * count from the start of the file only if the reader
+  * has not seeked.
+  * @param offset is the offset of a line.
+  * @throws IOException if it is outside the file.
+  *******************************************************/
+  @Override
+  public void seek ( long offset ) throws IOException {
+    if ( offset < 0 || offset > fileSize ) {
+      throw new IOException("Offset " + offset + " is outside the trace");
+    }
+    if ( offset >= windowStart && offset <= windowStart + window.limit() ) {
+      window.position((int) (offset - windowStart));
+    } else {
+      map(offset);
+    }
+    lineEnd = window.position();
+    done = false;
+  }
+
+  /*******************************************
+  * Reports the parser, e.g. to quiet it.
+  * @return the parser of the lines.
+  *******************************************/
+  public TraceParser getParser () {
+    return this.parser;
+  }
+
+  @Override
+  public int pid () {
+    return this.pid;
+  }
+
+  @Override
+  public int page () {
+    return this.page;
+  }
+
+  @Override
+  public void close () throws IOException {
+    done = true;
+    window = null;
+    channel.close();
+  }
+
+  /*******************************************************
+  * Finds the next line in the window, sliding the window
+  * when it runs out so the whole line is contiguous.
+  * Leaves the window positioned after the line and sets
+  * lineEnd to the index just past its last byte.
+  * @return the index of the line's first byte in the
+  * window, -1 at the end of file.
+  * @throws IOException if the next window cannot be mapped.
+  *******************************************************/
+  private int readLine () throws IOException {
+    if ( !window.hasRemaining() ) {
+      if ( windowStart + window.limit() >= fileSize ) {
+        return -1;
+      }
+      map(windowStart + window.limit());
+    }
+    int start = window.position();
+    int i = start;
+    int limit = window.limit();
+    while ( true ) {
+      if ( i == limit ) {
+        if ( windowStart + limit >= fileSize ) {
+          window.position(i);
+          lineEnd = trimReturn(start, i); // The last line had no newline.
+          return start;
+        }
+        if ( start == 0 ) {
+          throw new IOException("Line " + (lineNumber + 1) + " is longer than "
+          + windowSize + " bytes");
+        }
+        // Remap from the start of this line so it is contiguous.
+        map(windowStart + start);
+        i -= start;
+        start = 0;
+        limit = window.limit();
+      }
+      if ( window.get(i) == '\n' ) {
+        window.position(i + 1);
+        lineEnd = trimReturn(start, i);
+        return start;
+      }
+      i++;
+    }
+  }
+
+  /*****************************************************
+  * Drops a carriage return ending a line, if any.
+  * @return the end of the line without it.
+  *****************************************************/
+  private int trimReturn ( int start, int end ) {
+    if ( end > start && window.get(end - 1) == '\r' ) {
+      return end - 1;
+    }
+    return end;
+  }
+
+  /*****************************************************
+  * Maps the window that starts at the given offset.
+  * @param start is the file offset of the window.
+  * @throws IOException if the window cannot be mapped.
+  *****************************************************/
+  private void map ( long start ) throws IOException {
+    long size = Math.min(windowSize, fileSize - start);
+    this.window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    this.windowStart = start;
+  }
+}
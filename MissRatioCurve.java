@@ -0,0 +1,48 @@
+/*****************************************************************
+* LRU fault counts for every memory size, from one pass over a
+* trace, either exact or estimated from a sample.
+* @since 10/18/2026
+*****************************************************************/
+public interface MissRatioCurve {
+
+  /*************************************************
+  * Reports LRU's faults for all processes.
+  * @param frames is the number of frames.
+  * @return the fault count.
+  *************************************************/
+  long faults ( int frames );
+
+  /*************************************************
+  * Reports LRU's faults for one process.
+  * @param pid is the PID of the process.
+  * @param frames is the number of frames.
+  * @return the fault count.
+  *************************************************/
+  long faults ( int pid, int frames );
+
+  /*************************************************
+  * Reports the references of all processes.
+  * @return the reference count.
+  *************************************************/
+  long getReferences ();
+
+  /*************************************************
+  * Reports the references of one process.
+  * @param pid is the PID of the process.
+  * @return the reference count.
+  *************************************************/
+  long getReferences ( int pid );
+
+  /*************************************************
+  * Reports the largest stack distance seen; with at
+  * least this many frames only cold misses remain.
+  * @return the largest distance.
+  *************************************************/
+  int getMaxDistance ();
+
+  /*************************************************
+  * Reports the number of distinct pages referenced.
+  * @return the distinct page count.
+  *************************************************/
+  int getDistinctPages ();
+}
@@ -0,0 +1,199 @@
+import java.io.IOException;
+
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/******************************************************************
+* The position of the next reference to the same page, for every
+* position in a trace. A forward pass stores each reference's
+* packed process/page key; a backward pass then overwrites each
+* key with the position where that key is seen next, using a map
+* from key to the latest position seen so far. Exit records are
+* not references, so they take no position; a PID that comes back
+* after exiting is a new process, so its pages are keyed apart and
+* never linked to the previous life's. One long per
+* reference is all it keeps, on the heap for short traces and in a
+* memory-mapped temp file once the trace outgrows
+* vimpares.opt.heapRefs references (default 8M). The temp file is
+* deleted as soon as the index is built; the mapping stays valid.
+* @since 10/18/2026
+******************************************************************/
+public class NextUseIndex {
+
+  /** The next use of a page that is never referenced again. */
+  public static final long NEVER = Long.MAX_VALUE;
+
+  /** The number of longs in each mapped chunk, as a shift. */
+  private static final int CHUNK_SHIFT = 24;
+
+  /** The number of longs in each mapped chunk. */
+  private static final int CHUNK = 1 << CHUNK_SHIFT;
+
+  /** The entries while they fit on the heap, else null. */
+  private long [] heap;
+
+  /** The mapped chunks once the entries spill, else null. */
+  private LongBuffer [] chunks;
+
+  /** The temp file channel while spilling, closed once built. */
+  private FileChannel spill;
+
+  /** The number of references in the trace. */
+  private long length;
+
+  /** The most entries kept on the heap before spilling. */
+  private long heapLimit;
+
+  /*************************************************
+  * Builds the index by reading a source to its end.
+  * @param input is the trace; it is closed after.
+  * @return the index.
+  * @throws IOException if the trace or temp file fails.
+  *************************************************/
+  public static NextUseIndex build ( ReferenceSource input ) throws IOException {
+    NextUseIndex index = new NextUseIndex(Long.getLong("vimpares.opt.heapRefs", 1L << 23));
+    // Each later life of a PID gets its own negative id for its keys.
+    PositionMap lives = new PositionMap();
+    long lastLife = PositionMap.ABSENT;
+    try {
+      while ( input.next() ) {
+        int pid = input.pid();
+        if ( input.page() == ReferenceSource.EXIT ) {
+          lives.swap(pid, --lastLife);
+          continue;
+        }
+        long life = lastLife == PositionMap.ABSENT ? PositionMap.ABSENT : lives.get(pid);
+        index.append(FrameIndex.pack(life == PositionMap.ABSENT ? pid : (int) life,
+        input.page()));
+      }
+      index.link();
+    } finally {
+      input.close();
+      if ( index.spill != null ) {
+        index.spill.close();
+        index.spill = null;
+      }
+    }
+    return index;
+  }
+
+  /*************************************************
+  * Instantiates an empty index.
+  * @param heapLimit is the most entries kept on the heap.
+  *************************************************/
+  private NextUseIndex ( long heapLimit ) {
+    this.heapLimit = heapLimit;
+    this.heap = new long [(int) Math.min(heapLimit, 1 << 16)];
+  }
+
+  /*************************************************
+  * Reports the number of references in the trace.
+  * @return the trace length.
+  *************************************************/
+  public long length () {
+    return this.length;
+  }
+
+  /*************************************************
+  * Finds the next reference to the page referenced
+  * at a position.
+  * @param position is a position in the trace.
+  * @return the next position, NEVER if there is none.
+  *************************************************/
+  public long next ( long position ) {
+    if ( position >= this.length ) {
+      return NEVER;
+    }
+    return get(position);
+  }
+
+  /*************************************************
+  * Reports whether the entries live in a temp file.
+  * @return true once the index has spilled.
+  *************************************************/
+  public boolean isSpilled () {
+    return this.chunks != null;
+  }
+
+  /*************************************************
+  * Stores the key of the next reference, growing the
+  * heap array or spilling to the temp file.
+  *************************************************/
+  private void append ( long key ) throws IOException {
+    if ( this.chunks == null && this.length == this.heap.length ) {
+      if ( this.length < this.heapLimit ) {
+        long grown = Math.min(this.heapLimit, this.length * 2);
+        this.heap = java.util.Arrays.copyOf(this.heap, (int) grown);
+      } else {
+        spillHeap();
+      }
+    }
+    set(this.length++, key);
+  }
+
+  /*************************************************
+  * Moves the heap entries into a mapped temp file.
+  *************************************************/
+  private void spillHeap () throws IOException {
+    Path file = Files.createTempFile("vimpares-opt", ".idx");
+    this.spill = FileChannel.open(file, StandardOpenOption.READ,
+    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+    this.chunks = new LongBuffer [4];
+    long [] old = this.heap;
+    this.heap = null;
+    long i;
+    for ( i = 0; i < this.length; i++ ) {
+      set(i, old[(int) i]);
+    }
+  }
+
+  /*************************************************
+  * Replaces every key with the position of the next
+  * reference to it, walking the trace backwards.
+  *************************************************/
+  private void link () {
+    PositionMap seen = new PositionMap();
+    long i;
+    for ( i = this.length - 1; i >= 0; i-- ) {
+      long next = seen.swap(get(i), i);
+      set(i, next == PositionMap.ABSENT ? NEVER : next);
+    }
+  }
+
+  /*************************************************
+  * Reads an entry.
+  * @return the entry at position i.
+  *************************************************/
+  private long get ( long i ) {
+    if ( this.heap != null ) {
+      return this.heap[(int) i];
+    }
+    return this.chunks[(int) (i >>> CHUNK_SHIFT)].get((int) (i & (CHUNK - 1)));
+  }
+
+  /*************************************************
+  * Writes an entry, mapping a new chunk if needed.
+  *************************************************/
+  private void set ( long i, long value ) {
+    if ( this.heap != null ) {
+      this.heap[(int) i] = value;
+      return;
+    }
+    int c = (int) (i >>> CHUNK_SHIFT);
+    if ( c >= this.chunks.length ) {
+      this.chunks = java.util.Arrays.copyOf(this.chunks, c * 2);
+    }
+    if ( this.chunks[c] == null ) {
+      try {
+        this.chunks[c] = this.spill.map(FileChannel.MapMode.READ_WRITE,
+        (long) c * CHUNK * 8, (long) CHUNK * 8).order(ByteOrder.nativeOrder()).asLongBuffer();
+      } catch ( IOException e ) {
+        throw new java.io.UncheckedIOException(e);
+      }
+    }
+    this.chunks[c].put((int) (i & (CHUNK - 1)), value);
+  }
+}
@@ -0,0 +1,171 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/*****************************************************************
+* Belady's optimal replacement, the lower bound for every other
+* policy. It evicts the frame whose page is referenced again
+* furthest in the future, read from a precomputed NextUseIndex.
+* Frames sit in an indexed max-heap keyed on their next use, so a
+* reference or an eviction costs O(log frames) rather than a scan
+* of the future. The heap and next uses sit in Int/LongStores, so
+* they can live off the Java heap with the other tables. The
+* engine calls frameHit or frameLoaded exactly once per reference,
+* so counting those calls gives the trace position of each
+* reference.
+* @since 10/18/2026
+*****************************************************************/
+public class OPTPolicy implements ReplacementPolicy {
+
+  /** The next use of every position in the trace. */
+  private NextUseIndex index;
+
+  /** The trace position of the next reference. */
+  private long position;
+
+  /** The frames in heap order, furthest next use first. */
+  private IntStore heap;
+
+  /** The heap slot of each frame, -1 if not tracked. */
+  private IntStore slot;
+
+  /** The next use of each frame's page. */
+  private LongStore nextUse;
+
+  /** The number of frames in the heap. */
+  private int count;
+
+  /*******************************************
+  * Instantiates the policy.
+  * @param frames is the number of frames.
+  * @param pIndex is the next-use index of the trace
+  * that will be simulated.
+  *******************************************/
+  public OPTPolicy ( int frames, NextUseIndex pIndex ) {
+    this.index = pIndex;
+    this.heap = new IntStore(frames);
+    this.slot = new IntStore(frames);
+    this.nextUse = new LongStore(frames);
+    this.slot.fill(-1);
+  }
+
+  @Override
+  public void frameHit ( int frame ) {
+    frameLoaded(frame);
+  }
+
+  @Override
+  public void frameLoaded ( int frame ) {
+    nextUse.set(frame, index.next(position++));
+    int at = slot.get(frame);
+    if ( at < 0 ) {
+      at = count++;
+      heap.set(at, frame);
+      slot.set(frame, at);
+    }
+    // A page's next use only moves later, so its frame only rises.
+    siftUp(at);
+  }
+
+  @Override
+  public int pickVictim () {
+    if ( count == 0 ) {
+      return -1;
+    }
+    int vic = heap.get(0);
+    frameReleased(vic);
+    return vic;
+  }
+
+  @Override
+  public void frameReleased ( int frame ) {
+    int at = slot.get(frame);
+    if ( at < 0 ) {
+      return;
+    }
+    slot.set(frame, -1);
+    int last = heap.get(--count);
+    if ( at < count ) {
+      heap.set(at, last);
+      slot.set(last, at);
+      siftUp(at);
+      siftDown(slot.get(last));
+    }
+  }
+
+  @Override
+  public String getName () {
+    return "OPT";
+  }
+
+  /*************************************************
+  * Writes the trace position and the heap, with the
+  * next use of each frame in it.
+  *************************************************/
+  @Override
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeLong(position);
+    out.writeInt(count);
+    int i;
+    for ( i = 0; i < count; i++ ) {
+      out.writeInt(heap.get(i));
+      out.writeLong(nextUse.get(heap.get(i)));
+    }
+  }
+
+  @Override
+  public void restoreState ( DataInput in ) throws IOException {
+    slot.fill(-1);
+    position = in.readLong();
+    count = in.readInt();
+    int i;
+    for ( i = 0; i < count; i++ ) {
+      heap.set(i, in.readInt());
+      nextUse.set(heap.get(i), in.readLong());
+      slot.set(heap.get(i), i);
+    }
+  }
+
+  /*****************************************************
+  * Moves a heap entry up past parents with earlier uses.
+  *****************************************************/
+  private void siftUp ( int at ) {
+    int frame = heap.get(at);
+    long key = nextUse.get(frame);
+    while ( at > 0 ) {
+      int parent = (at - 1) >>> 1;
+      if ( nextUse.get(heap.get(parent)) >= key ) {
+        break;
+      }
+      heap.set(at, heap.get(parent));
+      slot.set(heap.get(at), at);
+      at = parent;
+    }
+    heap.set(at, frame);
+    slot.set(frame, at);
+  }
+
+  /*****************************************************
+  * Moves a heap entry down past children with later uses.
+  *****************************************************/
+  private void siftDown ( int at ) {
+    int frame = heap.get(at);
+    long key = nextUse.get(frame);
+    while ( true ) {
+      int child = 2 * at + 1;
+      if ( child >= count ) {
+        break;
+      }
+      if ( child + 1 < count && nextUse.get(heap.get(child + 1)) > nextUse.get(heap.get(child)) ) {
+        child++;
+      }
+      if ( nextUse.get(heap.get(child)) <= key ) {
+        break;
+      }
+      heap.set(at, heap.get(child));
+      slot.set(heap.get(at), at);
+      at = child;
+    }
+    heap.set(at, frame);
+    slot.set(frame, at);
+  }
+}
@@ -1,4 +1,6 @@
-import java.util.Hashtable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 /************************************************************
 * A Process Control Block (PCB) data structure for a process.
 * @author Gloire Rubambiza
@@ -10,29 +12,25 @@ public class PCB {
   private int pid;
 
   /** The total number of memory references for this process. */
-  private int memRef;
+  private long memRef;
 
   /** The total number of page faults for this process. */
-  private int pageFaults;
+  private long pageFaults;
 
   /** The page table for this process. */
-  private Hashtable<Integer, Integer> pageTable;
-
-  /** The initial capacity of the page table. */
-  private int capacity = 64;
+  private PageMap pageTable;
 
   /*************************************************
   * Instantiates a PCB for a process with (minimal)
   * useful information
-  * The process will have 64 pages of 1KB each
   * @param pid the process ID
-  * @param table the page table for this process
+  * @param pagesPerProcess the size of its address space
   ***********************************************/
-  public PCB (int PID) {
+  public PCB (int PID, int pagesPerProcess) {
     this.pid = PID;
     this.memRef = 0;
     this.pageFaults = 0;
-    this.pageTable = new Hashtable<Integer, Integer>(capacity);
+    this.pageTable = new PageMap(pagesPerProcess);
   }
 
   /************************************************************
@@ -63,30 +61,78 @@ public class PCB {
     this.pageFaults++;
   }
 
+  /***********************************************
+  * Adds counts to the totals of this PCB, as when
+  * the processes of a reused PID are summed.
+  * @param refs is the number of references to add.
+  * @param faults is the number of faults to add.
+  ***********************************************/
+  public void addCounts ( long refs, long faults ) {
+    this.memRef += refs;
+    this.pageFaults += faults;
+  }
+
   /*********************************************
   * Prints the current state of the page table.
-  * Code help on enumerating over a map obtained from:
-  * https://stackoverflow.com/questions/2216311/how-do-i-enumerate-the-keys-and
-  * -values-of-a-hashtable
   *********************************************/
   public void printTable() {
     System.out.println("Page     Frame");
-    for ( Integer key : this.pageTable.keySet() ) {
-      System.out.println(key + "    ->    " + this.pageTable.get(key) );
+    int slot;
+    for ( slot = 0; slot < this.pageTable.slots(); slot++ ) {
+      int page = this.pageTable.pageAt(slot);
+      if ( page >= 0 ) {
+        System.out.println(page + "    ->    " + this.pageTable.frameAt(slot) );
+      }
     }
   }
 
+  /**********************************************************
+  * Drops the page table of a process that exited, once its
+  * frames were released. The counts are kept for the stats.
+  **********************************************************/
+  public void exit () {
+    this.pageTable = new PageMap(0);
+  }
+
+  /*************************************************
+  * Writes the PCB and its page table for a checkpoint.
+  * @param out is where the PCB is written.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(this.pid);
+    out.writeLong(this.memRef);
+    out.writeLong(this.pageFaults);
+    this.pageTable.saveState(out);
+  }
+
+  /*************************************************
+  * Reads a PCB written by saveState.
+  * @param in is where the PCB is read from.
+  * @return the PCB.
+  * @throws IOException if it cannot be read.
+  *************************************************/
+  public static PCB readState ( DataInput in ) throws IOException {
+    PCB pcb = new PCB(in.readInt(), 0);
+    pcb.memRef = in.readLong();
+    pcb.pageFaults = in.readLong();
+    pcb.pageTable = PageMap.readState(in);
+    return pcb;
+  }
+
   /**********************************************************
   * Reports the total number of references for this process.
+  * @return the count, which may pass the range of an int.
   **********************************************************/
-  public int getTotalReferences () {
+  public long getTotalReferences () {
     return this.memRef;
   }
 
   /**********************************************************
   * Reports the total number of page faults for this process.
+  * @return the count, which may pass the range of an int.
   **********************************************************/
-  public int getTotalPageFaults () {
+  public long getTotalPageFaults () {
     return this.pageFaults;
   }
 
@@ -108,9 +154,9 @@ public class PCB {
 
   /****************************************
   * Points the pcb table to its page table.
-  * @return the page table for the process.
+  * @return a read-only view of the page table.
   *****************************************/
-  public Hashtable <Integer, Integer> getTable () {
+  public PageTableView getTable () {
     return this.pageTable;
   }
 
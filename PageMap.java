@@ -0,0 +1,156 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/******************************************************************
+* A primitive page -> frame map for one process' page table.
+* Small address spaces use a dense int array indexed by page;
+* large ones switch automatically to a LongKeyMap hash table that
+* grows with the resident set. Neither form boxes or locks, since
+* the simulator is single-threaded. Both keep their slots in
+* Int/LongStores, so big page tables can live off the heap.
+* @since 10/18/2026
+******************************************************************/
+public class PageMap implements PageTableView {
+
+  /** Address spaces up to this many pages are stored densely. */
+  public static final int DENSE_LIMIT = 4096;
+
+  /** Marks an empty slot or a missing frame. */
+  private static final int EMPTY = -1;
+
+  /** Whether the map is a dense array indexed by page. */
+  private final boolean dense;
+
+  /** The frame of each page (dense form only). */
+  private IntStore frames;
+
+  /** The frame of each resident page (hashed form only). */
+  private LongKeyMap hashed;
+
+  /** The number of resident pages (dense form only). */
+  private int size;
+
+  /**********************************************************
+  * Instantiates an empty map for a process address space.
+  * @param pagesPerProcess is the number of pages per process.
+  **********************************************************/
+  public PageMap ( int pagesPerProcess ) {
+    this.dense = pagesPerProcess <= DENSE_LIMIT;
+    if ( dense ) {
+      this.frames = new IntStore(pagesPerProcess);
+      this.frames.fill(EMPTY);
+    } else {
+      this.hashed = new LongKeyMap(16, false);
+    }
+  }
+
+  @Override
+  public int get ( int page ) {
+    if ( dense ) {
+      return frames.get(page);
+    }
+    int slot = hashed.find(page);
+    return slot < 0 ? EMPTY : hashed.intAt(slot);
+  }
+
+  /*********************************************
+  * Maps a page to a frame.
+  * @param page is the page number.
+  * @param frame is the frame holding it.
+  *********************************************/
+  public void put ( int page, int frame ) {
+    if ( dense ) {
+      if ( frames.get(page) == EMPTY ) {
+        size++;
+      }
+      frames.set(page, frame);
+      return;
+    }
+    hashed.setIntAt(hashed.add(page), frame);
+  }
+
+  /*****************************************************
+  * Unmaps a page if it is mapped to the given frame.
+  * @param page is the page number.
+  * @param frame is the frame it must be mapped to.
+  *****************************************************/
+  public void remove ( int page, int frame ) {
+    if ( dense ) {
+      if ( frames.get(page) == frame && frame != EMPTY ) {
+        frames.set(page, EMPTY);
+        size--;
+      }
+      return;
+    }
+    int slot = hashed.find(page);
+    if ( slot >= 0 && hashed.intAt(slot) == frame ) {
+      hashed.removeAt(slot);
+    }
+  }
+
+  @Override
+  public int size () {
+    return dense ? this.size : hashed.size();
+  }
+
+  @Override
+  public int slots () {
+    return dense ? frames.length() : hashed.slots();
+  }
+
+  @Override
+  public int pageAt ( int slot ) {
+    if ( dense ) {
+      return frames.get(slot) == EMPTY ? EMPTY : slot;
+    }
+    return (int) hashed.keyAt(slot);
+  }
+
+  @Override
+  public int frameAt ( int slot ) {
+    return dense ? frames.get(slot) : hashed.intAt(slot);
+  }
+
+  /*********************************************************
+  * Writes the map slot by slot for a checkpoint, so a
+  * restored map walks its pages in the same order.
+  * @param out is where the map is written.
+  * @throws IOException if it cannot be written.
+  *********************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeBoolean(dense);
+    if ( !dense ) {
+      hashed.saveState(out);
+      return;
+    }
+    out.writeInt(frames.length());
+    out.writeInt(size);
+    frames.write(out);
+  }
+
+  /*********************************************************
+  * Reads a map written by saveState.
+  * @param in is where the map is read from.
+  * @return the map.
+  * @throws IOException if it cannot be read.
+  *********************************************************/
+  public static PageMap readState ( DataInput in ) throws IOException {
+    if ( !in.readBoolean() ) {
+      PageMap map = new PageMap(DENSE_LIMIT + 1);
+      map.hashed = LongKeyMap.readState(in);
+      return map;
+    }
+    PageMap map = new PageMap(in.readInt());
+    map.size = in.readInt();
+    map.frames.read(in);
+    return map;
+  }
+
+  /*********************************************
+  * Reports whether the map is stored densely.
+  * @return true for the dense form.
+  *********************************************/
+  public boolean isDense () {
+    return this.dense;
+  }
+}
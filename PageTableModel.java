@@ -0,0 +1,239 @@
+import javax.swing.AbstractListModel;
+/******************************************************************
+* The rows of the page table panel: the resident pages of one
+* process, sorted by page number, each shown with its frame.
+* The pages and frames are kept in two sorted arrays and a row's
+* text is only built when a list asks for it, so a list that draws
+* just its visible rows costs the same for 10 pages or a million.
+*
+* The model is built once when the panel switches to a process,
+* and then kept up to date with one insert or remove per page the
+* engine maps or unmaps, each firing an event for that row alone,
+* instead of being rebuilt for every reference.
+* @since 10/18/2026
+******************************************************************/
+public class PageTableModel extends AbstractListModel<String> {
+
+  /** Objects of the class are now serializable. */
+  private static final long serialVersionUID = 1L;
+
+  /** The most rows allocated up front. */
+  private static final int INITIAL = 1 << 12;
+
+  /** The buckets of each pass of the radix sort. */
+  private static final int RADIX = 1 << 16;
+
+  /** The process shown, -1 for none. */
+  private int pid = -1;
+
+  /** The resident pages in ascending order. */
+  private int [] pages;
+
+  /** The frame of each page, in the same order. */
+  private int [] frames;
+
+  /** The number of resident pages. */
+  private int size;
+
+  /*******************************************
+  * Instantiates an empty model.
+  * @param capacity is the expected number of
+  * resident pages; more are still accepted.
+  *******************************************/
+  public PageTableModel ( int capacity ) {
+    this.pages = new int [Math.max(16, Math.min(capacity, INITIAL))];
+    this.frames = new int [this.pages.length];
+  }
+
+  /*******************************************************
+  * Shows a process, rebuilding the rows from its page
+  * table. Walks the table once and sorts only if the
+  * slots were not already in page order.
+  * @param table is the page table, null for none.
+  * @param pPid is the PID of the process.
+  *******************************************************/
+  public void load ( PageTableView table, int pPid ) {
+    int oldSize = this.size;
+    this.pid = pPid;
+    this.size = 0;
+    if ( oldSize > 0 ) {
+      fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+    if ( table == null || table.size() == 0 ) {
+      return;
+    }
+
+    ensureCapacity(table.size());
+    boolean sorted = true;
+    int n = 0;
+    int slot;
+    for ( slot = 0; slot < table.slots(); slot++ ) {
+      int page = table.pageAt(slot);
+      if ( page < 0 ) {
+        continue;
+      }
+      if ( n > 0 && page < this.pages[n - 1] ) {
+        sorted = false;
+      }
+      this.pages[n] = page;
+      this.frames[n] = table.frameAt(slot);
+      n++;
+    }
+    if ( !sorted ) {
+      sortRows(n);
+    }
+    this.size = n;
+    fireIntervalAdded(this, 0, n - 1);
+  }
+
+  /*******************************************************
+  * Records that a page of the shown process was mapped,
+  * inserting its row or moving it to a new frame.
+  * Pages of other processes are ignored.
+  * @param pPid is the PID of the process.
+  * @param page is the page.
+  * @param frame is its frame.
+  *******************************************************/
+  public void insert ( int pPid, int page, int frame ) {
+    if ( pPid != this.pid ) {
+      return;
+    }
+    int row = java.util.Arrays.binarySearch(this.pages, 0, this.size, page);
+    if ( row >= 0 ) {
+      this.frames[row] = frame;
+      fireContentsChanged(this, row, row);
+      return;
+    }
+    row = -row - 1;
+    ensureCapacity(this.size + 1);
+    System.arraycopy(this.pages, row, this.pages, row + 1, this.size - row);
+    System.arraycopy(this.frames, row, this.frames, row + 1, this.size - row);
+    this.pages[row] = page;
+    this.frames[row] = frame;
+    this.size++;
+    fireIntervalAdded(this, row, row);
+  }
+
+  /*******************************************************
+  * Records that a page of the shown process was unmapped.
+  * Pages of other processes are ignored.
+  * @param pPid is the PID of the process.
+  * @param page is the page.
+  *******************************************************/
+  public void remove ( int pPid, int page ) {
+    if ( pPid != this.pid ) {
+      return;
+    }
+    int row = java.util.Arrays.binarySearch(this.pages, 0, this.size, page);
+    if ( row < 0 ) {
+      return;
+    }
+    System.arraycopy(this.pages, row + 1, this.pages, row, this.size - row - 1);
+    System.arraycopy(this.frames, row + 1, this.frames, row, this.size - row - 1);
+    this.size--;
+    fireIntervalRemoved(this, row, row);
+  }
+
+  /*******************************************************
+  * Empties the rows if the shown process exited. A later
+  * process with the same PID starts out empty.
+  * @param pPid is the PID of the process.
+  *******************************************************/
+  public void clear ( int pPid ) {
+    if ( pPid == this.pid && this.size > 0 ) {
+      int oldSize = this.size;
+      this.size = 0;
+      fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+  }
+
+  /*******************************************
+  * Reports the process shown, -1 for none.
+  * @return the PID.
+  *******************************************/
+  public int getPID () {
+    return this.pid;
+  }
+
+  /*******************************************
+  * Reports the page in a row.
+  * @return the page number.
+  *******************************************/
+  public int pageAt ( int row ) {
+    return this.pages[row];
+  }
+
+  /*******************************************
+  * Reports the frame in a row.
+  * @return the frame number.
+  *******************************************/
+  public int frameAt ( int row ) {
+    return this.frames[row];
+  }
+
+  @Override
+  public int getSize () {
+    return this.size;
+  }
+
+  @Override
+  public String getElementAt ( int row ) {
+    return "Page " + this.pages[row] + " -----> " + "Frame " + this.frames[row];
+  }
+
+  /*********************************************
+  * Grows the arrays to hold at least n rows.
+  *********************************************/
+  private void ensureCapacity ( int n ) {
+    if ( n > this.pages.length ) {
+      int length = Math.max(n, this.pages.length * 2);
+      this.pages = java.util.Arrays.copyOf(this.pages, length);
+      this.frames = java.util.Arrays.copyOf(this.frames, length);
+    }
+  }
+
+  /*********************************************
+  * Sorts the first n rows by page: small tables
+  * pack each row into a long for a primitive
+  * sort, and large ones take two passes of a
+  * 16-bit radix sort, which stays fast for the
+  * millions of rows of a large resident set.
+  *********************************************/
+  private void sortRows ( int n ) {
+    int i;
+    if ( n < RADIX ) {
+      long [] rows = new long [n];
+      for ( i = 0; i < n; i++ ) {
+        rows[i] = ((long) this.pages[i] << 32) | (this.frames[i] & 0xFFFFFFFFL);
+      }
+      java.util.Arrays.sort(rows);
+      for ( i = 0; i < n; i++ ) {
+        this.pages[i] = (int) (rows[i] >>> 32);
+        this.frames[i] = (int) rows[i];
+      }
+      return;
+    }
+    int [] pageBuffer = new int [n];
+    int [] frameBuffer = new int [n];
+    int [] counts = new int [RADIX + 1];
+    int shift;
+    for ( shift = 0; shift < 32; shift += 16 ) {
+      int [] fromPages = shift == 0 ? this.pages : pageBuffer;
+      int [] fromFrames = shift == 0 ? this.frames : frameBuffer;
+      int [] toPages = shift == 0 ? pageBuffer : this.pages;
+      int [] toFrames = shift == 0 ? frameBuffer : this.frames;
+      java.util.Arrays.fill(counts, 0);
+      for ( i = 0; i < n; i++ ) {
+        counts[((fromPages[i] >>> shift) & (RADIX - 1)) + 1]++;
+      }
+      for ( i = 0; i < RADIX; i++ ) {
+        counts[i + 1] += counts[i];
+      }
+      for ( i = 0; i < n; i++ ) {
+        int at = counts[(fromPages[i] >>> shift) & (RADIX - 1)]++;
+        toPages[at] = fromPages[i];
+        toFrames[at] = fromFrames[i];
+      }
+    }
+  }
+}
@@ -1,13 +1,20 @@
-import java.util.Hashtable;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
 import java.awt.Font;
 import java.awt.Color;
+import java.awt.BorderLayout;
 import javax.swing.SwingConstants;
-import javax.swing.BoxLayout;
 /*************************************************
 * The panel for the page table of a process.
 * Displays the current state of the page table.
+* The rows come from a PageTableModel in a JList
+* with fixed-size cells, so the list only ever
+* measures and draws the rows that are visible.
+* The model is rebuilt when the panel switches to
+* another process and otherwise takes one insert
+* or remove per page mapped or unmapped.
 * @author Gloire Rubambiza
 * @since 11/22/2017
 **************************************************/
@@ -28,87 +35,111 @@ public class PageTableStatePanel extends JPanel {
   private static final java.awt.Color LAKER_BLUE =
   new java.awt.Color(0, 101, 164);
 
-  /** The panel for the current page table state. */
-  private JPanel pageTableStatePanel;
+  /** The widest row the list is sized for. */
+  private static final String PROTOTYPE_ROW = "Page 0000000 -----> Frame 000000000";
 
-  /** The array  of page/frame pairs. */
-  private JLabel [] pairs;
+  /** The page/frame pairs of the process shown. */
+  private PageTableModel pairs;
 
-  /** The label for the page table. **/
-  private static JLabel pidLabel;
+  /** The list drawing the visible pairs. */
+  private JList<String> list;
 
-  /** The max size of a page table. **/
-  private final static int max  = 64;
+  /** The label for the page table. **/
+  private JLabel pidLabel;
 
   /***************************************
   * Instantiates the page table state panel.
+  * @param maxResident is the most pages a process can have resident.
   ****************************************/
-  public PageTableStatePanel () {
+  public PageTableStatePanel ( int maxResident ) {
 
-    super();
+    super(new BorderLayout());
 
     // Create the main components
-    int i;
-    pageTableStatePanel = new JPanel();
     pidLabel = new JLabel("<html>Process Table: P<br>", SwingConstants.CENTER);
-    pairs = new JLabel[max];
+    pairs = new PageTableModel(maxResident);
+    list = new JList<String>(pairs);
 
     // Add and customize the components
-    add(pidLabel);
     pidLabel.setFont(HEADER_FONT);
     pidLabel.setBackground(LAKER_BLUE);
-    for ( i = 0 ; i < max ; i++ ) {
-      pairs[i] = new JLabel("", SwingConstants.CENTER);
-      setStandards(pairs[i]);
-      add(pairs[i]);
-    }
-
-    // Define the layout i.e. everything will be dropped into a box.
-    setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
+    list.setFont(NORMAL_FONT);
+    list.setPrototypeCellValue(PROTOTYPE_ROW);
+    list.setFocusable(false);
+    ((javax.swing.DefaultListCellRenderer) list.getCellRenderer())
+    .setHorizontalAlignment(SwingConstants.CENTER);
+    JScrollPane scroll = new JScrollPane(list);
+    scroll.setBorder(null);
+    scroll.getViewport().setBackground(Color.WHITE);
+
+    add(pidLabel, BorderLayout.NORTH);
+    add(scroll, BorderLayout.CENTER);
 
     setVisible(true);
   }
 
   /****************************************************
-  * Builds a page table based on the size of the table.
+  * Switches to a process, rebuilding the rows from its
+  * page table. Does nothing if the process is already
+  * shown, since its rows are kept up to date by the
+  * per-page updates.
   * @param table is the page table for the process.
   * @param pid is the PID of the process.
   ****************************************************/
-  public void redrawTable ( Hashtable<Integer,Integer> table, int pid ) {
+  public void showTable ( PageTableView table, int pid ) {
+    if ( pid != pairs.getPID() ) {
+      redrawTable(table, pid);
+    }
+  }
+
+  /****************************************************
+  * Rebuilds the rows from a process' page table.
+  * @param table is the page table, null for none.
+  * @param pid is the PID of the process.
+  ****************************************************/
+  public void redrawTable ( PageTableView table, int pid ) {
 
     // Relabel the page table
     pidLabel.setText("Process Table: P" + pid );
 
-    // Reset the text
-    resetText();
-
-    // Build the table based on size
-    int counter = 0;
-    for ( Integer key : table.keySet() ) {
-      String onePair = "Page " + key + " -----> " + "Frame " + table.get(key);
-      pairs[counter].setText(onePair);
-      counter++;
+    pairs.load(table, pid);
+    if ( pairs.getSize() > 0 ) {
+      list.ensureIndexIsVisible(0);
     }
   }
 
   /****************************************************
-  * Resets the text in all the labels of the table.
-  * This ensures any changes made by a page table that
-  * was bigger than the current one are not kept on the
-  * panel.
+  * Adds a page to the rows if its process is shown.
+  * @param pid is the PID of the process.
+  * @param page is the page that was mapped.
+  * @param frame is the frame it was mapped to.
   ****************************************************/
-  private void resetText () {
-    int i;
-    for ( i = 0; i < max; i++ ) {
-      pairs[i].setText("");
-    }
+  public void pageMapped ( int pid, int page, int frame ) {
+    pairs.insert(pid, page, frame);
   }
 
-  /********************************************
-  * Sets some aesthetics for the panel.
-  * @param field is the label to be customized
-  ********************************************/
-  private void setStandards ( JLabel field) {
-    field.setFont(NORMAL_FONT);
+  /****************************************************
+  * Drops a page from the rows if its process is shown.
+  * @param pid is the PID of the process.
+  * @param page is the page that was unmapped.
+  ****************************************************/
+  public void pageUnmapped ( int pid, int page ) {
+    pairs.remove(pid, page);
+  }
+
+  /****************************************************
+  * Empties the rows if the exiting process is shown.
+  * @param pid is the PID of the process.
+  ****************************************************/
+  public void processExited ( int pid ) {
+    pairs.clear(pid);
+  }
+
+  /****************************************************
+  * Reports the process shown, -1 for none.
+  * @return the PID.
+  ****************************************************/
+  public int getPID () {
+    return pairs.getPID();
   }
 }
@@ -0,0 +1,42 @@
+/*************************************************************
+* A read-only view of a process' page table.
+* Entries are walked by slot without allocating: for each slot
+* below slots(), pageAt(slot) is the page stored there or -1
+* for an empty slot, and frameAt(slot) is its frame.
+* @since 10/18/2026
+*************************************************************/
+public interface PageTableView {
+
+  /*********************************************
+  * Looks up the frame holding a page.
+  * @param page is the page number.
+  * @return the frame, -1 if not resident.
+  *********************************************/
+  int get ( int page );
+
+  /*********************************************
+  * Reports the number of resident pages.
+  * @return the page count.
+  *********************************************/
+  int size ();
+
+  /*********************************************
+  * Reports the number of slots to walk.
+  * @return the slot count.
+  *********************************************/
+  int slots ();
+
+  /*********************************************
+  * Reports the page stored in a slot.
+  * @param slot is a slot below slots().
+  * @return the page, -1 for an empty slot.
+  *********************************************/
+  int pageAt ( int slot );
+
+  /*********************************************
+  * Reports the frame stored in a slot.
+  * @param slot is a slot holding a page.
+  * @return the frame of that page.
+  *********************************************/
+  int frameAt ( int slot );
+}
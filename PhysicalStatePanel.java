@@ -1,16 +1,19 @@
 import javax.swing.JPanel;
 import javax.swing.JLabel;
+import javax.swing.JComboBox;
+import javax.swing.JScrollBar;
 import javax.swing.SwingConstants;
-import javax.swing.BoxLayout;
-import javax.swing.BorderFactory;
-import javax.swing.border.Border;
 
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.BorderLayout;
 /*************************************************
 * The panel for the current physical memory state.
-* Displays the current state of the frame table.
+* Displays the current state of the frame table in
+* a virtualized FrameGrid, so only the frames on
+* screen are drawn however large memory is. A scroll
+* bar moves through the rows, and the zoom box goes
+* from a line of text per frame down to one pixel.
 * @author Gloire Rubambiza
 * @since 11/20/2017
 **************************************************/
@@ -19,18 +22,25 @@ public class PhysicalStatePanel extends JPanel {
   /** Objects of the class are now serializable. */
   private static final long serialVersionUID = 1L;
 
-  /** A panel for the current physical state. */
-  private JPanel physicalStatePanel;
+  /** The zoom levels offered, matching FrameGrid.CELL_SIZES. */
+  private static final String [] ZOOM_LEVELS =
+  {"Rows", "16 px", "8 px", "4 px", "2 px", "1 px"};
 
-  /** An array of PID/page pairs. */
-  private JLabel [] pairs;
+  /** The rows scrolled by one notch of the mouse wheel. */
+  private static final int WHEEL_ROWS = 3;
+
+  /** The view of the frames. */
+  private FrameGrid grid;
+
+  /** The scroll bar over the rows of the grid. */
+  private JScrollBar scroll;
+
+  /** The zoom level chooser. */
+  private JComboBox<String> zoom;
 
   /** The label for the frame table **/
   private JLabel pageState;
 
-  /** The number of rows in the frame table. */
-  private int rowMax = 16;
-
   /** The font for most text in the GUI. */
   private static final Font NORMAL_FONT =
   new Font("Cooper Black", Font.PLAIN, 14);
@@ -39,10 +49,6 @@ public class PhysicalStatePanel extends JPanel {
   private static final Font HEADER_FONT =
   new Font("Cooper Black", Font.BOLD, 20);
 
-  /** Creates a border constant. */
-  private static final Border CREATE_EMPTY_BORDER =
-  BorderFactory.createEmptyBorder(3, 3, 3, 3);
-
   /** The GV blue color. */
   private static final java.awt.Color LAKER_BLUE =
   new java.awt.Color(0, 101, 164);
@@ -57,87 +63,76 @@ public class PhysicalStatePanel extends JPanel {
 
   /***************************************
   * Instantiates the physical state panel.
+  * Small memories start as text rows and
+  * larger ones zoomed out.
+  * @param frames is the number of frames in memory.
   ****************************************/
-  public PhysicalStatePanel () {
+  public PhysicalStatePanel ( int frames ) {
 
     super();
 
     // Create the objects.
-    physicalStatePanel = new JPanel();
     String title = "<html>Physical Memory State<br>";
     pageState = new JLabel(title, SwingConstants.CENTER);
-
-    // Set the layout to drop everything into a box.
-    setLayout(new BoxLayout(this, BoxLayout.PAGE_AXIS));
+    int level = frames <= 64 ? 0 : frames <= 65536 ? 3 : ZOOM_LEVELS.length - 1;
+    grid = new FrameGrid(frames, level);
+    grid.setBackground(LAKER_BLUE);
+    scroll = new JScrollBar(JScrollBar.VERTICAL);
+    zoom = new JComboBox<String>(ZOOM_LEVELS);
+    zoom.setSelectedIndex(level);
+    zoom.setFont(NORMAL_FONT);
+
+    // Keep the scroll bar, the wheel and the zoom box in step with the grid.
+    grid.setLayoutListener(() -> syncScrollBar());
+    scroll.addAdjustmentListener(e -> grid.setFirstRow(e.getValue()));
+    grid.addMouseWheelListener(e ->
+    scroll.setValue(scroll.getValue() + e.getWheelRotation() * WHEEL_ROWS));
+    zoom.addActionListener(e -> grid.setZoom(zoom.getSelectedIndex()));
+
+    // Header on top, the grid and its scroll bar below.
+    setLayout(new BorderLayout());
+    add(pageState, BorderLayout.NORTH);
+    add(grid, BorderLayout.CENTER);
+    add(scroll, BorderLayout.EAST);
+    add(zoom, BorderLayout.SOUTH);
 
     // Customize the header.
-    add(pageState);
     pageState.setBackground(LAKER_BLUE);
     pageState.setFont(HEADER_FONT);
 
-    pairs = new JLabel[rowMax];
-    int i;
-    for ( i = 0; i < rowMax; i++ ) {
-      pairs[i] = new JLabel("", SwingConstants.CENTER);
-      setStandards(pairs[i]);
-      add(pairs[i]);
-    }
-
     setVisible(true);
   }
 
   /***********************************************
   * Repaints the frame table as new changes occur.
+  * Only visible frames that changed are redrawn.
   * @param table is the frame table.
   * @param fault is the kind of fault.
   * @param frame is frame that potentiall needs to be
   * colored for the user.
   ************************************************/
-  public void redrawTable ( Frame[] table, boolean fault, int frame ) {
-
-    // Repaint the frame table
-    resetFont(pairs);
-    int i;
-    for ( i = 0; i < rowMax; i++ ) {
-      int pid = table[i].getPID();
-      int page = table[i].getPage();
-      String display = "Frame " + i + " P" + pid + "  Page " + page;
-      pairs[i].setText(display);
-
-      //Set the color based on the process number.
-      pairs[i].setForeground( customizeFont(pid) );
-    }
-    if ( fault ) { // A hard fault occured
-      pairs[frame].setForeground(Color.RED);
-    }
-  }
-
-  /********************************************
-  * Sets some aesthetics for the panel.
-  * @param field is the label to be customized
-  ********************************************/
-  private void setStandards ( JLabel field) {
-    field.setFont(NORMAL_FONT);
-    field.setBorder(CREATE_EMPTY_BORDER);
+  public void redrawTable ( FrameTableView table, boolean fault, int frame ) {
+    grid.redraw(table, fault ? frame : -1);
   }
 
-  /*******************************************
-  * Resets the font all the frames.
-  * @param fArray is the array of frame labels.
-  ********************************************/
-  private void resetFont ( JLabel [] fArray ) {
-    int i;
-    for ( i = 0; i < rowMax; i++ ) {
-      fArray[i].setForeground(Color.BLACK);
-    }
+  /***********************************************
+  * Fits the scroll bar to the grid's rows.
+  ************************************************/
+  private void syncScrollBar () {
+    int visible = grid.getVisibleRows();
+    int rows = Math.max(grid.getRowCount(), visible);
+    int first = Math.min(grid.getFirstRow(), rows - visible);
+    scroll.setValues(first, visible, 0, rows);
+    scroll.setBlockIncrement(visible);
   }
 
   /**************************************
   * Customizes the font of the label based
   * on the process number.
   * @param pid is the process id.
+  * @return the colour of the process.
   ***************************************/
-  private Color customizeFont( int pid ) {
+  static Color customizeFont( int pid ) {
     Color myColor = Color.BLACK;
     switch ( pid ) {
       case 1: myColor = LIGHT_GOLD;
@@ -0,0 +1,59 @@
+import java.io.IOException;
+
+import java.util.Random;
+/*****************************************************************
+* Builds replacement policies by name, for the command line and
+* the vimpares.policy property. OPT has to see the whole trace
+* first, so it is only built by the overload taking the trace.
+* @since 10/18/2026
+*****************************************************************/
+public class Policies {
+
+  /** The names accepted by create. */
+  public static final String [] NAMES = {"lru", "fifo", "clock", "lfu", "random", "opt"};
+
+  /*****************************************************
+  * Creates a policy.
+  * @param name is the policy name, in any case.
+  * @param frames is the number of frames.
+  * @param rnd drives random choices, e.g. random victims.
+  * @return the policy.
+  * @throws IllegalArgumentException for an unknown name, or
+  * for OPT, which needs the trace.
+  *****************************************************/
+  public static ReplacementPolicy create ( String name, int frames, Random rnd ) {
+    switch ( name.toLowerCase() ) {
+      case "lru": return new LRUPolicy(frames);
+      case "fifo": return new FIFOPolicy(frames);
+      case "clock": return new ClockPolicy(frames);
+      case "lfu": return new LFUPolicy(frames);
+      case "random": return new RandomPolicy(frames, rnd);
+      case "opt": throw new IllegalArgumentException("OPT needs a trace file to read ahead");
+      default: throw new IllegalArgumentException("Unknown policy " + name);
+    }
+  }
+
+  /*****************************************************
+  * Creates a policy for a trace, reading the trace
+  * ahead first if the policy is OPT.
+  * @param name is the policy name, in any case.
+  * @param geometry is the memory geometry to simulate.
+  * @param rnd drives random choices, e.g. random victims.
+  * @param trace is the trace file that will be simulated.
+  * @return the policy.
+  * @throws IOException if OPT cannot read the trace.
+  * @throws IllegalArgumentException for an unknown name, or
+  * for OPT on standard input, which cannot be read twice.
+  *****************************************************/
+  public static ReplacementPolicy create ( String name, Geometry geometry, Random rnd,
+  String trace ) throws IOException {
+    if ( !name.equalsIgnoreCase("opt") ) {
+      return create(name, geometry.getFrames(), rnd);
+    }
+    if ( trace.equals("-") ) {
+      throw new IllegalArgumentException("OPT cannot read standard input ahead");
+    }
+    NextUseIndex index = NextUseIndex.build(Main.openInput(trace, geometry));
+    return new OPTPolicy(geometry.getFrames(), index);
+  }
+}
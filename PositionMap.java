@@ -0,0 +1,105 @@
+/******************************************************************
+* A growable map from packed process/page keys to trace positions.
+* It is a LongKeyMap with long values, which grows as pages are
+* first seen, since a trace may touch far more pages than there are
+* frames. Slots can be walked and their positions rewritten in
+* place, e.g. to renumber them.
+* @since 10/18/2026
+******************************************************************/
+public class PositionMap {
+
+  /** The position reported for a key that is not mapped. */
+  public static final long ABSENT = -1L;
+
+  /** The position of each key. */
+  private LongKeyMap positions;
+
+  /*******************************************
+  * Instantiates an empty map.
+  *******************************************/
+  public PositionMap () {
+    this.positions = new LongKeyMap(1024, true);
+  }
+
+  /*************************************************
+  * Records a new position for a key.
+  * @param key is the packed process/page key.
+  * @param position is the new position.
+  * @return the position it replaced, ABSENT if none.
+  *************************************************/
+  public long swap ( long key, long position ) {
+    int size = this.positions.size();
+    int slot = this.positions.add(key);
+    long old = this.positions.size() == size ? this.positions.longAt(slot) : ABSENT;
+    this.positions.setLongAt(slot, position);
+    return old;
+  }
+
+  /*************************************************
+  * Looks up the position of a key.
+  * @param key is the packed process/page key.
+  * @return its position, ABSENT if it is not mapped.
+  *************************************************/
+  public long get ( long key ) {
+    int slot = this.positions.find(key);
+    return slot < 0 ? ABSENT : this.positions.longAt(slot);
+  }
+
+  /*************************************************
+  * Forgets a key.
+  * @param key is the packed process/page key.
+  * @return its position, ABSENT if it was not mapped.
+  *************************************************/
+  public long remove ( long key ) {
+    int slot = this.positions.find(key);
+    if ( slot < 0 ) {
+      return ABSENT;
+    }
+    long old = this.positions.longAt(slot);
+    this.positions.removeAt(slot);
+    return old;
+  }
+
+  /*******************************************
+  * Reports the number of mapped keys.
+  * @return the size of the map.
+  *******************************************/
+  public int size () {
+    return this.positions.size();
+  }
+
+  /*******************************************
+  * Reports the number of slots to walk.
+  * @return the slot count.
+  *******************************************/
+  public int slots () {
+    return this.positions.slots();
+  }
+
+  /*******************************************
+  * Reports whether a slot holds a key.
+  * @param slot is the slot number.
+  * @return true if the slot is in use.
+  *******************************************/
+  public boolean isUsed ( int slot ) {
+    return this.positions.keyAt(slot) != LongKeyMap.EMPTY;
+  }
+
+  /*******************************************
+  * Reports the position stored in a slot.
+  * @param slot is a used slot.
+  * @return the position.
+  *******************************************/
+  public long positionAt ( int slot ) {
+    return this.positions.longAt(slot);
+  }
+
+  /*******************************************
+  * Rewrites the position stored in a slot.
+  * @param slot is a used slot.
+  * @param position is the new position.
+  *******************************************/
+  public void setPositionAt ( int slot, long position ) {
+    this.positions.setLongAt(slot, position);
+  }
+}
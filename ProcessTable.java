@@ -1,30 +1,42 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 /******************************************************************
 * A process table data structure
-* Keeps track of 10 processes currently running in the background.
+* Keeps track of the processes currently running in the background.
+* PCBs are created on demand, the first time a PID makes a
+* reference, and found through a LongKeyMap from PID to their place
+* in the list of live PCBs, so lookups cost a probe or two however
+* many processes come and go. A process that exits leaves the
+* table and only its counts are kept, added to the totals of its
+* PID for the final stats; a later reference with the same PID
+* starts a new process.
 * @author Gloire Rubambiza
 * @since 11/12/2017
 ******************************************************************/
 public class ProcessTable {
 
-  /** The array of PCBs in the ready and running states. */
-  private PCB [] pcbTable;
+  /** The place of each live PID in the live list. */
+  private LongKeyMap places;
 
-  /** The max amount of PCBs to be created. */
-  private int max = 10;
+  /** The PCBs of the live processes. */
+  private java.util.ArrayList<PCB> live;
+
+  /** The counts of the exited processes, totalled by PID. */
+  private java.util.TreeMap<Integer, PCB> exited;
+
+  /** The size of the address space of each process. */
+  private int pagesPerProcess;
 
   /*************************************************
-  * Instantiates an array of 10 PCBs to start with.
-  * Initializes all the PCBs with null page tables
+  * Instantiates an empty process table sized for
+  * the expected number of processes.
+  * @param geometry is the memory geometry to simulate.
   ************************************************/
-  public ProcessTable () {
-    this.pcbTable = new PCB [max];
-    int i, j = 1;
-
-    // Creates each new PCB
-    for ( i = 0; i < max; i++ ) {
-      this.pcbTable[i] = new PCB (j);
-      j++;
-    }
+  public ProcessTable ( Geometry geometry ) {
+    this.pagesPerProcess = geometry.getPagesPerProcess();
+    this.exited = new java.util.TreeMap<Integer, PCB>();
+    allocate(Integer.highestOneBit(Math.max(8, geometry.getProcesses()) * 2 - 1) << 1);
   }
 
   /************************************************************
@@ -32,15 +44,9 @@ public class ProcessTable {
   * @param inTable tells where the page is being added/replaced
   * @param pid is the PID of the process.
   * @param page is the page to be added/replaced in the table.
-  * @return true if the update was successful, false otherwise.
   *************************************************************/
   public void updatePCB(boolean inTable, int pid, int page, int frame) {
-    int i;
-    for ( i = 0; i < 10; i++ ) {
-      if ( this.pcbTable[i].getPID() == pid ) {
-        this.pcbTable[i].updateTable(inTable, page, frame);
-      }
-    }
+    lookup(pid).updateTable(inTable, page, frame);
   }
 
   /***********************************************
@@ -48,12 +54,7 @@ public class ProcessTable {
   * @param pid is the PID of the process.
   ***********************************************/
   public void updatePCBRefCount ( int pid ) {
-    int i;
-    for ( i = 0; i < max; i++ ) {
-      if ( this.pcbTable[i].getPID() == pid ) {
-        this.pcbTable[i].updateRefCount();
-      }
-    }
+    lookup(pid).updateRefCount();
   }
 
   /***********************************************
@@ -61,12 +62,74 @@ public class ProcessTable {
   * @param pid is the PID of the process.
   ***********************************************/
   public void updatePCBFaultCount ( int pid ) {
-    int i;
-    for ( i = 0; i < max; i++ ) {
-      if ( this.pcbTable[i].getPID() == pid ) {
-        this.pcbTable[i].updateFaults();
-      }
+    lookup(pid).updateFaults();
+  }
+
+  /*******************************************************
+  * Finds the PCB of a live process, creating it if this
+  * is the first reference of the PID.
+  * @param pid is the PID of the process.
+  * @return the PCB.
+  *******************************************************/
+  public PCB lookup ( int pid ) {
+    int slot = this.places.find(pid);
+    if ( slot >= 0 ) {
+      return this.live.get(this.places.intAt(slot));
+    }
+    if ( pid <= 0 ) {
+      throw new IllegalArgumentException("PIDs start at 1");
     }
+    PCB pcb = new PCB(pid, this.pagesPerProcess);
+    this.places.setIntAt(this.places.add(pid), this.live.size());
+    this.live.add(pcb);
+    return pcb;
+  }
+
+  /*******************************************************
+  * Finds the PCB of a live process without creating one.
+  * @param pid is the PID of the process.
+  * @return the PCB, null if the process is not running.
+  *******************************************************/
+  public PCB find ( int pid ) {
+    int slot = this.places.find(pid);
+    return slot < 0 ? null : this.live.get(this.places.intAt(slot));
+  }
+
+  /*******************************************************
+  * Takes an exiting process out of the table. Its counts
+  * are added to the totals of its PID for the final stats.
+  * @param pid is the PID of the process.
+  * @return the PCB, null if the process is not running.
+  *******************************************************/
+  public PCB remove ( int pid ) {
+    int slot = this.places.find(pid);
+    if ( slot < 0 ) {
+      return null;
+    }
+    int place = this.places.intAt(slot);
+    this.places.removeAt(slot);
+    PCB pcb = this.live.get(place);
+    // Fill the hole with the last live PCB.
+    PCB last = this.live.remove(this.live.size() - 1);
+    if ( last != pcb ) {
+      this.live.set(place, last);
+      this.places.setIntAt(this.places.find(last.getPID()), place);
+    }
+    PCB total = this.exited.get(pid);
+    if ( total == null ) {
+      total = new PCB(pid, 0);
+      this.exited.put(pid, total);
+    }
+    total.addCounts(pcb.getTotalReferences(), pcb.getTotalPageFaults());
+    return pcb;
+  }
+
+  /*******************************************
+  * Reports the number of live processes.
+  * @return the process count.
+  *******************************************/
+  public int size () {
+    return this.live.size();
   }
 
   /********************************************************
@@ -75,11 +138,9 @@ public class ProcessTable {
   *********************************************************/
   public void printPageTable( int pid ) {
     System.out.println("Page Table : Process " + pid);
-    int i;
-    for ( i = 0; i < max; i++ ) {
-      if ( this.pcbTable[i].getPID() == pid ) {
-        this.pcbTable[i].printTable();
-      }
+    PCB pcb = find(pid);
+    if ( pcb != null ) {
+      pcb.printTable();
     }
     System.out.println();
   }
@@ -91,21 +152,91 @@ public class ProcessTable {
     System.out.println("-------------------------------------------------");
     System.out.println("Final Stats\n");
     System.out.println("Proc   Refs  Faults");
+    PCB [] pcbs = getPCBArray();
     int i = 0;
 
-    for (i = 0; i < max; i++) {
-      int pid = this.pcbTable[i].getPID();
-      int totalRefs = this.pcbTable[i].getTotalReferences();
-      int totalFaults = this.pcbTable[i].getTotalPageFaults();
+    for (i = 0; i < pcbs.length; i++) {
+      int pid = pcbs[i].getPID();
+      long totalRefs = pcbs[i].getTotalReferences();
+      long totalFaults = pcbs[i].getTotalPageFaults();
       System.out.println(pid + "\t" + totalRefs + "\t" + totalFaults);
     }
   }
 
-  /*******************************************
-  * Returns a reference to the array of PCBs.
+  /*******************************************************
+  * Returns one PCB per PID seen so far, ordered by PID.
+  * A PID whose processes exited, or that was reused, gets
+  * a PCB holding the counts of all its processes.
   * @return an array of PCBs.
-  ********************************************/
+  *******************************************************/
   public PCB [] getPCBArray () {
-    return this.pcbTable;
+    java.util.TreeMap<Integer, PCB> byPid = new java.util.TreeMap<Integer, PCB>();
+    for ( PCB done : this.exited.values() ) {
+      PCB total = new PCB(done.getPID(), 0);
+      total.addCounts(done.getTotalReferences(), done.getTotalPageFaults());
+      byPid.put(done.getPID(), total);
+    }
+    for ( PCB pcb : this.live ) {
+      PCB total = byPid.get(pcb.getPID());
+      if ( total == null ) {
+        byPid.put(pcb.getPID(), pcb);
+      } else {
+        total.addCounts(pcb.getTotalReferences(), pcb.getTotalPageFaults());
+      }
+    }
+    return byPid.values().toArray(new PCB [0]);
+  }
+
+  /*******************************************************
+  * Writes the live PCBs and the counts of the exited
+  * processes for a checkpoint.
+  * @param out is where the table is written.
+  * @throws IOException if it cannot be written.
+  *******************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(this.places.slots());
+    out.writeInt(this.live.size());
+    for ( PCB pcb : this.live ) {
+      pcb.saveState(out);
+    }
+    out.writeInt(this.exited.size());
+    for ( PCB total : this.exited.values() ) {
+      out.writeInt(total.getPID());
+      out.writeLong(total.getTotalReferences());
+      out.writeLong(total.getTotalPageFaults());
+    }
+  }
+
+  /*******************************************************
+  * Replaces every PCB with those written by saveState.
+  * @param in is where the table is read from.
+  * @throws IOException if it cannot be read.
+  *******************************************************/
+  public void restoreState ( DataInput in ) throws IOException {
+    allocate(in.readInt());
+    int n = in.readInt();
+    int i;
+    for ( i = 0; i < n; i++ ) {
+      PCB pcb = PCB.readState(in);
+      this.places.setIntAt(this.places.add(pcb.getPID()), this.live.size());
+      this.live.add(pcb);
+    }
+    n = in.readInt();
+    this.exited = new java.util.TreeMap<Integer, PCB>();
+    for ( i = 0; i < n; i++ ) {
+      PCB total = new PCB(in.readInt(), 0);
+      total.addCounts(in.readLong(), in.readLong());
+      this.exited.put(total.getPID(), total);
+    }
+  }
+
+  /*********************************************
+  * Empties the table.
+  * @param capacity is the number of hash slots, a
+  * power of two.
+  *********************************************/
+  private void allocate ( int capacity ) {
+    this.places = new LongKeyMap(capacity, false);
+    this.live = new java.util.ArrayList<PCB>();
   }
 }
@@ -0,0 +1,101 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.util.Random;
+/*****************************************************************
+* Random replacement.
+* Resident frames are kept in a dense array with each frame's
+* position alongside, so a uniformly random victim is picked and
+* removed in O(1) by swapping in the last entry. Both arrays are
+* IntStores, so they can live off the heap.
+* @since 10/18/2026
+*****************************************************************/
+public class RandomPolicy implements ReplacementPolicy {
+
+  /** The resident frames, packed at the front. */
+  private IntStore frames;
+
+  /** The position of each frame in frames, -1 if absent. */
+  private IntStore position;
+
+  /** The number of resident frames. */
+  private int count;
+
+  /** The seedable generator picking victims. */
+  private Random rnd;
+
+  /*******************************************
+  * Instantiates the policy.
+  * @param pFrames is the number of frames.
+  * @param pRnd picks the victims.
+  *******************************************/
+  public RandomPolicy ( int pFrames, Random pRnd ) {
+    this.frames = new IntStore(pFrames);
+    this.position = new IntStore(pFrames);
+    this.rnd = pRnd;
+    this.position.fill(-1);
+  }
+
+  @Override
+  public void frameHit ( int frame ) {
+    // Hits carry no information for random replacement.
+  }
+
+  @Override
+  public void frameLoaded ( int frame ) {
+    if ( position.get(frame) < 0 ) {
+      position.set(frame, count);
+      frames.set(count++, frame);
+    }
+  }
+
+  @Override
+  public int pickVictim () {
+    if ( count == 0 ) {
+      return -1;
+    }
+    int vic = frames.get(rnd.nextInt(count));
+    frameReleased(vic);
+    return vic;
+  }
+
+  @Override
+  public void frameReleased ( int frame ) {
+    int at = position.get(frame);
+    if ( at < 0 ) {
+      return;
+    }
+    int last = frames.get(--count);
+    frames.set(at, last);
+    position.set(last, at);
+    position.set(frame, -1);
+  }
+
+  @Override
+  public String getName () {
+    return "Random";
+  }
+
+  @Override
+  public void saveState ( DataOutput out ) throws IOException {
+    out.writeInt(count);
+    int i;
+    for ( i = 0; i < count; i++ ) {
+      out.writeInt(frames.get(i));
+    }
+    Checkpoint.writeRandom(out, rnd);
+  }
+
+  @Override
+  public void restoreState ( DataInput in ) throws IOException {
+    position.fill(-1);
+    count = in.readInt();
+    int i;
+    for ( i = 0; i < count; i++ ) {
+      frames.set(i, in.readInt());
+      position.set(frames.get(i), i);
+    }
+    rnd = Checkpoint.readRandom(in);
+  }
+}
@@ -0,0 +1,75 @@
+import java.io.IOException;
+/***************************************************************
+* A stream of memory references the engine pulls from.
+* Sources hand out one reference at a time and keep no history,
+* so memory use does not depend on the length of the trace.
+* Call next() to advance, then read the pid() and page() of the
+* reference it landed on. A page() of EXIT marks a record saying
+* process pid() exited rather than a reference.
+* @since 10/18/2026
+***************************************************************/
+public interface ReferenceSource {
+
+  /** The page of a record saying the process exited. */
+  int EXIT = -1;
+
+  /************************************************
+  * Advances to the next reference.
+  * Keeps returning false once the input is done.
+  * @return true if there is a reference, false at
+  * the end of input.
+  * @throws IOException if the input cannot be read.
+  ************************************************/
+  boolean next () throws IOException;
+
+  /************************************************
+  * Reports the process of the current reference.
+  * @return the PID.
+  ************************************************/
+  int pid ();
+
+  /************************************************
+  * Reports the page of the current reference.
+  * @return the page number, or EXIT.
+  ************************************************/
+  int page ();
+
+  /************************************************
+  * Reports how far through the input the source
+  * is, for progress displays.
+  * @return a fraction from 0 to 1, or -1 if the
+  * length of the input is not known.
+  ************************************************/
+  default double progress () {
+    return -1;
+  }
+
+  /************************************************
+  * Reports where the next record starts, so that a
+  * later seek() resumes reading right after the
+  * current reference. Offsets are only meaningful
+  * to the source that reported them.
+  * @return the offset, or -1 if the source cannot
+  * seek.
+  ************************************************/
+  default long offset () {
+    return -1;
+  }
+
+  /************************************************
+  * Moves to an offset reported by offset(), so the
+  * next call to next() reads the record there.
+  * @param offset is the offset to read from.
+  * @throws IOException if the source cannot seek
+  * or the offset is outside the input.
+  ************************************************/
+  default void seek ( long offset ) throws IOException {
+    throw new IOException("This input cannot seek");
+  }
+
+  /************************************************
+  * Releases the underlying file or buffer.
+  * @throws IOException if it cannot be closed.
+  ************************************************/
+  void close () throws IOException;
+}
@@ -0,0 +1,63 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+/*****************************************************************
+* Decides which frame to vacate when a page fault finds memory
+* full. The engine tells the policy about every reference: each
+* one is either a hit on a resident frame or a page loaded into a
+* frame, so a policy sees the whole reference stream in order.
+* Implementations keep their bookkeeping in primitive arrays
+* indexed by frame and do O(1) (amortised) work per call.
+* For checkpoints, a policy writes the state that decides its
+* future victims, e.g. LRU order, and can read it back.
+* @since 10/18/2026
+*****************************************************************/
+public interface ReplacementPolicy {
+
+  /*********************************************
+  * A resident frame was referenced.
+  * @param frame is the frame that was hit.
+  *********************************************/
+  void frameHit ( int frame );
+
+  /*********************************************
+  * A page was loaded into a frame on a fault.
+  * @param frame is the frame now holding it.
+  *********************************************/
+  void frameLoaded ( int frame );
+
+  /*********************************************
+  * Picks a resident frame to be vacated and
+  * stops tracking it.
+  * @return the victim frame, -1 if none.
+  *********************************************/
+  int pickVictim ();
+
+  /*********************************************
+  * A frame was vacated without being picked,
+  * e.g. when its process exited.
+  * @param frame is the frame now free.
+  *********************************************/
+  void frameReleased ( int frame );
+
+  /*********************************************
+  * Reports the name of the policy.
+  * @return the name, e.g. "LRU".
+  *********************************************/
+  String getName ();
+
+  /*********************************************
+  * Writes the policy's state for a checkpoint.
+  * @param out is where the state is written.
+  * @throws IOException if it cannot be written.
+  *********************************************/
+  void saveState ( DataOutput out ) throws IOException;
+
+  /*********************************************
+  * Replaces the policy's state with one written
+  * by saveState for the same number of frames.
+  * @param in is where the state is read from.
+  * @throws IOException if it cannot be read.
+  *********************************************/
+  void restoreState ( DataInput in ) throws IOException;
+}
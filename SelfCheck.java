@@ -0,0 +1,739 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+/******************************************************************
+* Checks the simulator against straightforward models on random
+* traces with exits:
+* - the engine's LRU, FIFO and OPT faults against a plain list
+*   model of each policy, and every policy's frames against the
+*   page tables;
+* - LongKeyMap and PageMap, deletes and growth included, against
+*   java.util.HashMap;
+* - StackDistance's faults at every frame count against the LRU
+*   model, and ShardsCurve against StackDistance;
+* - seek and stepBack against runs stopped at the same reference;
+* - TraceIndex counts, seeks, ranges and its cache against a scan
+*   of the trace, for text and binary trace files.
+* Prints one line per check and exits with status 1 if any fails.
+* Usage: java SelfCheck [--seed N] [--traces N]
+* @since 10/18/2026
+******************************************************************/
+public class SelfCheck {
+
+  /** The usage message. */
+  private static final String USAGE = "Usage: java SelfCheck [--help] [--seed N] [--traces N]";
+
+  /** SHARDS may miss the exact miss ratio by this much at 10%. */
+  private static final double SHARDS_TOLERANCE = 0.05;
+
+  /** Makes the random traces. */
+  private Random rnd;
+
+  /** The random traces checked per group. */
+  private int traces;
+
+  /** The number of checks that failed. */
+  private int failures;
+
+  /**************************************************
+  * Instantiates a check run.
+  * @param seed seeds the random traces.
+  * @param pTraces is the number of traces per group.
+  **************************************************/
+  public SelfCheck ( long seed, int pTraces ) {
+    this.rnd = new Random(seed);
+    this.traces = pTraces;
+  }
+
+  public static void main ( String[] args ) {
+    long seed = 1;
+    int traces = 40;
+    int i;
+    try {
+      for ( i = 0; i < args.length; i++ ) {
+        String arg = args[i];
+        if ( arg.equals("--help") || arg.equals("-h") ) {
+          System.out.println(USAGE);
+          return;
+        }
+        if ( !arg.equals("--seed") && !arg.equals("--traces") ) {
+          throw new IllegalArgumentException("Unknown option " + arg);
+        }
+        if ( i + 1 == args.length ) {
+          throw new IllegalArgumentException("Missing value for " + arg);
+        }
+        switch ( arg ) {
+          case "--seed": seed = BatchRunner.parseLong(arg, args[++i]);
+                         break;
+          default: traces = BatchRunner.parseInt(arg, args[++i]);
+                   break;
+        }
+      }
+    } catch ( IllegalArgumentException e ) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+
+    SelfCheck check = new SelfCheck(seed, traces);
+    try {
+      check.run();
+    } catch ( IOException e ) {
+      System.err.println("Self-check failed: " + e.getMessage());
+      System.exit(1);
+    }
+    if ( check.failures > 0 ) {
+      System.out.println(check.failures + " check(s) failed");
+      System.exit(1);
+    }
+    System.out.println("All checks passed");
+  }
+
+  /*************************************************
+  * Runs every group of checks.
+  * @throws IOException if a temp trace fails.
+  *************************************************/
+  public void run () throws IOException {
+    report("policies match the list models", checkPolicies());
+    report("hash maps match java.util.HashMap", checkMaps());
+    report("stack distances match LRU", checkStackDistance());
+    report("SHARDS matches the exact curve", checkShards());
+    report("seek and stepBack match straight runs", checkSeek());
+    report("trace index matches a scan", checkTraceIndex());
+  }
+
+  /*************************************************
+  * Prints the outcome of a group of checks.
+  * @param name names the group.
+  * @param problem is the first mismatch, null if none.
+  *************************************************/
+  private void report ( String name, String problem ) {
+    if ( problem == null ) {
+      System.out.println("ok    " + name);
+    } else {
+      System.out.println("FAIL  " + name + ": " + problem);
+      failures++;
+    }
+  }
+
+  /*************************************************
+  * Replays random traces under every policy.
+  * @return the first mismatch, null if none.
+  * @throws IOException if a trace cannot be read.
+  *************************************************/
+  private String checkPolicies () throws IOException {
+    int t;
+    for ( t = 0; t < traces; t++ ) {
+      int processes = 1 + rnd.nextInt(12);
+      int frames = 1 + rnd.nextInt(24);
+      long [] keys = randomTrace(300 + rnd.nextInt(2000), processes, 2 + rnd.nextInt(40), 30);
+      DecodedTrace trace = DecodedTrace.decode(new Keys(keys));
+      Geometry geometry = new Geometry(frames, 1024, 16, processes);
+      for ( String name : Policies.NAMES ) {
+        Tables tables = tables(geometry, name, trace, t);
+        SimulationEngine engine = new SimulationEngine(tables, trace.open());
+        engine.runToCompletion();
+        int f;
+        for ( f = 0; f < frames; f++ ) {
+          int pid = tables.framePID(f);
+          if ( pid >= 0 && tables.lookupFrame(pid, tables.framePage(f)) != f ) {
+            return name + ": frame " + f + " is not in its page table";
+          }
+        }
+        long expected = modelFaults(name, keys, frames);
+        if ( expected >= 0 && expected != engine.getFaults() ) {
+          return name + " with " + frames + " frames: " + engine.getFaults()
+          + " faults, the model has " + expected;
+        }
+      }
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Drives LongKeyMap and a hashed PageMap through
+  * random adds, finds and removes over few keys, so
+  * probe chains collide, wrap and shift back.
+  * @return the first mismatch, null if none.
+  *************************************************/
+  private String checkMaps () {
+    int t;
+    for ( t = 0; t < traces; t++ ) {
+      LongKeyMap map = new LongKeyMap(2, t % 2 == 0);
+      PageMap pages = new PageMap(PageMap.DENSE_LIMIT + 1);
+      HashMap<Long, Long> model = new HashMap<Long, Long>();
+      int span = 4 + rnd.nextInt(300);
+      int i;
+      for ( i = 0; i < 5000; i++ ) {
+        long key = rnd.nextInt(span);
+        if ( t % 3 == 0 ) {
+          key = FrameIndex.pack(1 + (int) key % 5, (int) key);
+        }
+        int slot = map.find(key);
+        Long want = model.get(key);
+        long got = slot < 0 ? -1 : t % 2 == 0 ? map.longAt(slot) : map.intAt(slot);
+        if ( got != (want == null ? -1 : want) ) {
+          return "key " + key + " maps to " + got + ", expected " + want;
+        }
+        if ( pages.get((int) key) != (want == null ? -1 : want) ) {
+          return "page " + key + " maps to " + pages.get((int) key) + ", expected " + want;
+        }
+        if ( want != null && rnd.nextInt(3) == 0 ) {
+          map.removeAt(slot);
+          pages.remove((int) key, (int) (long) want);
+          model.remove(key);
+        } else {
+          int value = rnd.nextInt(1 << 20);
+          slot = map.add(key);
+          if ( t % 2 == 0 ) {
+            map.setLongAt(slot, value);
+          } else {
+            map.setIntAt(slot, value);
+          }
+          pages.put((int) key, value);
+          model.put(key, (long) value);
+        }
+        if ( map.size() != model.size() || pages.size() != model.size() ) {
+          return "size " + map.size() + "/" + pages.size() + ", expected " + model.size();
+        }
+      }
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Compares the stack distance curve, and each
+  * process's share of it, with the engine's LRU runs
+  * at every frame count, on traces with and without
+  * exits.
+  * @return the first mismatch, null if none.
+  * @throws IOException if a trace cannot be read.
+  *************************************************/
+  private String checkStackDistance () throws IOException {
+    int t;
+    for ( t = 0; t < traces; t++ ) {
+      int processes = 1 + rnd.nextInt(6);
+      int exitEvery = t % 2 == 0 ? 0 : 5 + rnd.nextInt(60);
+      long [] keys = randomTrace(500 + rnd.nextInt(3000), processes, 2 + rnd.nextInt(60),
+      exitEvery);
+      StackDistance curve = StackDistance.analyze(new Keys(keys), processes);
+      int frames;
+      for ( frames = 1; frames <= curve.getDistinctPages() + 1; frames++ ) {
+        Tables tables = new Tables(new Geometry(frames, 1024, 16, processes), null,
+        Policies.create("lru", frames, null));
+        SimulationEngine engine = new SimulationEngine(tables, new Keys(keys));
+        engine.runToCompletion();
+        if ( curve.faults(frames) != engine.getFaults() ) {
+          return frames + " frames" + (exitEvery > 0 ? " with exits: " : ": ")
+          + curve.faults(frames) + " faults, LRU has " + engine.getFaults();
+        }
+        for ( PCB pcb : tables.passPCBArray() ) {
+          long expected = pcb.getTotalPageFaults();
+          if ( curve.faults(pcb.getPID(), frames) != expected ) {
+            return "P" + pcb.getPID() + " at " + frames + " frames: "
+            + curve.faults(pcb.getPID(), frames) + " faults, LRU has " + expected;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Compares SHARDS with the exact curve, on a trace
+  * with exits and one without: sampling at rate 1 or
+  * with room for every page must agree exactly, and a
+  * 10% sample must stay within SHARDS_TOLERANCE of the
+  * miss ratio. A small bounded sample must keep to its
+  * bound.
+  * @return the first mismatch, null if none.
+  * @throws IOException if a trace cannot be read.
+  *************************************************/
+  private String checkShards () throws IOException {
+    int exitEvery;
+    for ( exitEvery = 0; exitEvery <= 5000; exitEvery += 5000 ) {
+      String with = exitEvery > 0 ? " with exits" : "";
+      long [] keys = randomTrace(200000, 4, 20000, exitEvery);
+      StackDistance exact = StackDistance.analyze(new Keys(keys), 4);
+      ShardsCurve full = ShardsCurve.fixedRate(1.0, 4).analyze(new Keys(keys));
+      ShardsCurve roomy = ShardsCurve.fixedSize(1 << 20, 4).analyze(new Keys(keys));
+      ShardsCurve sampled = ShardsCurve.fixedRate(0.1, 4).analyze(new Keys(keys));
+      ShardsCurve small = ShardsCurve.fixedSize(500, 4).analyze(new Keys(keys));
+      if ( small.getSampledPages() > 500 ) {
+        return "a sample of 500" + with + " holds " + small.getSampledPages() + " pages";
+      }
+      int frames;
+      for ( frames = 1; frames <= 1 << 16; frames *= 2 ) {
+        if ( full.faults(frames) != exact.faults(frames)
+        || roomy.faults(frames) != exact.faults(frames) ) {
+          return "full sample" + with + " at " + frames + " frames: " + full.faults(frames)
+          + "/" + roomy.faults(frames) + " faults, exact " + exact.faults(frames);
+        }
+        double error = Math.abs(sampled.faults(frames) - exact.faults(frames))
+        / (double) keys.length;
+        if ( error > SHARDS_TOLERANCE ) {
+          return "rate 0.1" + with + " at " + frames + " frames is off by " + error;
+        }
+      }
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Seeks engines with checkpoints to random points
+  * and steps them back, comparing each state with a
+  * straight run stopped at the same reference. The
+  * traces are read from memory, a text file and a
+  * binary file.
+  * @return the first mismatch, null if none.
+  * @throws IOException if a trace cannot be read.
+  *************************************************/
+  private String checkSeek () throws IOException {
+    Path dir = Files.createTempDirectory("selfcheck");
+    try {
+      int t;
+      for ( t = 0; t < traces; t++ ) {
+        int processes = 1 + rnd.nextInt(12);
+        int frames = 1 + rnd.nextInt(24);
+        Geometry geometry = new Geometry(frames, 1024, 16, processes);
+        long [] keys = randomTrace(500 + rnd.nextInt(3000), processes, 2 + rnd.nextInt(40), 30);
+        DecodedTrace trace = DecodedTrace.decode(new Keys(keys));
+        String text = writeText(dir.resolve("t" + t + ".data"), keys);
+        String binary = writeBinary(dir.resolve("t" + t + ".vmt"), keys, geometry);
+        String [] inputs = {null, text, binary};
+        for ( String name : Policies.NAMES ) {
+          String input = inputs[rnd.nextInt(inputs.length)];
+          String problem = checkSeek(geometry, name, trace, input, t);
+          if ( problem != null ) {
+            return name + (input == null ? "" : " on " + input) + ": " + problem;
+          }
+        }
+      }
+    } finally {
+      deleteAll(dir);
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Checks the seeks of one engine.
+  * @param geometry is the memory geometry.
+  * @param name is the policy name.
+  * @param trace is the decoded trace.
+  * @param input is the trace file, null to read the
+  * decoded trace.
+  * @param t numbers the trace, picking the placement.
+  * @return the first mismatch, null if none.
+  * @throws IOException if a trace cannot be read.
+  *************************************************/
+  private String checkSeek ( Geometry geometry, String name, DecodedTrace trace,
+  String input, int t ) throws IOException {
+    // The state after each reference of a straight run.
+    Tables straight = tables(geometry, name, trace, t);
+    SimulationEngine engine = new SimulationEngine(straight, trace.open());
+    ArrayList<String> states = new ArrayList<String>();
+    states.add(state(engine));
+    int result;
+    while ( (result = engine.step()) != SimulationEngine.DONE ) {
+      if ( result != SimulationEngine.EXIT ) {
+        states.add(state(engine));
+      }
+    }
+
+    Tables tables = tables(geometry, name, trace, t);
+    ReferenceSource source = input == null ? trace.open() : Main.openInput(input, geometry);
+    SimulationEngine seeker = new SimulationEngine(tables, source);
+    seeker.enableCheckpoints(1 + rnd.nextInt(400));
+    seeker.runToCompletion();
+    int q;
+    for ( q = 0; q < 10; q++ ) {
+      long target = q == 0 ? 0 : rnd.nextInt(states.size());
+      if ( seeker.seek(target) != target || !state(seeker).equals(states.get((int) target)) ) {
+        return "seek to " + target + " differs";
+      }
+      if ( target > 0 ) {
+        long back = seeker.stepBack();
+        if ( back != target - 1 || !state(seeker).equals(states.get((int) back)) ) {
+          return "step back from " + target + " differs";
+        }
+      }
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Compares indexes of a random trace, built with
+  * several block sizes, with a scan of the trace,
+  * and checks the cached index of a file.
+  * @return the first mismatch, null if none.
+  * @throws IOException if a trace cannot be read.
+  *************************************************/
+  private String checkTraceIndex () throws IOException {
+    Path dir = Files.createTempDirectory("selfcheck");
+    try {
+      int t;
+      for ( t = 0; t < traces; t++ ) {
+        int processes = 1 + rnd.nextInt(12);
+        Geometry geometry = new Geometry(16, 1024, 16, processes);
+        long [] keys = randomTrace(1 + rnd.nextInt(5000), processes, 2 + rnd.nextInt(40), 30);
+        String text = writeText(dir.resolve("t" + t + ".data"), keys);
+        String binary = writeBinary(dir.resolve("t" + t + ".vmt"), keys, geometry);
+        for ( String input : new String [] {text, binary} ) {
+          int interval = 1 + rnd.nextInt(700);
+          TraceIndex index = TraceIndex.build(Main.openInput(input, geometry), interval, processes);
+          String problem = checkIndex(index, keys, geometry, input);
+          if ( problem != null ) {
+            return input + " with blocks of " + interval + ": " + problem;
+          }
+        }
+        Path path = dir.resolve("t" + t + ".data");
+        TraceIndex built = TraceIndex.load(path, geometry);
+        TraceIndex cached = TraceIndex.cached(path, geometry);
+        if ( cached == null || cached.getRecords() != built.getRecords()
+        || cached.getBlocks() != built.getBlocks() ) {
+          return "the cached index of " + path + " differs";
+        }
+      }
+    } finally {
+      deleteAll(dir);
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Compares one index with a scan of its trace.
+  * @param index is the index.
+  * @param keys is the trace.
+  * @param geometry is the geometry it is read with.
+  * @param input is the trace file.
+  * @return the first mismatch, null if none.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  private String checkIndex ( TraceIndex index, long [] keys, Geometry geometry,
+  String input ) throws IOException {
+    long [] totals = new long [geometry.getProcesses() + 1];
+    long references = 0;
+    for ( long key : keys ) {
+      if ( (int) key != ReferenceSource.EXIT ) {
+        totals[(int) (key >>> 32)]++;
+        references++;
+      }
+    }
+    if ( index.getReferences() != references || index.getRecords() != keys.length ) {
+      return index.getReferences() + " references in " + index.getRecords()
+      + " records, expected " + references + " in " + keys.length;
+    }
+    int pid;
+    for ( pid = 1; pid <= geometry.getProcesses(); pid++ ) {
+      long sum = 0;
+      int b;
+      for ( b = 0; b < index.getBlocks(); b++ ) {
+        sum += index.getReferences(pid, b);
+      }
+      if ( index.getReferences(pid) != totals[pid] || sum != totals[pid] ) {
+        return "P" + pid + " has " + index.getReferences(pid) + " references, expected "
+        + totals[pid];
+      }
+    }
+    int q;
+    for ( q = 0; q < 10; q++ ) {
+      long target = q == 0 ? references : (long) (rnd.nextDouble() * references);
+      ReferenceSource in = Main.openInput(input, geometry);
+      try {
+        if ( index.seek(in, target) != target ) {
+          return "seek to " + target + " fell short";
+        }
+        int at = recordAfter(keys, target);
+        while ( at < keys.length && in.next() ) {
+          if ( FrameIndex.pack(in.pid(), in.page()) != keys[at++] ) {
+            return "seek to " + target + " reads the wrong records";
+          }
+        }
+        if ( at != keys.length || in.next() ) {
+          return "seek to " + target + " reads the wrong number of records";
+        }
+      } finally {
+        in.close();
+      }
+    }
+    if ( index.getBlocks() > 0 ) {
+      int from = rnd.nextInt(index.getBlocks());
+      int to = from + 1 + rnd.nextInt(index.getBlocks() - from);
+      ReferenceSource range = index.range(Main.openInput(input, geometry), from, to);
+      try {
+        long at = index.getRecordStart(from);
+        while ( range.next() ) {
+          if ( at >= index.getRecordStart(to)
+          || FrameIndex.pack(range.pid(), range.page()) != keys[(int) at++] ) {
+            return "blocks " + from + " to " + to + " read the wrong records";
+          }
+        }
+        if ( at != index.getRecordStart(to) ) {
+          return "blocks " + from + " to " + to + " stop early";
+        }
+      } finally {
+        range.close();
+      }
+    }
+    return null;
+  }
+
+  /*************************************************
+  * Makes a random trace with a hot set of pages and
+  * the odd exit.
+  * @param n is the number of records.
+  * @param processes is the number of processes.
+  * @param pages is the number of pages per process.
+  * @param exitEvery is one in how many records is an
+  * exit, 0 for none.
+  * @return the records as packed keys.
+  *************************************************/
+  private long [] randomTrace ( int n, int processes, int pages, int exitEvery ) {
+    long [] keys = new long [n];
+    int hot = Math.max(1, pages / 8);
+    int i;
+    for ( i = 0; i < n; i++ ) {
+      int pid = 1 + rnd.nextInt(processes);
+      if ( exitEvery > 0 && rnd.nextInt(exitEvery) == 0 ) {
+        keys[i] = FrameIndex.pack(pid, ReferenceSource.EXIT);
+      } else {
+        keys[i] = FrameIndex.pack(pid, rnd.nextInt(rnd.nextInt(4) == 0 ? pages : hot));
+      }
+    }
+    return keys;
+  }
+
+  /*************************************************
+  * Builds tables for a policy.
+  * @param geometry is the memory geometry.
+  * @param name is the policy name.
+  * @param trace is read ahead for OPT.
+  * @param t picks random or sequential placement.
+  * @return the tables.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  private static Tables tables ( Geometry geometry, String name, DecodedTrace trace, int t )
+  throws IOException {
+    ReplacementPolicy policy = name.equals("opt")
+    ? new OPTPolicy(geometry.getFrames(), NextUseIndex.build(trace.open()))
+    : Policies.create(name, geometry.getFrames(), new Random(t));
+    return new Tables(geometry, t % 2 == 0 ? null : new Random(t), policy);
+  }
+
+  /*************************************************
+  * Describes an engine's state: its counts, every
+  * frame and every process's totals.
+  * @param engine is the engine.
+  * @return the description.
+  *************************************************/
+  private static String state ( SimulationEngine engine ) {
+    Tables tables = engine.getTables();
+    StringBuilder s = new StringBuilder();
+    s.append(engine.getReferences()).append('/').append(engine.getFaults()).append(':');
+    int f;
+    for ( f = 0; f < tables.getGeometry().getFrames(); f++ ) {
+      s.append(tables.framePID(f)).append(',').append(tables.framePage(f)).append(';');
+    }
+    for ( PCB pcb : tables.passPCBArray() ) {
+      s.append(pcb.getPID()).append('=').append(pcb.getTotalReferences()).append('/')
+      .append(pcb.getTotalPageFaults()).append(';');
+    }
+    return s.toString();
+  }
+
+  /*************************************************
+  * Counts the faults of LRU, FIFO or OPT with the
+  * resident pages in a plain list, oldest first.
+  * An exit drops the process's pages.
+  * @param name is the policy name.
+  * @param keys is the trace.
+  * @param frames is the number of frames.
+  * @return the fault count, -1 for another policy.
+  *************************************************/
+  private static long modelFaults ( String name, long [] keys, int frames ) {
+    if ( !name.equals("lru") && !name.equals("fifo") && !name.equals("opt") ) {
+      return -1;
+    }
+    ArrayList<Long> memory = new ArrayList<Long>();
+    long faults = 0;
+    int i;
+    for ( i = 0; i < keys.length; i++ ) {
+      final int pid = (int) (keys[i] >>> 32);
+      if ( (int) keys[i] == ReferenceSource.EXIT ) {
+        memory.removeIf(key -> (int) (key >>> 32) == pid);
+        continue;
+      }
+      Long key = keys[i];
+      if ( memory.contains(key) ) {
+        if ( name.equals("lru") ) {
+          memory.remove(key);
+          memory.add(key);
+        }
+        continue;
+      }
+      faults++;
+      if ( memory.size() == frames ) {
+        memory.remove(name.equals("opt") ? furthest(memory, keys, i) : 0);
+      }
+      memory.add(key);
+    }
+    return faults;
+  }
+
+  /*************************************************
+  * Finds the resident page used furthest ahead.
+  * A page whose process exits first is never used.
+  * @param memory is the resident pages.
+  * @param keys is the trace.
+  * @param now is the current record.
+  * @return the position of the page in memory.
+  *************************************************/
+  private static int furthest ( ArrayList<Long> memory, long [] keys, int now ) {
+    int best = 0;
+    long bestUse = -1;
+    int j;
+    for ( j = 0; j < memory.size(); j++ ) {
+      long key = memory.get(j);
+      long use = Long.MAX_VALUE;
+      int i;
+      for ( i = now + 1; i < keys.length; i++ ) {
+        if ( keys[i] == key ) {
+          use = i;
+          break;
+        }
+        if ( keys[i] == FrameIndex.pack((int) (key >>> 32), ReferenceSource.EXIT) ) {
+          break;
+        }
+      }
+      if ( use > bestUse ) {
+        bestUse = use;
+        best = j;
+      }
+    }
+    return best;
+  }
+
+  /*************************************************
+  * Finds the record after a number of references.
+  * @param keys is the trace.
+  * @param references is the references to pass.
+  * @return the position of the record.
+  *************************************************/
+  private static int recordAfter ( long [] keys, long references ) {
+    int at = 0;
+    long seen = 0;
+    while ( seen < references ) {
+      if ( (int) keys[at++] != ReferenceSource.EXIT ) {
+        seen++;
+      }
+    }
+    return at;
+  }
+
+  /*************************************************
+  * Writes a trace as a text file.
+  * @param path is the file.
+  * @param keys is the trace.
+  * @return the file name.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  private static String writeText ( Path path, long [] keys ) throws IOException {
+    PrintWriter out = new PrintWriter(Files.newBufferedWriter(path));
+    try {
+      for ( long key : keys ) {
+        int page = (int) key;
+        out.print("P" + (key >>> 32) + ":\t");
+        out.print(page == ReferenceSource.EXIT ? "exit" : Integer.toBinaryString(page));
+        out.print('\n');
+      }
+    } finally {
+      out.close();
+    }
+    return path.toString();
+  }
+
+  /*************************************************
+  * Writes a trace as a binary file.
+  * @param path is the file.
+  * @param keys is the trace.
+  * @param geometry bounds its PIDs and pages.
+  * @return the file name.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  private static String writeBinary ( Path path, long [] keys, Geometry geometry )
+  throws IOException {
+    BinaryTraceWriter out = new BinaryTraceWriter(path, geometry);
+    try {
+      for ( long key : keys ) {
+        out.write((int) (key >>> 32), (int) key);
+      }
+    } finally {
+      out.close();
+    }
+    return path.toString();
+  }
+
+  /*************************************************
+  * Deletes a temp directory and its files.
+  * @param dir is the directory.
+  * @throws IOException if it cannot be deleted.
+  *************************************************/
+  private static void deleteAll ( Path dir ) throws IOException {
+    java.io.File [] files = dir.toFile().listFiles();
+    if ( files != null ) {
+      for ( java.io.File file : files ) {
+        Files.delete(file.toPath());
+      }
+    }
+    Files.delete(dir);
+  }
+
+  /*************************************************
+  * Replays packed keys as a reference source.
+  *************************************************/
+  private static class Keys implements ReferenceSource {
+
+    /** The records. */
+    private long [] keys;
+
+    /** The current record. */
+    private int at = -1;
+
+    /*******************************************
+    * Instantiates a source over the records.
+    * @param pKeys is the records.
+    *******************************************/
+    Keys ( long [] pKeys ) {
+      this.keys = pKeys;
+    }
+
+    @Override
+    public boolean next () {
+      if ( at + 1 >= keys.length ) {
+        return false;
+      }
+      at++;
+      return true;
+    }
+
+    @Override
+    public int pid () {
+      return (int) (keys[at] >>> 32);
+    }
+
+    @Override
+    public int page () {
+      return (int) keys[at];
+    }
+
+    @Override
+    public void close () {
+    }
+  }
+}
@@ -0,0 +1,456 @@
+import java.io.IOException;
+/******************************************************************
+* An approximate LRU miss-ratio curve from a spatially hashed
+* sample of the trace, after SHARDS (Waldspurger et al., FAST '15).
+* Each process/page key is hashed to [0, P); only references whose
+* key hashes below a threshold T go into a StackDistance, so the
+* sample keeps every reference to a fraction R = T / P of the
+* pages. A sampled distance d stands for 1 + (d - 1) / R pages,
+* the page itself plus the others scaled up, and each sampled
+* reference for 1 / R references.
+*
+* With a fixed rate the memory grows with R times the distinct
+* pages. With a fixed sample size the threshold starts at P and is
+* lowered whenever the sample holds more than the allowed number of
+* keys: the keys with the largest hash are dropped and that hash
+* becomes the new threshold, so memory is bounded however large the
+* trace. Every reference is still counted exactly, and the
+* difference between that count and the sample's weighted count is
+* added to the shortest distance (the SHARDS_adj correction). Its
+* size relative to the reference count is reported as the error
+* estimate: it is large when a few hot pages dominate and the
+* sample happens to miss or catch them, and then the curve reads
+* low for small memories while staying close for large ones.
+*
+* An exit removes the process's sampled pages from the sample's
+* stack, leaving holes as StackDistance does, and from the bound's
+* heap.
+*
+* Scaled distances go into log-linear buckets, 16 per power of two,
+* so the histograms stay small and are exact at powers of two.
+* @since 10/18/2026
+******************************************************************/
+public class ShardsCurve implements MissRatioCurve {
+
+  /** The modulus of the spatial hash, P. */
+  public static final int MODULUS = 1 << 24;
+
+  /** The buckets per power of two, as a shift. */
+  private static final int SUB_SHIFT = 4;
+
+  /** The buckets per power of two. */
+  private static final int SUB = 1 << SUB_SHIFT;
+
+  /** The number of buckets, covering every long distance. */
+  private static final int BUCKETS = SUB + (64 - SUB_SHIFT) * SUB;
+
+  /** The exact stack of the sampled keys. */
+  private StackDistance sample;
+
+  /** The current threshold, T. */
+  private int threshold;
+
+  /** The most keys kept in the sample, 0 for a fixed rate. */
+  private int maxKeys;
+
+  /** The sampled keys in a max-heap on their hash, when bounded. */
+  private long [] heapKeys;
+
+  /** The hash of each key in the heap. */
+  private int [] heapHashes;
+
+  /** The number of keys in the heap. */
+  private int heapCount;
+
+  /** Weighted references per distance bucket, indexed [pid][bucket]. */
+  private double [][] histogram;
+
+  /** Weighted first references, indexed by pid. */
+  private double [] cold;
+
+  /** Weighted sampled references, indexed by pid. */
+  private double [] weighted;
+
+  /** All references, sampled or not, indexed by pid. */
+  private long [] references;
+
+  /** The number of sampled references. */
+  private long sampledReferences;
+
+  /** The sum over pids of the SHARDS_adj corrections' sizes. */
+  private double correction;
+
+  /** The largest scaled distance seen. */
+  private long maxDistance;
+
+  /*************************************************
+  * Instantiates a fixed-rate sampler.
+  * @param rate is the fraction of pages to sample, in (0, 1].
+  * @param processes is the number of processes expected.
+  * @return the sampler.
+  *************************************************/
+  public static ShardsCurve fixedRate ( double rate, int processes ) {
+    if ( !(rate > 0.0 && rate <= 1.0) ) {
+      throw new IllegalArgumentException("Sample rate must be in (0, 1]: " + rate);
+    }
+    return new ShardsCurve((int) Math.max(1, Math.round(rate * MODULUS)), 0, processes);
+  }
+
+  /*************************************************
+  * Instantiates a fixed-size sampler.
+  * @param keys is the most process/page keys to track.
+  * @param processes is the number of processes expected.
+  * @return the sampler.
+  *************************************************/
+  public static ShardsCurve fixedSize ( int keys, int processes ) {
+    if ( keys < 1 ) {
+      throw new IllegalArgumentException("Sample size must be positive: " + keys);
+    }
+    return new ShardsCurve(MODULUS, keys, processes);
+  }
+
+  /*************************************************
+  * Instantiates a sampler.
+  * @param pThreshold is the initial threshold, T.
+  * @param pMaxKeys is the sample size bound, 0 for none.
+  * @param processes is the number of processes expected.
+  *************************************************/
+  private ShardsCurve ( int pThreshold, int pMaxKeys, int processes ) {
+    this.threshold = pThreshold;
+    this.maxKeys = pMaxKeys;
+    this.sample = new StackDistance(processes);
+    if ( pMaxKeys > 0 ) {
+      this.heapKeys = new long [pMaxKeys + 1];
+      this.heapHashes = new int [pMaxKeys + 1];
+    }
+    this.histogram = new double [processes + 1][];
+    this.cold = new double [processes + 1];
+    this.weighted = new double [processes + 1];
+    this.references = new long [processes + 1];
+  }
+
+  /*************************************************
+  * Samples every reference and exit of a source and
+  * applies the SHARDS_adj correction.
+  * @param input is the trace; it is closed after.
+  * @return this sampler, finished.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  public ShardsCurve analyze ( ReferenceSource input ) throws IOException {
+    try {
+      while ( input.next() ) {
+        if ( input.page() == ReferenceSource.EXIT ) {
+          exit(input.pid());
+        } else {
+          reference(input.pid(), input.page());
+        }
+      }
+    } finally {
+      input.close();
+    }
+    adjust();
+    return this;
+  }
+
+  /*************************************************
+  * Records one reference, sampling it if its key
+  * hashes below the threshold.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  *************************************************/
+  public void reference ( int pid, int page ) {
+    if ( pid >= this.references.length ) {
+      growProcesses(pid);
+    }
+    this.references[pid]++;
+    long key = FrameIndex.pack(pid, page);
+    int h = hash(key);
+    if ( h >= this.threshold ) {
+      return;
+    }
+    this.sampledReferences++;
+    double scale = (double) MODULUS / this.threshold;
+    int d = this.sample.reference(pid, page);
+    this.weighted[pid] += scale;
+    if ( d == 0 ) {
+      this.cold[pid] += scale;
+      if ( this.maxKeys > 0 ) {
+        push(key, h);
+        while ( this.heapCount > this.maxKeys ) {
+          lowerThreshold();
+        }
+      }
+    } else {
+      // The page itself is certain; only the others were sampled.
+      long scaled = Math.round((d - 1) * scale) + 1;
+      if ( scaled > this.maxDistance ) {
+        this.maxDistance = scaled;
+      }
+      double [] hist = this.histogram[pid];
+      if ( hist == null ) {
+        hist = new double [BUCKETS];
+        this.histogram[pid] = hist;
+      }
+      hist[bucket(scaled - 1)] += scale;
+    }
+  }
+
+  /*************************************************
+  * Records a process's exit, dropping its sampled
+  * pages.
+  * @param pid is the PID of the process.
+  *************************************************/
+  public void exit ( int pid ) {
+    this.sample.exit(pid);
+    if ( this.maxKeys == 0 ) {
+      return;
+    }
+    // Keep the other keys and restore the heap order bottom-up.
+    int kept = 0;
+    int i;
+    for ( i = 0; i < this.heapCount; i++ ) {
+      if ( (int) (this.heapKeys[i] >>> 32) != pid ) {
+        this.heapKeys[kept] = this.heapKeys[i];
+        this.heapHashes[kept] = this.heapHashes[i];
+        kept++;
+      }
+    }
+    if ( kept == this.heapCount ) {
+      return;
+    }
+    this.heapCount = kept;
+    for ( i = kept / 2 - 1; i >= 0; i-- ) {
+      siftDown(i, this.heapKeys[i], this.heapHashes[i]);
+    }
+  }
+
+  @Override
+  public long faults ( int frames ) {
+    long total = 0;
+    int pid;
+    for ( pid = 0; pid < this.references.length; pid++ ) {
+      total += faults(pid, frames);
+    }
+    return total;
+  }
+
+  @Override
+  public long faults ( int pid, int frames ) {
+    if ( pid >= this.references.length ) {
+      return 0;
+    }
+    double total = this.cold[pid];
+    double [] hist = this.histogram[pid];
+    if ( hist != null ) {
+      int b;
+      for ( b = 0; b < BUCKETS; b++ ) {
+        if ( lowerBound(b) >= frames ) {
+          total += hist[b];
+        }
+      }
+    }
+    return Math.min(this.references[pid], Math.max(0, Math.round(total)));
+  }
+
+  @Override
+  public long getReferences () {
+    long total = 0;
+    int pid;
+    for ( pid = 0; pid < this.references.length; pid++ ) {
+      total += this.references[pid];
+    }
+    return total;
+  }
+
+  @Override
+  public long getReferences ( int pid ) {
+    return pid < this.references.length ? this.references[pid] : 0;
+  }
+
+  @Override
+  public int getMaxDistance () {
+    return (int) Math.min(Integer.MAX_VALUE, this.maxDistance);
+  }
+
+  @Override
+  public int getDistinctPages () {
+    double total = 0;
+    int pid;
+    for ( pid = 0; pid < this.cold.length; pid++ ) {
+      total += this.cold[pid];
+    }
+    return (int) Math.min(Integer.MAX_VALUE, Math.round(total));
+  }
+
+  /*************************************************
+  * Reports the fraction of pages finally sampled.
+  * @return the sampling rate, R.
+  *************************************************/
+  public double getRate () {
+    return (double) this.threshold / MODULUS;
+  }
+
+  /*************************************************
+  * Reports how many references went into the sample.
+  * @return the sampled reference count.
+  *************************************************/
+  public long getSampledReferences () {
+    return this.sampledReferences;
+  }
+
+  /*************************************************
+  * Reports how many keys the sample tracks now.
+  * @return the sampled key count.
+  *************************************************/
+  public int getSampledPages () {
+    return this.sample.getStackedPages();
+  }
+
+  /*************************************************
+  * Estimates the sampling error as the SHARDS_adj
+  * correction relative to the reference count: how
+  * far the sample's weighted reference count was off.
+  * @return the error estimate as a fraction.
+  *************************************************/
+  public double getErrorEstimate () {
+    long refs = getReferences();
+    return refs == 0 ? 0.0 : this.correction / refs;
+  }
+
+  /*************************************************
+  * Adds the gap between each process's real and
+  * weighted reference counts to its shortest distance.
+  *************************************************/
+  private void adjust () {
+    int pid;
+    for ( pid = 0; pid < this.references.length; pid++ ) {
+      double diff = this.references[pid] - this.weighted[pid];
+      if ( diff == 0.0 ) {
+        continue;
+      }
+      if ( this.histogram[pid] == null ) {
+        this.histogram[pid] = new double [BUCKETS];
+      }
+      this.histogram[pid][0] += diff;
+      this.weighted[pid] += diff;
+      this.correction += Math.abs(diff);
+    }
+  }
+
+  /*************************************************
+  * Drops the sampled keys with the largest hash and
+  * makes that hash the new threshold.
+  *************************************************/
+  private void lowerThreshold () {
+    int top = this.heapHashes[0];
+    while ( this.heapCount > 0 && this.heapHashes[0] == top ) {
+      long key = this.heapKeys[0];
+      pop();
+      this.sample.forget((int) (key >>> 32), (int) key);
+    }
+    this.threshold = top;
+  }
+
+  /*************************************************
+  * Adds a key to the max-heap on hash.
+  *************************************************/
+  private void push ( long key, int h ) {
+    int at = this.heapCount++;
+    while ( at > 0 ) {
+      int parent = (at - 1) >>> 1;
+      if ( this.heapHashes[parent] >= h ) {
+        break;
+      }
+      this.heapKeys[at] = this.heapKeys[parent];
+      this.heapHashes[at] = this.heapHashes[parent];
+      at = parent;
+    }
+    this.heapKeys[at] = key;
+    this.heapHashes[at] = h;
+  }
+
+  /*************************************************
+  * Removes the key with the largest hash.
+  *************************************************/
+  private void pop () {
+    int n = --this.heapCount;
+    siftDown(0, this.heapKeys[n], this.heapHashes[n]);
+  }
+
+  /*************************************************
+  * Puts a key in a place of the heap, moving larger
+  * children up until the key's hash is in order.
+  *************************************************/
+  private void siftDown ( int at, long key, int h ) {
+    int n = this.heapCount;
+    while ( true ) {
+      int child = 2 * at + 1;
+      if ( child >= n ) {
+        break;
+      }
+      if ( child + 1 < n && this.heapHashes[child + 1] > this.heapHashes[child] ) {
+        child++;
+      }
+      if ( this.heapHashes[child] <= h ) {
+        break;
+      }
+      this.heapKeys[at] = this.heapKeys[child];
+      this.heapHashes[at] = this.heapHashes[child];
+      at = child;
+    }
+    this.heapKeys[at] = key;
+    this.heapHashes[at] = h;
+  }
+
+  /*************************************************
+  * Makes room for a PID beyond the expected ones.
+  *************************************************/
+  private void growProcesses ( int pid ) {
+    int size = pid + 1;
+    this.histogram = java.util.Arrays.copyOf(this.histogram, size);
+    this.cold = java.util.Arrays.copyOf(this.cold, size);
+    this.weighted = java.util.Arrays.copyOf(this.weighted, size);
+    this.references = java.util.Arrays.copyOf(this.references, size);
+  }
+
+  /*************************************************
+  * Hashes a key uniformly into [0, MODULUS).
+  * @return the hash.
+  *************************************************/
+  private static int hash ( long key ) {
+    // The finaliser of MurmurHash3, which mixes every input bit.
+    long h = key;
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return (int) (h & (MODULUS - 1));
+  }
+
+  /*************************************************
+  * Finds the log-linear bucket of a distance minus one.
+  * @return the bucket.
+  *************************************************/
+  private static int bucket ( long v ) {
+    if ( v < SUB ) {
+      return (int) v;
+    }
+    int k = 63 - Long.numberOfLeadingZeros(v);
+    int sub = (int) (v >>> (k - SUB_SHIFT)) & (SUB - 1);
+    return SUB + (k - SUB_SHIFT) * SUB + sub;
+  }
+
+  /*************************************************
+  * Reports the smallest distance minus one in a bucket.
+  * @return the lower bound.
+  *************************************************/
+  private static long lowerBound ( int b ) {
+    if ( b < SUB ) {
+      return b;
+    }
+    int k = (b - SUB) / SUB + SUB_SHIFT;
+    int sub = (b - SUB) % SUB;
+    return (long) (SUB + sub) << (k - SUB_SHIFT);
+  }
+}
@@ -0,0 +1,364 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+/******************************************************************
+* Measures the simulation hot path, SimulationEngine.step through
+* Tables, for synthetic and recorded workloads at several frame
+* counts and policies. For each combination it reports:
+* - throughput in references per second (mean and standard
+*   deviation over the measured iterations);
+* - per-reference latency as the mean, and the 99th percentile
+*   over blocks of 4096 references, since timing one reference
+*   alone is below the clock's resolution;
+* - bytes allocated per reference on the running thread.
+* Workloads are uniform, zipf and loop over the default geometry's
+* 640 pages, plus input3a and input3b repeated up to the reference
+* count. Results are printed as CSV. Given a baseline CSV from an
+* earlier run, it exits with status 1 if any throughput dropped by
+* more than the tolerance, so it can gate changes.
+* Every policy is measured by default, OPT included; its next-use
+* index is built once per workload, outside the timed runs.
+* Options are parsed like BatchRunner's: an unknown option or one
+* missing its value prints the usage and exits with status 2.
+* Usage: java SimulationBenchmark [--refs N] [--frames N,N,..]
+*   [--policies P,P,..] [--workloads W,W,..] [--warmup N]
+*   [--iterations N] [--baseline FILE] [--tolerance F]
+* @since 10/18/2026
+******************************************************************/
+public class SimulationBenchmark {
+
+  /** The references timed together for the latency percentile. */
+  private static final int BLOCK = 4096;
+
+  /** The usage message printed on bad arguments. */
+  private static final String USAGE =
+  "Usage: java SimulationBenchmark [--refs N] [--frames N,N,..]\n"
+  + "       [--policies P,P,..] [--workloads W,W,..] [--warmup N]\n"
+  + "       [--iterations N] [--baseline FILE] [--tolerance F]";
+
+  /** The CSV header of the results. */
+  private static final String HEADER =
+  "workload,policy,frames,refsPerSec,refsPerSecStdDev,nsPerRef,p99NsPerRef,bytesPerRef";
+
+  public static void main ( String[] args ) throws IOException {
+
+    int refs = 1000000;
+    int warmup = 3;
+    int iterations = 5;
+    int [] frameCounts = {8, 64, 512};
+    String [] policies = {"lru", "fifo", "clock", "lfu", "random", "opt"};
+    String [] workloads = {"uniform", "zipf", "loop", "input3a", "input3b"};
+    String baseline = null;
+    double tolerance = 0.10;
+
+    int i;
+    try {
+      for ( i = 0; i < args.length; i++ ) {
+        String arg = args[i];
+        if ( arg.equals("--help") || arg.equals("-h") ) {
+          System.out.println(USAGE);
+          return;
+        }
+        if ( i + 1 >= args.length ) {
+          throw new IllegalArgumentException("Missing value for " + arg);
+        }
+        String value = args[++i];
+        switch ( arg ) {
+          case "--refs": refs = BatchRunner.parseInt(arg, value);
+                  break;
+          case "--frames": frameCounts = BatchRunner.parseIntList(arg, value);
+                  break;
+          case "--policies": policies = value.toLowerCase().split(",");
+                  break;
+          case "--workloads": workloads = value.toLowerCase().split(",");
+                  break;
+          case "--warmup": warmup = BatchRunner.parseInt(arg, value);
+                  break;
+          case "--iterations": iterations = BatchRunner.parseInt(arg, value);
+                  break;
+          case "--baseline": baseline = value;
+                  break;
+          case "--tolerance": tolerance = BatchRunner.parseDouble(arg, value);
+                  break;
+          default: throw new IllegalArgumentException("Unknown option " + arg);
+        }
+      }
+      for ( i = 0; i < policies.length; i++ ) {
+        if ( !java.util.Arrays.asList(Policies.NAMES).contains(policies[i]) ) {
+          throw new IllegalArgumentException("Unknown policy " + policies[i]);
+        }
+      }
+      if ( refs < 1 || iterations < 1 || warmup < 0 ) {
+        throw new IllegalArgumentException("--refs and --iterations must be positive");
+      }
+    } catch ( IllegalArgumentException e ) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+
+    Geometry geometry = new Geometry();
+    Map<String, Double> previous = baseline == null ? null : readBaseline(baseline);
+    boolean regressed = false;
+
+    System.out.println(HEADER);
+    int w, p, f;
+    for ( w = 0; w < workloads.length; w++ ) {
+      DecodedTrace trace = buildWorkload(workloads[w], geometry, refs);
+      NextUseIndex nextUse = null;
+      for ( p = 0; p < policies.length; p++ ) {
+        if ( policies[p].equals("opt") && nextUse == null ) {
+          nextUse = NextUseIndex.build(trace.open());
+        }
+        for ( f = 0; f < frameCounts.length; f++ ) {
+          Geometry g = new Geometry(frameCounts[f], geometry.getPageSize(),
+          geometry.getAddressBits(), geometry.getProcesses());
+          String row = measure(workloads[w], policies[p], g, trace, nextUse, warmup,
+          iterations);
+          System.out.println(row);
+          if ( previous != null ) {
+            regressed |= checkBaseline(row, previous, tolerance);
+          }
+        }
+      }
+    }
+    if ( regressed ) {
+      System.exit(1);
+    }
+  }
+
+  /*****************************************************
+  * Runs the warm-up and measured iterations of one
+  * combination and formats its CSV row.
+  * @return the CSV row.
+  *****************************************************/
+  private static String measure ( String workload, String policy, Geometry g,
+  DecodedTrace trace, NextUseIndex nextUse, int warmup, int iterations ) throws IOException {
+    int i;
+    for ( i = 0; i < warmup; i++ ) {
+      runOnce(policy, g, trace, nextUse, null);
+    }
+    double [] rates = new double [iterations];
+    long nanos = 0;
+    long bytes = 0;
+    int blocks = trace.length() / BLOCK;
+    long [] blockNanos = new long [Math.max(1, blocks) * iterations];
+    int filled = 0;
+    for ( i = 0; i < iterations; i++ ) {
+      long [] perBlock = new long [Math.max(1, blocks)];
+      long before = allocatedBytes();
+      long elapsed = runOnce(policy, g, trace, nextUse, perBlock);
+      bytes += allocatedBytes() - before;
+      nanos += elapsed;
+      rates[i] = trace.length() / (elapsed / 1e9);
+      System.arraycopy(perBlock, 0, blockNanos, filled, blocks);
+      filled += blocks;
+    }
+
+    double mean = 0;
+    for ( i = 0; i < iterations; i++ ) {
+      mean += rates[i];
+    }
+    mean /= iterations;
+    double var = 0;
+    for ( i = 0; i < iterations; i++ ) {
+      var += (rates[i] - mean) * (rates[i] - mean);
+    }
+    double stdDev = iterations > 1 ? Math.sqrt(var / (iterations - 1)) : 0.0;
+
+    long totalRefs = (long) trace.length() * iterations;
+    double p99 = -1;
+    if ( filled > 0 ) {
+      java.util.Arrays.sort(blockNanos, 0, filled);
+      p99 = blockNanos[Math.min(filled - 1, (int) (filled * 0.99))] / (double) BLOCK;
+    }
+    return String.format("%s,%s,%d,%.0f,%.0f,%.2f,%.2f,%.3f", workload, policy,
+    g.getFrames(), mean, stdDev, nanos / (double) totalRefs, p99,
+    bytes < 0 ? -1.0 : bytes / (double) totalRefs);
+  }
+
+  /*****************************************************
+  * Replays the trace once on fresh tables.
+  * @param perBlock receives the time of each block of
+  * references, or null when not needed.
+  * @return the elapsed time in nanoseconds.
+  *****************************************************/
+  private static long runOnce ( String policy, Geometry g, DecodedTrace trace,
+  NextUseIndex nextUse, long [] perBlock ) throws IOException {
+    ReplacementPolicy victims = policy.equals("opt")
+    ? new OPTPolicy(g.getFrames(), nextUse)
+    : Policies.create(policy, g.getFrames(), new Random(0));
+    Tables tbl = new Tables(g, new Random(0), victims);
+    SimulationEngine engine = new SimulationEngine(tbl, trace.open());
+
+    long start = System.nanoTime();
+    long blockStart = start;
+    int n = 0;
+    int block = 0;
+    while ( engine.step() != SimulationEngine.DONE ) {
+      if ( ++n == BLOCK ) {
+        long now = System.nanoTime();
+        if ( perBlock != null && block < perBlock.length ) {
+          perBlock[block++] = now - blockStart;
+        }
+        blockStart = now;
+        n = 0;
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  /*****************************************************
+  * Builds a workload of the given number of references.
+  * @return the decoded references.
+  *****************************************************/
+  private static DecodedTrace buildWorkload ( String name, Geometry geometry, int refs )
+  throws IOException {
+    int processes = geometry.getProcesses();
+    int pages = geometry.getPagesPerProcess();
+    long [] keys = new long [refs];
+    Random rnd = new Random(42);
+    int i;
+    switch ( name ) {
+      case "uniform":
+        for ( i = 0; i < refs; i++ ) {
+          keys[i] = FrameIndex.pack(1 + rnd.nextInt(processes), rnd.nextInt(pages));
+        }
+        break;
+      case "zipf":
+        // Rank r of all process/page pairs is picked with weight 1 / r.
+        int total = processes * pages;
+        double [] cdf = new double [total];
+        double sum = 0;
+        for ( i = 0; i < total; i++ ) {
+          sum += 1.0 / (i + 1);
+          cdf[i] = sum;
+        }
+        for ( i = 0; i < refs; i++ ) {
+          int r = java.util.Arrays.binarySearch(cdf, rnd.nextDouble() * sum);
+          r = Math.min(total - 1, r < 0 ? -r - 1 : r);
+          keys[i] = FrameIndex.pack(1 + r % processes, r / processes);
+        }
+        break;
+      case "loop":
+        for ( i = 0; i < refs; i++ ) {
+          int r = i % (processes * pages);
+          keys[i] = FrameIndex.pack(1 + r % processes, r / processes);
+        }
+        break;
+      default:
+        // A recorded trace, repeated up to the reference count.
+        DecodedTrace recorded = DecodedTrace.decode(Main.openInput(name + ".data", geometry));
+        if ( recorded.length() == 0 ) {
+          throw new IllegalArgumentException("Empty workload " + name);
+        }
+        i = 0;
+        while ( i < refs ) {
+          ReferenceSource src = recorded.open();
+          while ( i < refs && src.next() ) {
+            keys[i++] = FrameIndex.pack(src.pid(), src.page());
+          }
+        }
+        break;
+    }
+    return DecodedTrace.decode(new ArraySource(keys));
+  }
+
+  /*****************************************************
+  * Reports the bytes the current thread has allocated.
+  * @return the byte count, -1 if the JVM cannot tell.
+  *****************************************************/
+  private static long allocatedBytes () {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if ( bean instanceof com.sun.management.ThreadMXBean ) {
+      return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+    }
+    return -1;
+  }
+
+  /*****************************************************
+  * Reads the throughput of each row of a baseline CSV.
+  * @return throughput keyed by workload,policy,frames.
+  *****************************************************/
+  private static Map<String, Double> readBaseline ( String file ) throws IOException {
+    Map<String, Double> rates = new HashMap<String, Double>();
+    BufferedReader in = new BufferedReader(new FileReader(file));
+    try {
+      String line;
+      while ( (line = in.readLine()) != null ) {
+        String [] cols = line.split(",");
+        if ( cols.length < 4 || line.equals(HEADER) ) {
+          continue;
+        }
+        rates.put(cols[0] + "," + cols[1] + "," + cols[2], Double.parseDouble(cols[3]));
+      }
+    } finally {
+      in.close();
+    }
+    return rates;
+  }
+
+  /*****************************************************
+  * Compares a row's throughput with the baseline.
+  * @return true if it dropped by more than the tolerance.
+  *****************************************************/
+  private static boolean checkBaseline ( String row, Map<String, Double> previous,
+  double tolerance ) {
+    String [] cols = row.split(",");
+    Double before = previous.get(cols[0] + "," + cols[1] + "," + cols[2]);
+    if ( before == null ) {
+      return false;
+    }
+    double now = Double.parseDouble(cols[3]);
+    if ( now < before * (1 - tolerance) ) {
+      System.err.printf("REGRESSION %s,%s,%s: %.0f refs/s, baseline %.0f%n", cols[0],
+      cols[1], cols[2], now, before);
+      return true;
+    }
+    return false;
+  }
+
+  /******************************************************************
+  * Hands out packed keys from an array, for decoding.
+  ******************************************************************/
+  private static class ArraySource implements ReferenceSource {
+
+    /** The packed process/page keys. */
+    private long [] keys;
+
+    /** The index of the current key. */
+    private int position = -1;
+
+    ArraySource ( long [] pKeys ) {
+      this.keys = pKeys;
+    }
+
+    @Override
+    public boolean next () {
+      if ( position + 1 >= keys.length ) {
+        return false;
+      }
+      position++;
+      return true;
+    }
+
+    @Override
+    public int pid () {
+      return (int) (keys[position] >>> 32);
+    }
+
+    @Override
+    public int page () {
+      return (int) keys[position];
+    }
+
+    @Override
+    public void close () {
+    }
+  }
+}
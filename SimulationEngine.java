@@ -0,0 +1,462 @@
+import java.io.IOException;
+/***************************************************************
+* The headless simulation engine.
+* Processes memory references against the tables: checks for a
+* page in memory, serves faults from free frames and replaces
+* the replacement policy's victims when memory is full. Exit records
+* release the exiting process's frames. It has no Swing dependency,
+* so it can run without a display; anything that wants to watch
+* (e.g. the GUI through the controller) registers a listener.
+*
+* With checkpoints enabled, the engine snapshots its tables every
+* K references along with the trace offset to resume at, so seek()
+* can go to any reference, backwards too, by restoring the nearest
+* earlier checkpoint and replaying at most K references.
+* @since 10/18/2026
+***************************************************************/
+public class SimulationEngine {
+
+  /** Returned by step when the page was already in memory. */
+  public static final int HIT = 0;
+
+  /** Returned by step when the reference caused a page fault. */
+  public static final int FAULT = -1;
+
+  /** Returned by step when the input is done. */
+  public static final int DONE = 1;
+
+  /** Returned by step when a process exited. */
+  public static final int EXIT = 2;
+
+  /** The most checkpoints kept before every other one is dropped. */
+  public static final int MAX_CHECKPOINTS = 1024;
+
+  /** The most checkpoint bytes kept before every other one is dropped. */
+  public static final long MAX_CHECKPOINT_BYTES = 256L << 20;
+
+  /** The table object that holds the frame and page table. */
+  private Tables table;
+
+  /** The source of references, pulled one at a time. */
+  private ReferenceSource input;
+
+  /** The listeners to be notified, empty for headless runs. */
+  private SimulationListener [] listeners;
+
+  /** The total number of references processed. */
+  private long references;
+
+  /** The total number of page faults. */
+  private long faults;
+
+  /** Whether the end of input has been reached. */
+  private boolean done;
+
+  /** The checkpoints taken, in reference order. */
+  private java.util.ArrayList<Checkpoint> checkpoints;
+
+  /** The deflated bytes of all the checkpoints. */
+  private long checkpointBytes;
+
+  /** The references between checkpoints, 0 if disabled. */
+  private long checkpointInterval;
+
+  /** The reference count of the next checkpoint. */
+  private long nextCheckpoint = Long.MAX_VALUE;
+
+  /************************************************
+  * Instantiates an engine over the given tables.
+  * @param pTable holds the frame and page tables.
+  * @param pInput is the source of references.
+  ************************************************/
+  public SimulationEngine ( Tables pTable, ReferenceSource pInput ) {
+    this.table = pTable;
+    this.input = pInput;
+    this.listeners = new SimulationListener[0];
+  }
+
+  /*********************************************
+  * Subscribes a listener to engine events.
+  * @param listener is the listener to be added.
+  *********************************************/
+  public void addListener ( SimulationListener listener ) {
+    SimulationListener [] grown = new SimulationListener[listeners.length + 1];
+    System.arraycopy(listeners, 0, grown, 0, listeners.length);
+    grown[listeners.length] = listener;
+    this.listeners = grown;
+  }
+
+  /*********************************************
+  * Unsubscribes a listener from engine events.
+  * @param listener is the listener to be removed.
+  *********************************************/
+  public void removeListener ( SimulationListener listener ) {
+    int i;
+    for ( i = 0; i < listeners.length; i++ ) {
+      if ( listeners[i] == listener ) {
+        SimulationListener [] shrunk = new SimulationListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, shrunk, 0, i);
+        System.arraycopy(listeners, i + 1, shrunk, i, shrunk.length - i);
+        this.listeners = shrunk;
+        return;
+      }
+    }
+  }
+
+  /********************************************************************
+  * Pulls the next reference from the input and processes it.
+  * @return DONE if we're done reading input, FAULT if there was a
+  * page fault, HIT if the page was already in memory, EXIT if a
+  * process exited.
+  * @throws IOException if the input cannot be read.
+  *******************************************************************/
+  public int step () throws IOException {
+
+    // Check if we have input.
+    if ( done || !input.next() ) {
+      finish();
+      return DONE;
+    }
+
+    if ( input.page() == ReferenceSource.EXIT ) {
+      exit(input.pid());
+      return EXIT;
+    }
+    boolean fault = reference(input.pid(), input.page());
+    if ( references == nextCheckpoint ) {
+      checkpoint();
+    }
+    return fault ? FAULT : HIT;
+  }
+
+  /********************************************************
+  * Starts taking a checkpoint every so many references,
+  * beginning with one of the current state.
+  * @param interval is the references between checkpoints.
+  * @throws IllegalStateException if the input cannot seek.
+  ********************************************************/
+  public void enableCheckpoints ( long interval ) {
+    if ( interval <= 0 ) {
+      throw new IllegalArgumentException("The checkpoint interval must be positive");
+    }
+    if ( input.offset() < 0 ) {
+      throw new IllegalStateException("The input cannot seek");
+    }
+    this.checkpoints = new java.util.ArrayList<Checkpoint>();
+    this.checkpointBytes = 0;
+    this.checkpointInterval = interval;
+    checkpoint();
+  }
+
+  /********************************************************
+  * Goes to the state right after the given reference was
+  * processed, restoring the nearest checkpoint at or before
+  * it when it is behind, or when that checkpoint is ahead
+  * of the current state, and replaying the rest. Listeners
+  * are not told about the replay; the whole state changed,
+  * so they should redraw from the tables.
+  * @param target is the number of references to be at.
+  * @return the references reached, less than target if
+  * the input ran out first.
+  * @throws IOException if the input cannot be read.
+  * @throws IllegalStateException if checkpoints are not
+  * enabled.
+  ********************************************************/
+  public long seek ( long target ) throws IOException {
+    if ( checkpoints == null ) {
+      throw new IllegalStateException("Checkpoints are not enabled");
+    }
+    Checkpoint from = nearestCheckpoint(target);
+    if ( target < references || from.getReferences() > references ) {
+      from.restore(table);
+      input.seek(from.getOffset());
+      references = from.getReferences();
+      faults = from.getFaults();
+      done = false;
+    }
+    SimulationListener [] watching = listeners;
+    listeners = new SimulationListener[0];
+    try {
+      while ( references < target && step() != DONE ) {
+        // Keep replaying.
+      }
+    } finally {
+      listeners = watching;
+    }
+    return references;
+  }
+
+  /********************************************************
+  * Goes back to the state before the last reference.
+  * @return the references reached.
+  * @throws IOException if the input cannot be read.
+  ********************************************************/
+  public long stepBack () throws IOException {
+    return seek(Math.max(0, references - 1));
+  }
+
+  /********************************************************
+  * Finds the last checkpoint at or before a reference.
+  * The first checkpoint is returned for earlier ones.
+  * @return the checkpoint.
+  ********************************************************/
+  private Checkpoint nearestCheckpoint ( long target ) {
+    int low = 0;
+    int high = checkpoints.size() - 1;
+    while ( low < high ) {
+      int mid = (low + high + 1) >>> 1;
+      if ( checkpoints.get(mid).getReferences() <= target ) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return checkpoints.get(low);
+  }
+
+  /********************************************************
+  * Snapshots the current state. Once there are too many
+  * checkpoints, or they take too much memory, every other
+  * one is dropped and the interval doubles, so a run of
+  * any length keeps a bounded number of them.
+  ********************************************************/
+  private void checkpoint () {
+    Checkpoint now = new Checkpoint(references, faults, input.offset(),
+    Checkpoint.capture(table));
+    checkpoints.add(now);
+    checkpointBytes += now.getSize();
+    if ( checkpoints.size() > MAX_CHECKPOINTS
+    || (checkpointBytes > MAX_CHECKPOINT_BYTES && checkpoints.size() > 2) ) {
+      java.util.ArrayList<Checkpoint> kept = new java.util.ArrayList<Checkpoint>();
+      checkpointBytes = 0;
+      int i;
+      for ( i = 0; i < checkpoints.size(); i += 2 ) {
+        kept.add(checkpoints.get(i));
+        checkpointBytes += checkpoints.get(i).getSize();
+      }
+      checkpoints = kept;
+      checkpointInterval *= 2;
+    }
+    nextCheckpoint = checkpoints.get(checkpoints.size() - 1).getReferences()
+    + checkpointInterval;
+  }
+
+  /********************************************************
+  * Keeps processing references until a fault occurs.
+  * @return FAULT if one occurred, DONE if the input ran out.
+  * @throws IOException if the input cannot be read.
+  ********************************************************/
+  public int runToNextFault () throws IOException {
+    int check;
+    while ( ( check = step() ) == HIT || check == EXIT ) {
+      // Keep reading.
+    }
+    return check;
+  }
+
+  /********************************************************
+  * Keeps processing references until a breakpoint's
+  * condition holds. The breakpoint listens only for the
+  * length of the run.
+  * @param stop is the breakpoint.
+  * @return the result of the last step, DONE if the input
+  * ran out first.
+  * @throws IOException if the input cannot be read.
+  ********************************************************/
+  public int runUntil ( Breakpoint stop ) throws IOException {
+    int check = HIT;
+    addListener(stop);
+    try {
+      while ( !stop.isTriggered() && ( check = step() ) != DONE ) {
+        // Keep reading.
+      }
+    } finally {
+      removeListener(stop);
+    }
+    return check;
+  }
+
+  /**********************************************
+  * Processes references until the input is done.
+  * @throws IOException if the input cannot be read.
+  **********************************************/
+  public void runToCompletion () throws IOException {
+    while ( step() != DONE ) {
+      // Keep reading.
+    }
+  }
+
+  /*****************************************************************
+  * Handles the given reference and takes care of page faults.
+  * @param procNum is the process reading in a page.
+  * @param pageNum is the page being read.
+  * @return true if the reference caused a page fault, false otherwise.
+  *****************************************************************/
+  public boolean reference ( int procNum, int pageNum ) {
+
+    int frame;
+    references++;
+    table.updateProcessRefCount(procNum);
+
+    if ( (frame = table.lookupFrame(procNum, pageNum)) >= 0 ) { // In memory
+
+      // Tell the replacement policy the frame was used again.
+      table.touchCandidateFrame(frame);
+
+      int i;
+      for ( i = 0; i < listeners.length; i++ ) {
+        listeners[i].pageHit(procNum, pageNum, frame);
+      }
+      return false;
+    }
+
+    faults++;
+    table.updateProcessFaultCount(procNum);
+
+    if ( (frame = table.checkFreeFrame()) >= 0 ) {
+      handleFreeFrameAvailable(procNum, pageNum, frame);
+    } else {
+      handlePageReplacement(procNum, pageNum);
+    }
+    return true;
+  }
+
+  /*****************************************************************
+  * Ends a process and gives its frames back to the free pool.
+  * @param pid is the process that exited.
+  * @return the number of frames released.
+  *****************************************************************/
+  public int exit ( int pid ) {
+    int released = table.releaseProcess(pid);
+    int i;
+    for ( i = 0; i < listeners.length; i++ ) {
+      listeners[i].processExited(pid, released);
+    }
+    return released;
+  }
+
+  /****************************************************
+  * Handles the case of a page fault with free frames
+  * being available.
+  * @param pid is the PID of the process.
+  * @param page is the page being brought in.
+  * @param freeFrame is the frame that is available.
+  *****************************************************/
+  private void handleFreeFrameAvailable( int pid, int page, int freeFrame ) {
+
+    table.updateFrameTable(freeFrame, pid, page);
+    table.updatePageTable(false, pid, page, freeFrame);
+
+    // Add the reference frame to the replacement policy as a candidate.
+    table.addCandidateFrame(freeFrame);
+
+    int i;
+    for ( i = 0; i < listeners.length; i++ ) {
+      listeners[i].pageLoaded(pid, page, freeFrame);
+    }
+  }
+
+  /****************************************************
+  * Handles the case of replacing a page when a page fault
+  * occurs and there are no free frame availables.
+  * Picks a victim and updates the tables accordingly.
+  * @param procNum is the PID of the process.
+  * @param pageNum is the page being brought in.
+  *****************************************************/
+  private void handlePageReplacement( int procNum, int pageNum ) {
+
+    // Find a victim.
+    int victimFrame = table.pickVictim();
+    int pid = table.framePID(victimFrame);
+    int page = table.framePage(victimFrame);
+
+    // Send the victim a message to update their page table.
+    table.updatePageTable(true, pid, page, victimFrame);
+
+    // Send a message to the replacing process to update their page table.
+    table.updatePageTable(false, procNum, pageNum, victimFrame);
+
+    // Update the frame table.
+    table.updateFrameTable(victimFrame, procNum, pageNum);
+
+    // Add the reference frame to the replacement policy as a candidate.
+    table.addCandidateFrame(victimFrame);
+
+    int i;
+    for ( i = 0; i < listeners.length; i++ ) {
+      listeners[i].pageReplaced(procNum, pageNum, victimFrame, pid, page);
+    }
+  }
+
+  /************************************************
+  * Marks the input as done and notifies listeners
+  * the first time it happens.
+  ************************************************/
+  private void finish () {
+    if ( done ) {
+      return;
+    }
+    done = true;
+    int i;
+    for ( i = 0; i < listeners.length; i++ ) {
+      listeners[i].simulationDone();
+    }
+  }
+
+  /*******************************************
+  * Reports whether the input is done.
+  * @return true once the input is exhausted.
+  *******************************************/
+  public boolean isDone () {
+    return this.done;
+  }
+
+  /*******************************************
+  * Reports the total number of references.
+  * @return the reference count.
+  *******************************************/
+  public long getReferences () {
+    return this.references;
+  }
+
+  /*******************************************
+  * Reports the number of checkpoints kept.
+  * @return the checkpoint count.
+  *******************************************/
+  public int getCheckpointCount () {
+    return checkpoints == null ? 0 : checkpoints.size();
+  }
+
+  /*******************************************
+  * Reports the deflated bytes of the checkpoints.
+  * @return the size of the checkpoints.
+  *******************************************/
+  public long getCheckpointBytes () {
+    return this.checkpointBytes;
+  }
+
+  /*******************************************
+  * Reports the references between checkpoints,
+  * 0 if they are not enabled.
+  * @return the interval.
+  *******************************************/
+  public long getCheckpointInterval () {
+    return this.checkpointInterval;
+  }
+
+  /*******************************************
+  * Reports the total number of page faults.
+  * @return the fault count.
+  *******************************************/
+  public long getFaults () {
+    return this.faults;
+  }
+
+  /*********************************************
+  * Reports the tables the engine operates on.
+  * @return the tables.
+  *********************************************/
+  public Tables getTables () {
+    return this.table;
+  }
+}
@@ -0,0 +1,47 @@
+/*************************************************************
+* Receives notifications from the simulation engine as memory
+* references are processed.
+* The GUI subscribes through the controller; headless runs
+* need not register any listener at all.
+* @since 10/18/2026
+*************************************************************/
+public interface SimulationListener {
+
+  /****************************************************
+  * A referenced page was already in memory.
+  * @param pid is the process that made the reference.
+  * @param page is the page that was referenced.
+  * @param frame is the frame holding the page.
+  ****************************************************/
+  void pageHit ( int pid, int page, int frame );
+
+  /****************************************************
+  * A page fault was served from a free frame.
+  * @param pid is the process that made the reference.
+  * @param page is the page that was brought in.
+  * @param frame is the free frame that now holds it.
+  ****************************************************/
+  void pageLoaded ( int pid, int page, int frame );
+
+  /********************************************************
+  * A page fault was served by replacing a victim's page.
+  * @param pid is the process that made the reference.
+  * @param page is the page that was brought in.
+  * @param frame is the victim frame that now holds it.
+  * @param victimPid is the process whose page was evicted.
+  * @param victimPage is the page that was evicted.
+  ********************************************************/
+  void pageReplaced ( int pid, int page, int frame, int victimPid, int victimPage );
+
+  /****************************************************
+  * A process exited and its frames were freed.
+  * @param pid is the process that exited.
+  * @param released is the number of frames freed.
+  ****************************************************/
+  void processExited ( int pid, int released );
+
+  /****************************************************
+  * The input ran out; final stats are ready.
+  ****************************************************/
+  void simulationDone ();
+}
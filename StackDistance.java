@@ -0,0 +1,474 @@
+import java.io.IOException;
+/******************************************************************
+* Single-pass LRU stack-distance analysis.
+* LRU has the inclusion property: the pages in n frames are always
+* among those in n + 1 frames. A reference therefore hits in every
+* memory of at least d frames, where d is its stack distance, the
+* number of distinct pages referenced since the last reference to
+* the same page, itself included. Recording a histogram of
+* distances in one pass gives LRU's fault count for every frame
+* count at once: faults(n) = cold misses + references with d > n.
+*
+* Each page keeps the time of its last reference, and a Fenwick
+* tree over times marks the times that are still some page's last
+* reference, so d is one plus the number of marks after the page's
+* previous time, in O(log) per reference. When the times run past
+* the tree, the live marks are renumbered 0..m-1, so the tree only
+* ever needs a few times as many slots as there are distinct pages.
+*
+* Distances are global, as in the simulator's global allocation;
+* each process also gets its own histogram of the global distances
+* of its references, so per-process curves add up to the total.
+*
+* An exit frees the process's frames, so its pages leave the stack,
+* but each leaves a hole where it was: in every memory deep enough
+* to hold the page, the hole is a free frame. Holes stay marked in
+* the tree and count towards distances. A page moving to the top
+* pushes the pages above it down only as far as the nearest hole,
+* which it fills, the way a fault takes a free frame instead of
+* evicting; its old place becomes the hole instead. A first
+* reference likewise fills the nearest hole. The curve then matches
+* the simulator on traces with exits, and a PID reused after an
+* exit starts cold.
+* @since 10/18/2026
+******************************************************************/
+public class StackDistance implements MissRatioCurve {
+
+  /** The time of each page's last reference. */
+  private PositionMap last;
+
+  /** The Fenwick tree marking times that are a last reference. */
+  private int [] tree;
+
+  /** The next time to hand out. */
+  private int now;
+
+  /** The Fenwick tree marking the times that are holes. */
+  private int [] holeTree;
+
+  /** The number of pages on the stack. */
+  private int distinct;
+
+  /** The number of holes; the tree holds distinct + holes marks. */
+  private int holes;
+
+  /** The pages each process put on the stack, indexed [pid][i]. */
+  private int [][] pages;
+
+  /** The number of entries in each process's page list. */
+  private int [] pageCounts;
+
+  /** The number of each process's pages still on the stack. */
+  private int [] stacked;
+
+  /** Counts of references per distance, indexed [pid][distance]. */
+  private long [][] histogram;
+
+  /** First references, which miss at every size, indexed by pid. */
+  private long [] cold;
+
+  /** References, indexed by pid. */
+  private long [] references;
+
+  /** The largest distance seen. */
+  private int maxDistance;
+
+  /*************************************************
+  * Instantiates an empty analysis.
+  * @param processes is the number of processes expected;
+  * higher PIDs are still accepted.
+  *************************************************/
+  public StackDistance ( int processes ) {
+    this.last = new PositionMap();
+    this.tree = new int [1024];
+    this.holeTree = new int [1024];
+    this.histogram = new long [processes + 1][];
+    this.cold = new long [processes + 1];
+    this.references = new long [processes + 1];
+    this.pages = new int [processes + 1][];
+    this.pageCounts = new int [processes + 1];
+    this.stacked = new int [processes + 1];
+  }
+
+  /*************************************************
+  * Analyses every reference and exit of a source.
+  * @param input is the trace; it is closed after.
+  * @param processes is the number of processes expected.
+  * @return the finished analysis.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  public static StackDistance analyze ( ReferenceSource input, int processes )
+  throws IOException {
+    StackDistance sd = new StackDistance(processes);
+    try {
+      while ( input.next() ) {
+        if ( input.page() == ReferenceSource.EXIT ) {
+          sd.exit(input.pid());
+        } else {
+          sd.reference(input.pid(), input.page());
+        }
+      }
+    } finally {
+      input.close();
+    }
+    return sd;
+  }
+
+  /*************************************************
+  * Records one reference.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  * @return the stack distance, 0 for a first reference.
+  *************************************************/
+  public int reference ( int pid, int page ) {
+    if ( this.now == this.tree.length ) {
+      renumber();
+    }
+    if ( pid >= this.cold.length ) {
+      growProcesses(pid);
+    }
+    this.references[pid]++;
+    int t = this.now++;
+    long previous = this.last.swap(FrameIndex.pack(pid, page), t);
+    int d;
+    int hole = this.holes > 0 ? lastHole() : -1;
+    if ( previous == PositionMap.ABSENT ) {
+      this.distinct++;
+      this.cold[pid]++;
+      remember(pid, page);
+      d = 0;
+      if ( hole >= 0 ) {
+        fillHole(hole);
+      }
+    } else {
+      int p = (int) previous;
+      // Every mark is at or before p or after it, and the page's own
+      // mark at p counts as part of its distance.
+      d = this.distinct + this.holes - prefix(this.tree, p) + 1;
+      count(pid, d);
+      if ( hole > p ) {
+        // The page fills the hole and leaves one at p, its mark staying.
+        fillHole(hole);
+        add(this.holeTree, p, 1);
+        this.holes++;
+      } else {
+        add(this.tree, p, -1);
+      }
+    }
+    add(this.tree, t, 1);
+    return d;
+  }
+
+  /*************************************************
+  * Records a process's exit: its pages leave the
+  * stack, each leaving a hole.
+  * @param pid is the PID of the process.
+  *************************************************/
+  public void exit ( int pid ) {
+    if ( pid >= this.cold.length ) {
+      return;
+    }
+    int [] list = this.pages[pid];
+    int i;
+    for ( i = 0; i < this.pageCounts[pid]; i++ ) {
+      long previous = this.last.remove(FrameIndex.pack(pid, list[i]));
+      if ( previous != PositionMap.ABSENT ) {
+        add(this.holeTree, (int) previous, 1);
+        this.holes++;
+        this.distinct--;
+      }
+    }
+    this.pageCounts[pid] = 0;
+    this.stacked[pid] = 0;
+  }
+
+  /*************************************************
+  * Drops a page from the stack, e.g. when a sampler
+  * stops tracking it. Its next reference is cold.
+  * @param pid is the PID of the process.
+  * @param page is the page number.
+  *************************************************/
+  public void forget ( int pid, int page ) {
+    long previous = this.last.remove(FrameIndex.pack(pid, page));
+    if ( previous != PositionMap.ABSENT ) {
+      add(this.tree, (int) previous, -1);
+      this.distinct--;
+      this.stacked[pid]--;
+    }
+  }
+
+  /*************************************************
+  * Reports LRU's faults for all processes.
+  * @param frames is the number of frames.
+  * @return the fault count.
+  *************************************************/
+  public long faults ( int frames ) {
+    long total = 0;
+    int pid;
+    for ( pid = 0; pid < this.cold.length; pid++ ) {
+      total += faults(pid, frames);
+    }
+    return total;
+  }
+
+  /*************************************************
+  * Reports LRU's faults for one process.
+  * @param pid is the PID of the process.
+  * @param frames is the number of frames.
+  * @return the fault count.
+  *************************************************/
+  public long faults ( int pid, int frames ) {
+    if ( pid >= this.cold.length ) {
+      return 0;
+    }
+    long total = this.cold[pid];
+    long [] h = this.histogram[pid];
+    if ( h != null ) {
+      int d;
+      for ( d = Math.max(frames + 1, 1); d < h.length; d++ ) {
+        total += h[d];
+      }
+    }
+    return total;
+  }
+
+  /*************************************************
+  * Reports the references of all processes.
+  * @return the reference count.
+  *************************************************/
+  public long getReferences () {
+    long total = 0;
+    int pid;
+    for ( pid = 0; pid < this.references.length; pid++ ) {
+      total += this.references[pid];
+    }
+    return total;
+  }
+
+  /*************************************************
+  * Reports the references of one process.
+  * @param pid is the PID of the process.
+  * @return the reference count.
+  *************************************************/
+  public long getReferences ( int pid ) {
+    return pid < this.references.length ? this.references[pid] : 0;
+  }
+
+  /*************************************************
+  * Reports the largest stack distance seen; with at
+  * least this many frames only cold misses remain.
+  * @return the largest distance.
+  *************************************************/
+  public int getMaxDistance () {
+    return this.maxDistance;
+  }
+
+  /*************************************************
+  * Reports the number of distinct pages referenced;
+  * a page referenced again by a new process under an
+  * exited PID counts again.
+  * @return the distinct page count.
+  *************************************************/
+  public int getDistinctPages () {
+    long total = 0;
+    int pid;
+    for ( pid = 0; pid < this.cold.length; pid++ ) {
+      total += this.cold[pid];
+    }
+    return (int) Math.min(Integer.MAX_VALUE, total);
+  }
+
+  /*************************************************
+  * Reports the number of pages on the stack now.
+  * @return the stacked page count.
+  *************************************************/
+  public int getStackedPages () {
+    return this.distinct;
+  }
+
+  /*************************************************
+  * Adds a reference to a process's histogram.
+  *************************************************/
+  private void count ( int pid, int d ) {
+    long [] h = this.histogram[pid];
+    if ( h == null || d >= h.length ) {
+      int size = Math.max(64, Integer.highestOneBit(d) << 1);
+      h = h == null ? new long [size] : java.util.Arrays.copyOf(h, size);
+      this.histogram[pid] = h;
+    }
+    h[d]++;
+    if ( d > this.maxDistance ) {
+      this.maxDistance = d;
+    }
+  }
+
+  /*************************************************
+  * Makes room for a PID beyond the expected ones.
+  *************************************************/
+  private void growProcesses ( int pid ) {
+    int size = pid + 1;
+    this.histogram = java.util.Arrays.copyOf(this.histogram, size);
+    this.cold = java.util.Arrays.copyOf(this.cold, size);
+    this.references = java.util.Arrays.copyOf(this.references, size);
+    this.pages = java.util.Arrays.copyOf(this.pages, size);
+    this.pageCounts = java.util.Arrays.copyOf(this.pageCounts, size);
+    this.stacked = java.util.Arrays.copyOf(this.stacked, size);
+  }
+
+  /*************************************************
+  * Adds a page to its process's list, first dropping
+  * the pages forgotten since, once they are half the
+  * list, so the lists stay as small as the stack.
+  *************************************************/
+  private void remember ( int pid, int page ) {
+    int [] list = this.pages[pid];
+    int n = this.pageCounts[pid];
+    if ( list == null || n == list.length ) {
+      if ( n > 2 * this.stacked[pid] ) {
+        int kept = 0;
+        int i;
+        for ( i = 0; i < n; i++ ) {
+          if ( this.last.get(FrameIndex.pack(pid, list[i])) != PositionMap.ABSENT ) {
+            list[kept++] = list[i];
+          }
+        }
+        n = kept;
+      } else {
+        list = list == null ? new int [16] : java.util.Arrays.copyOf(list, 2 * n);
+        this.pages[pid] = list;
+      }
+    }
+    list[n] = page;
+    this.pageCounts[pid] = n + 1;
+    this.stacked[pid]++;
+  }
+
+  /*************************************************
+  * Removes a hole and its mark.
+  *************************************************/
+  private void fillHole ( int hole ) {
+    add(this.holeTree, hole, -1);
+    add(this.tree, hole, -1);
+    this.holes--;
+  }
+
+  /*************************************************
+  * Finds the most recent hole, walking down the hole
+  * tree to the mark that completes its count.
+  * @return the time of the hole.
+  *************************************************/
+  private int lastHole () {
+    int k = this.holes;
+    int pos = 0;
+    int step;
+    for ( step = this.holeTree.length >>> 1; step > 0; step >>>= 1 ) {
+      // holeTree[pos + step - 1] covers times pos .. pos + step - 1.
+      if ( this.holeTree[pos + step - 1] < k ) {
+        k -= this.holeTree[pos + step - 1];
+        pos += step;
+      }
+    }
+    return pos;
+  }
+
+  /*************************************************
+  * Renumbers the marked times, last references and
+  * holes, 0..m-1 in their current order and rebuilds
+  * the trees, growing them so at least half of them
+  * is free for new times.
+  *************************************************/
+  private void renumber () {
+    int m = this.distinct + this.holes;
+    long [] order = new long [m];
+    int n = 0;
+    int slot;
+    for ( slot = 0; slot < this.last.slots(); slot++ ) {
+      if ( this.last.isUsed(slot) ) {
+        order[n++] = (this.last.positionAt(slot) << 32) | slot;
+      }
+    }
+    // Holes go in with slot -1, i.e. all ones in the low half.
+    int [] isHole = points(this.holeTree);
+    int i;
+    for ( i = 0; i < this.now; i++ ) {
+      if ( isHole[i] > 0 ) {
+        order[n++] = ((long) i << 32) | 0xFFFFFFFFL;
+      }
+    }
+    java.util.Arrays.sort(order);
+
+    int size = this.tree.length;
+    while ( size < 2 * m ) {
+      size *= 2;
+    }
+    int [] marks = new int [size];
+    int [] holeMarks = new int [size];
+    for ( i = 0; i < m; i++ ) {
+      marks[i] = 1;
+      if ( (int) order[i] == -1 ) {
+        holeMarks[i] = 1;
+      } else {
+        this.last.setPositionAt((int) order[i], i);
+      }
+    }
+    this.tree = build(marks);
+    this.holeTree = build(holeMarks);
+    this.now = m;
+  }
+
+  /*************************************************
+  * Builds a tree over point counts in linear time,
+  * in place.
+  * @param counts is the count at each time.
+  * @return the tree.
+  *************************************************/
+  private static int [] build ( int [] counts ) {
+    int i;
+    for ( i = 0; i < counts.length; i++ ) {
+      int parent = i | (i + 1);
+      if ( parent < counts.length ) {
+        counts[parent] += counts[i];
+      }
+    }
+    return counts;
+  }
+
+  /*************************************************
+  * Recovers the point counts of a tree, undoing build
+  * on a copy.
+  * @param tree is the tree.
+  * @return the count at each time.
+  *************************************************/
+  private static int [] points ( int [] tree ) {
+    int [] counts = tree.clone();
+    int i;
+    for ( i = counts.length - 1; i >= 0; i-- ) {
+      int parent = i | (i + 1);
+      if ( parent < counts.length ) {
+        counts[parent] -= counts[i];
+      }
+    }
+    return counts;
+  }
+
+  /*************************************************
+  * Adds to the mark count at a time.
+  *************************************************/
+  private static void add ( int [] tree, int i, int delta ) {
+    for ( ; i < tree.length; i |= i + 1 ) {
+      tree[i] += delta;
+    }
+  }
+
+  /*************************************************
+  * Counts the marks at times 0..i.
+  * @return the count.
+  *************************************************/
+  private static int prefix ( int [] tree, int i ) {
+    int sum = 0;
+    for ( ; i >= 0; i = (i & (i + 1)) - 1 ) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,87 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+/******************************************************************
+* Chooses where the large simulation tables live, at startup:
+* - heap (the default): plain Java arrays;
+* - direct: direct ByteBuffers outside the heap, up to
+*   -XX:MaxDirectMemorySize;
+* - mapped: memory-mapped temp files in vimpares.storage.dir
+*   (java.io.tmpdir by default), so the OS can page tables out.
+* The mode comes from the vimpares.storage property. Tables smaller
+* than vimpares.storage.minBytes (1MB by default) always stay on
+* the heap, since only the big ones matter for GC and heap size.
+* A mapped file is deleted as soon as it is mapped; the mapping
+* lives on until its buffer is collected, and the space with it.
+* @since 10/18/2026
+******************************************************************/
+public class Storage {
+
+  /** The mode keeping tables in Java arrays. */
+  public static final String HEAP = "heap";
+
+  /** The mode keeping tables in direct buffers. */
+  public static final String DIRECT = "direct";
+
+  /** The mode keeping tables in mapped temp files. */
+  public static final String MAPPED = "mapped";
+
+  /*************************************************
+  * Reports the configured storage mode.
+  * @return HEAP, DIRECT or MAPPED.
+  * @throws IllegalArgumentException for another mode.
+  *************************************************/
+  public static String mode () {
+    String mode = System.getProperty("vimpares.storage", HEAP).toLowerCase();
+    if ( !mode.equals(HEAP) && !mode.equals(DIRECT) && !mode.equals(MAPPED) ) {
+      throw new IllegalArgumentException("Unknown storage " + mode);
+    }
+    return mode;
+  }
+
+  /*************************************************
+  * Decides whether a table of the given size goes
+  * off the heap.
+  * @param bytes is the size of the table.
+  * @return true to use buffers from allocate().
+  *************************************************/
+  public static boolean offHeap ( long bytes ) {
+    return !mode().equals(HEAP) && bytes >= Long.getLong("vimpares.storage.minBytes", 1L << 20);
+  }
+
+  /*************************************************
+  * Allocates a zeroed off-heap buffer in native
+  * byte order.
+  * @param bytes is the size, at most 1GB.
+  * @return the buffer.
+  * @throws UncheckedIOException if a mapped file
+  * cannot be created.
+  *************************************************/
+  public static ByteBuffer allocate ( int bytes ) {
+    if ( !mode().equals(MAPPED) ) {
+      return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+    try {
+      Path dir = Paths.get(System.getProperty("vimpares.storage.dir",
+      System.getProperty("java.io.tmpdir")));
+      Path file = Files.createTempFile(dir, "vimpares-table", ".bin");
+      FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+      StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+      try {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes)
+        .order(ByteOrder.nativeOrder());
+      } finally {
+        channel.close();
+      }
+    } catch ( IOException e ) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+/******************************************************************
+* Runs one trace under many configurations in parallel.
+* The trace is decoded once into a read-only DecodedTrace. Each
+* frame count, policy and placement combination then gets its own
+* Tables and SimulationEngine on a fork-join pool. The runs share
+* nothing mutable, so they scale with the cores. OPT's next-use
+* index is also read-only and is built once for every OPT run.
+* Each run is seeded exactly like a BatchRunner run, so every cell
+* of the matrix matches the single run with the same options.
+* @since 10/18/2026
+******************************************************************/
+public class Sweep {
+
+  /** The geometry every run shares, apart from frames. */
+  private Geometry geometry;
+
+  /** The decoded references. */
+  private DecodedTrace trace;
+
+  /** The seed for placement and random policies. */
+  private long seed;
+
+  /** The next-use index for OPT, built on first need. */
+  private NextUseIndex nextUse;
+
+  /*************************************************
+  * Instantiates a sweep over a decoded trace.
+  * @param pGeometry gives the page size, address bits
+  * and processes of every run.
+  * @param pTrace is the decoded trace.
+  * @param pSeed seeds placement and random policies.
+  *************************************************/
+  public Sweep ( Geometry pGeometry, DecodedTrace pTrace, long pSeed ) {
+    this.geometry = pGeometry;
+    this.trace = pTrace;
+    this.seed = pSeed;
+  }
+
+  /*************************************************
+  * Runs every combination of the given settings.
+  * @param frames are the frame counts.
+  * @param policies are the policy names.
+  * @param placements are "random" or "sequential".
+  * @param threads is the parallelism of the pool.
+  * @return one result per combination, in the order
+  * frames, then policy, then placement.
+  * @throws IOException if the OPT index cannot spill.
+  *************************************************/
+  public List<Result> run ( int [] frames, String [] policies, String [] placements,
+  int threads ) throws IOException {
+    List<Callable<Result>> runs = new ArrayList<Callable<Result>>();
+    int i, j, k;
+    for ( i = 0; i < frames.length; i++ ) {
+      for ( j = 0; j < policies.length; j++ ) {
+        if ( policies[j].equals("opt") && this.nextUse == null ) {
+          this.nextUse = NextUseIndex.build(this.trace.open());
+        }
+        for ( k = 0; k < placements.length; k++ ) {
+          final int f = frames[i];
+          final String policy = policies[j];
+          final String placement = placements[k];
+          runs.add(new Callable<Result>() {
+            public Result call () throws IOException {
+              return runOne(f, policy, placement);
+            }
+          });
+        }
+      }
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    List<Result> results = new ArrayList<Result>();
+    try {
+      for ( Future<Result> done : pool.invokeAll(runs) ) {
+        results.add(done.get());
+      }
+    } catch ( InterruptedException e ) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Sweep interrupted", e);
+    } catch ( java.util.concurrent.ExecutionException e ) {
+      if ( e.getCause() instanceof IOException ) {
+        throw (IOException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      pool.shutdown();
+    }
+    return results;
+  }
+
+  /*************************************************
+  * Runs one configuration to completion.
+  * @return the result of the run.
+  *************************************************/
+  private Result runOne ( int frames, String policy, String placement ) throws IOException {
+    Geometry g = new Geometry(frames, this.geometry.getPageSize(),
+    this.geometry.getAddressBits(), this.geometry.getProcesses());
+    ReplacementPolicy victims = policy.equals("opt")
+    ? new OPTPolicy(frames, this.nextUse)
+    : Policies.create(policy, frames, new Random(this.seed));
+    Tables tbl = new Tables(g, placement.equals("random") ? new Random(this.seed) : null,
+    victims);
+    SimulationEngine engine = new SimulationEngine(tbl, this.trace.open());
+    long start = System.nanoTime();
+    engine.runToCompletion();
+    return new Result(frames, policy, placement, engine.getReferences(),
+    engine.getFaults(), System.nanoTime() - start);
+  }
+
+  /******************************************************************
+  * The outcome of one configuration.
+  ******************************************************************/
+  public static class Result {
+
+    /** The configuration. */
+    public final int frames;
+    public final String policy, placement;
+
+    /** The reference and fault counts. */
+    public final long references, faults;
+
+    /** The time the run took. */
+    public final long elapsedNanos;
+
+    Result ( int pFrames, String pPolicy, String pPlacement, long pReferences,
+    long pFaults, long pElapsed ) {
+      this.frames = pFrames;
+      this.policy = pPolicy;
+      this.placement = pPlacement;
+      this.references = pReferences;
+      this.faults = pFaults;
+      this.elapsedNanos = pElapsed;
+    }
+
+    /*********************************************
+    * Reports faults per reference for the run.
+    * @return the fault rate.
+    *********************************************/
+    public double faultRate () {
+      return this.references == 0 ? 0.0 : (double) this.faults / this.references;
+    }
+  }
+}
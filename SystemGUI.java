@@ -9,8 +9,6 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Dimension;
 import java.awt.GridLayout;
-
-import java.util.Hashtable;
 /***************************************************
 * The main frame for the state of the entire system.
 * Provides a centralized view of the system.
@@ -48,17 +46,17 @@ public class SystemGUI extends JFrame {
 
   /*****************************************************
   * Instantiates all the panels representing the system.
-  * @param filename is the input file
+  * @param geometry is the memory geometry to display.
   *****************************************************/
-  public SystemGUI() {
+  public SystemGUI( Geometry geometry ) {
 
     super();
 
-    memory = new PhysicalStatePanel();
+    memory = new PhysicalStatePanel(geometry.getFrames());
 
-    pageTable = new PageTableStatePanel();
+    pageTable = new PageTableStatePanel(geometry.getMaxResidentPages());
 
-    stats = new FinalStatsPanel();
+    stats = new FinalStatsPanel(geometry.getProcesses());
 
     commands = new CommandsPanel();
 
@@ -109,13 +107,63 @@ public class SystemGUI extends JFrame {
 
   /***************************************
   * Passes the page table to be displayed.
+  * The panel only rebuilds its rows if it
+  * was showing another process.
   * @param pTable is the page table.
   * @param pid is the pid of the process.
   ****************************************/
-  public void displayPageTable( Hashtable<Integer, Integer> pTable, int pid) {
+  public void displayPageTable( PageTableView pTable, int pid) {
+    pageTable.showTable(pTable, pid);
+  }
+
+  /***************************************
+  * Rebuilds the page table panel's rows.
+  * @param pTable is the page table.
+  * @param pid is the pid of the process.
+  ****************************************/
+  public void redrawPageTable( PageTableView pTable, int pid) {
     pageTable.redrawTable(pTable, pid);
   }
 
+  /***************************************
+  * Passes a newly mapped page to the page
+  * table panel.
+  * @param pid is the pid of the process.
+  * @param page is the page that was mapped.
+  * @param frame is the frame holding it.
+  ****************************************/
+  public void displayPageMapped( int pid, int page, int frame ) {
+    pageTable.pageMapped(pid, page, frame);
+  }
+
+  /***************************************
+  * Passes an unmapped page to the page
+  * table panel.
+  * @param pid is the pid of the process.
+  * @param page is the page that was unmapped.
+  ****************************************/
+  public void displayPageUnmapped( int pid, int page ) {
+    pageTable.pageUnmapped(pid, page);
+  }
+
+  /***************************************
+  * Passes an exited process to the page
+  * table panel.
+  * @param pid is the pid of the process.
+  ****************************************/
+  public void displayProcessExited( int pid ) {
+    pageTable.processExited(pid);
+  }
+
+  /***************************************
+  * Reports the process whose page table
+  * is shown, -1 for none.
+  * @return the PID.
+  ****************************************/
+  public int getPageTablePID() {
+    return pageTable.getPID();
+  }
+
   /*****************************************************
   * Gets a reference to the frame table i.e. current
   * physical state of memory.
@@ -125,7 +173,7 @@ public class SystemGUI extends JFrame {
   * @param frame is frame that potentiall needs to be
   * colored for the user.
   *****************************************************/
-  public void displayFrameTable (Frame [] fTable, boolean fault, int frame) {
+  public void displayFrameTable (FrameTableView fTable, boolean fault, int frame) {
     memory.redrawTable(fTable, fault, frame);
   }
 
@@ -146,6 +194,41 @@ public class SystemGUI extends JFrame {
     stats.displayFinalStats(pcbArray);
   }
 
+  /*****************************************************
+  * Passes the progress of a background run to the
+  * commands panel.
+  * @param fraction is how far through the input the run
+  * is, from 0 to 1, or negative if it is not known.
+  * @param references is the number of references so far.
+  *****************************************************/
+  public void displayProgress ( double fraction, long references ) {
+    commands.setProgress(fraction, references);
+  }
+
+  /*****************************************************
+  * Passes a status message to the commands panel.
+  * @param text is the message.
+  *****************************************************/
+  public void displayStatus ( String text ) {
+    commands.setStatus(text);
+  }
+
+  /*****************************************************
+  * Reports the kind of breakpoint picked by the user.
+  * @return an index into Breakpoint.KINDS.
+  *****************************************************/
+  public int getBreakpointKind () {
+    return commands.getBreakpointKind();
+  }
+
+  /*****************************************************
+  * Reports the breakpoint value typed by the user.
+  * @return the text typed.
+  *****************************************************/
+  public String getBreakpointSpec () {
+    return commands.getBreakpointSpec();
+  }
+
   /*****************************************************
   * Passes the victim to the commands panel.
   * @param vic is info about the victim that was picked.
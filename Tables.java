@@ -1,4 +1,8 @@
-import java.util.Hashtable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import java.util.Random;
 /*********************************************************
 * The Table Manager.
 * Maintains one process/frame table to handle page faults.
@@ -13,34 +17,87 @@ public class Tables {
   /* The frame table. */
   private FrameTable frameTable;
 
-  /* The maximum number of frames. */
-  private final int max = 16;
+  /* The memory geometry shared by both tables. */
+  private final Geometry geometry;
 
   /*******************************************************
   * Instantiates a unified table for frame/process tables.
   * To be used as a unified data structure that initiates
   * all the actions based on input passed from main.
+  * Free frames are placed pseudo-randomly, seeded from the
+  * vimpares.seed property if set so runs can be repeated.
+  * @param geometry is the memory geometry to simulate.
+  ********************************************************/
+  public Tables ( Geometry geometry ) {
+    this(geometry, new Random(Long.getLong("vimpares.seed", System.nanoTime())),
+    System.getProperty("vimpares.policy", "lru"));
+  }
+
+  /*******************************************************
+  * Instantiates a unified table with the named policy.
+  * @param geometry is the memory geometry to simulate.
+  * @param placement picks pseudo-random free frames, or
+  * null to always use the lowest free frame.
+  * @param policy names the replacement policy e.g. "lru".
+  ********************************************************/
+  public Tables ( Geometry geometry, Random placement, String policy ) {
+    this(geometry, placement, Policies.create(policy, geometry.getFrames(),
+    placement == null ? new Random(0) : new Random(placement.nextLong())));
+  }
+
+  /*******************************************************
+  * Instantiates a unified table with the given placement.
+  * @param geometry is the memory geometry to simulate.
+  * @param placement picks pseudo-random free frames, or
+  * null to always use the lowest free frame.
+  * @param policy picks the victims for replacement.
   ********************************************************/
-  public Tables () {
-    this.processTable = new ProcessTable();
-    this.frameTable = new FrameTable();
+  public Tables ( Geometry geometry, Random placement, ReplacementPolicy policy ) {
+    this.geometry = geometry;
+    this.processTable = new ProcessTable(geometry);
+    this.frameTable = new FrameTable(geometry.getFrames(), placement, policy);
+  }
+
+  /*******************************************************
+  * Writes the frame table and the process table for a
+  * checkpoint; see Checkpoint.
+  * @param out is where the tables are written.
+  * @throws IOException if they cannot be written.
+  ********************************************************/
+  public void saveState ( DataOutput out ) throws IOException {
+    this.frameTable.saveState(out);
+    this.processTable.saveState(out);
+  }
+
+  /*******************************************************
+  * Replaces both tables with a state written by saveState
+  * for the same geometry and policy.
+  * @param in is where the tables are read from.
+  * @throws IOException if they cannot be read.
+  ********************************************************/
+  public void restoreState ( DataInput in ) throws IOException {
+    this.frameTable.restoreState(in);
+    this.processTable.restoreState(in);
+  }
+
+  /*********************************************
+  * Reports the memory geometry being simulated.
+  * @return the geometry.
+  *********************************************/
+  public Geometry getGeometry () {
+    return this.geometry;
   }
 
   /***********************************************************
   * Passes a reference to the page table to the controller.
   * To be passed to the GUI for display a process' page table.
   * @param pPid is the PID of the process.
+  * @return a read-only view of the page table, null if the
+  * process is not running.
   ************************************************************/
-  public Hashtable<Integer, Integer> passProcessTable (int pPid) {
-    int i, pid;
-    for ( i = 0; i < 10; i++ ) {
-      pid = this.processTable.getPCBArray()[i].getPID();
-      if ( pid == pPid ) {
-        return this.processTable.getPCBArray()[i].getTable();
-      }
-    }
-    System.out.println("The input might have more than 10 processes!\n");
-    return null;
+  public PageTableView passProcessTable (int pPid) {
+    PCB pcb = this.processTable.find(pPid);
+    return pcb == null ? null : pcb.getTable();
   }
 
   /**************************************************
@@ -48,9 +105,9 @@ public class Tables {
   * physical state of memory.
   * Sends the table to the controller, which in
   * turn passes it to the GUI.
-  * @return an array of frames.
+  * @return a read-only view of the frame table.
   *************************************************/
-  public Frame [] passFrameTable () {
+  public FrameTableView passFrameTable () {
     return this.frameTable.getFrameTable();
   }
 
@@ -70,6 +127,25 @@ public class Tables {
     this.processTable.updatePCBFaultCount(pid);
   }
 
+  /*********************************************************
+  * Ends a process: releases every frame it holds back to
+  * the free pool and takes it out of the process table.
+  * Walks the frame table's list of the process's frames,
+  * so the cost follows its resident set rather than the
+  * size of memory or of its page table.
+  * @param pid is the PID of the process.
+  * @return the number of frames released.
+  *********************************************************/
+  public int releaseProcess ( int pid ) {
+    PCB pcb = this.processTable.remove(pid);
+    if ( pcb == null ) {
+      return 0;
+    }
+    int released = this.frameTable.releaseProcess(pid);
+    pcb.exit();
+    return released;
+  }
+
   /******************************************************
   * Checks if the page is already in the table.
   * @param pid is the process that owns the page.
@@ -93,6 +169,16 @@ public class Tables {
     this.processTable.updatePCB(exists, pid, page, frame);
   }
 
+  /******************************************************
+  * Finds the frame holding a page with a single probe.
+  * @param pid is the process that owns the page.
+  * @param page the page that was referenced.
+  * @return the frame number, -1 if the page is not in memory.
+  ******************************************************/
+  public int lookupFrame(int pid, int page) {
+    return this.frameTable.lookupFrame(pid, page);
+  }
+
   /****************************************************
   * Checks if there are any empty frames in the table.
   * @return the number of the free frame.
@@ -101,50 +187,59 @@ public class Tables {
     return this.frameTable.getFreeFrame();
   }
 
-  /************************************************************
-  * Searches for which frame is associated with a PID/page pair.
-  * The function is used when the page is already in memory or
-  * a potential replacement.
-  * @return the triple of PID,page, and frame number;
-  /************************************************************/
-  public int [] searchAssociatedFrame(int pid, int page) {
-    return this.frameTable.searchPotentialReplacement(pid, page);
-  }
-
   /***************************************
-  * Adds a frame to the replacement queue.
+  * Adds a frame to the replacement queue
+  * after a page was loaded into it.
   * @param frame is the frame to be added.
   ****************************************/
   public void addCandidateFrame(int frame) {
     this.frameTable.addCandidate(frame);
   }
 
+  /***************************************
+  * Tells the replacement policy a resident
+  * frame was referenced again.
+  * @param frame is the frame that was hit.
+  ****************************************/
+  public void touchCandidateFrame(int frame) {
+    this.frameTable.touchCandidate(frame);
+  }
+
+  /*********************************************
+  * Reports the name of the replacement policy.
+  * @return the policy name e.g. "LRU".
+  *********************************************/
+  public String getPolicyName () {
+    return this.frameTable.getPolicy().getName();
+  }
+
   /********************************************
-  * Picks a victim for  LRU page replacement.
+  * Picks a victim for page replacement.
+  * Its PID and page stay readable through
+  * framePID and framePage until the frame is
+  * updated.
   * @return the frame that needs to be updated.
   *********************************************/
-  public int [] pickVictim () {
-    int [] victimInfo = new int[3];
-    victimInfo[0] = this.frameTable.pickLRUCandidate();
-
-    // Search for the victim's pid and pair
-    int i;
-    for ( i = 0; i < max; i++ ) {
-      if ( i == victimInfo[0] ) { // We've found the correct frame.
-        victimInfo[1] = this.frameTable.getFrameTable()[i].getPID();
-        victimInfo[2] = this.frameTable.getFrameTable()[i].getPage();
-      }
-    }
-    return victimInfo;
+  public int pickVictim () {
+    return this.frameTable.pickCandidate();
+  }
+
+  /**********************************************************
+  * Reports the process owning a frame's page.
+  * @param frame is the frame number.
+  * @return the PID, -1 for a free frame.
+  ***********************************************************/
+  public int framePID ( int frame ) {
+    return this.frameTable.getPID(frame);
   }
 
   /**********************************************************
-  * Reports the PID/page pair associated with a victim frame.
-  * @param frame is the frame associated with the pair.
-  * @return the PID and page of the victim.
+  * Reports the page held in a frame.
+  * @param frame is the frame number.
+  * @return the page number, -1 for a free frame.
   ***********************************************************/
-  public int [] searchVictimPair (int frame ) {
-    return this.frameTable.searchVictim(frame);
+  public int framePage ( int frame ) {
+    return this.frameTable.getPage(frame);
   }
 
   /*****************************************************
@@ -0,0 +1,89 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+/******************************************************************
+* Converts a text trace (*.data) into the binary format (*.vmt).
+* Usage: java TraceConverter [--page-size N] [--address-bits N]
+*        [--processes N] input.data output.vmt
+* Unset geometry options fall back to the vimpares.* properties.
+* The binary trace can then be passed anywhere a text trace is
+* accepted; readers tell the formats apart by the magic number.
+* @since 10/18/2026
+******************************************************************/
+public class TraceConverter {
+
+  /** The usage message printed on bad arguments. */
+  private static final String USAGE =
+  "Usage: java TraceConverter [--page-size N] [--address-bits N] [--processes N]"
+  + " input.data output.vmt";
+
+  public static void main ( String[] args ) {
+
+    Geometry defaults = Geometry.fromSystemProperties();
+    int pageSize = defaults.getPageSize();
+    int addressBits = defaults.getAddressBits();
+    int processes = defaults.getProcesses();
+    String input = null, output = null;
+
+    int i;
+    try {
+      for ( i = 0; i < args.length; i++ ) {
+        switch ( args[i] ) {
+          case "--page-size": pageSize = Integer.parseInt(args[++i]);
+                  break;
+          case "--address-bits": addressBits = Integer.parseInt(args[++i]);
+                  break;
+          case "--processes": processes = Integer.parseInt(args[++i]);
+                  break;
+          default:
+            if ( input == null ) {
+              input = args[i];
+            } else if ( output == null ) {
+              output = args[i];
+            } else {
+              throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+        }
+      }
+      if ( output == null ) {
+        throw new IllegalArgumentException("Input and output files are required.");
+      }
+    } catch ( RuntimeException e ) {
+      System.err.println(e.getMessage());
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+
+    Geometry geometry = new Geometry(defaults.getFrames(), pageSize, addressBits,
+    processes);
+    try {
+      long count = convert(input, output, geometry);
+      System.out.println("Wrote " + count + " records to " + output);
+    } catch ( IOException e ) {
+      System.err.println("Could not convert " + input + ": " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /*****************************************************
+  * Converts a text trace into a binary trace.
+  * @param input is the text trace.
+  * @param output is the binary trace to be written.
+  * @param geometry is the geometry of the trace.
+  * @return the number of references converted.
+  * @throws IOException if either file cannot be used.
+  *****************************************************/
+  public static long convert ( String input, String output, Geometry geometry )
+  throws IOException {
+    ReferenceSource in = new MappedTraceReader(Paths.get(input), geometry);
+    BinaryTraceWriter out = new BinaryTraceWriter(Paths.get(output), geometry);
+    try {
+      while ( in.next() ) {
+        out.write(in.pid(), in.page());
+      }
+    } finally {
+      in.close();
+      out.close();
+    }
+    return out.getCount();
+  }
+}
@@ -0,0 +1,499 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+/******************************************************************
+* A sparse index of a trace file: the offset of every Nth reference,
+* as reported by the trace's ReferenceSource, plus how many
+* references each PID makes in each block of N references.
+* With it a reader can start at any reference after skipping less
+* than a block, the trace can be split into ranges that are read in
+* parallel, and a PID's reference count is a sum over the blocks
+* rather than a scan of the trace.
+*
+* Block b starts right after reference b*N, i.e. where seek() would
+* resume after it, and holds the records up to and including
+* reference (b+1)*N, exit records among them. Only the last block
+* may be short.
+*
+* Building the index reads the trace once. It is then cached next
+* to the trace as trace.index, and reused as long as the trace has
+* the same size and modification time and is read with the same
+* geometry, since the geometry decides which lines are skipped.
+* @since 10/18/2026
+******************************************************************/
+public class TraceIndex {
+
+  /** The references per block of a new index. */
+  public static final int DEFAULT_INTERVAL = 1 << 16;
+
+  /** The suffix of a cached index file. */
+  public static final String SUFFIX = ".index";
+
+  /** The magic number that opens every index file, "VMTX". */
+  private static final int MAGIC = 0x564D5458;
+
+  /** The current index file version. */
+  private static final int VERSION = 1;
+
+  /** The references per block. */
+  private int interval;
+
+  /** The number of blocks. */
+  private int blocks;
+
+  /** The trace offset at which each block starts, and the end. */
+  private long [] offsets;
+
+  /** The index of each block's first record, and the total. */
+  private long [] recordStarts;
+
+  /** Where each block's PID counts start in pids and counts. */
+  private int [] countStarts;
+
+  /** The PIDs referenced in each block, ascending. */
+  private int [] pids;
+
+  /** The references each of those PIDs makes in the block. */
+  private int [] counts;
+
+  /** The references of each PID over the whole trace. */
+  private long [] totals;
+
+  /** The references in the trace. */
+  private long references;
+
+  /*************************************************
+  * Instantiates an empty index, filled by build or
+  * read.
+  *************************************************/
+  private TraceIndex () {
+  }
+
+  /*************************************************
+  * Reads a source to its end, recording an offset
+  * every interval references.
+  * @param input is the trace; it is closed after.
+  * @param pInterval is the references per block.
+  * @param processes bounds the PIDs in the trace.
+  * @return the index.
+  * @throws IOException if the trace cannot be read.
+  * @throws IllegalArgumentException if the source
+  * cannot report offsets.
+  *************************************************/
+  public static TraceIndex build ( ReferenceSource input, int pInterval, int processes )
+  throws IOException {
+    if ( pInterval <= 0 ) {
+      throw new IllegalArgumentException("The index interval must be positive");
+    }
+    TraceIndex index = new TraceIndex();
+    index.interval = pInterval;
+    index.totals = new long [processes + 1];
+    LongList offsets = new LongList();
+    LongList recordStarts = new LongList();
+    LongList entries = new LongList();
+    LongList countStarts = new LongList();
+    int [] blockCounts = new int [processes + 1];
+    int [] touched = new int [Math.min(processes, pInterval)];
+    int nTouched = 0;
+    long records = 0;
+    int inBlock = 0;
+    try {
+      if ( input.offset() < 0 ) {
+        throw new IllegalArgumentException("The trace cannot report offsets");
+      }
+      offsets.add(input.offset());
+      recordStarts.add(0);
+      countStarts.add(0);
+      while ( input.next() ) {
+        records++;
+        if ( input.page() == ReferenceSource.EXIT ) {
+          continue;
+        }
+        int pid = input.pid();
+        if ( blockCounts[pid]++ == 0 ) {
+          touched[nTouched++] = pid;
+        }
+        index.totals[pid]++;
+        index.references++;
+        if ( ++inBlock == pInterval ) {
+          nTouched = closeBlock(blockCounts, touched, nTouched, entries);
+          offsets.add(input.offset());
+          recordStarts.add(records);
+          countStarts.add(entries.size());
+          inBlock = 0;
+        }
+      }
+      if ( records > recordStarts.get(recordStarts.size() - 1) ) {
+        closeBlock(blockCounts, touched, nTouched, entries);
+        offsets.add(input.offset());
+        recordStarts.add(records);
+        countStarts.add(entries.size());
+      }
+    } finally {
+      input.close();
+    }
+    index.blocks = offsets.size() - 1;
+    index.offsets = offsets.toArray();
+    index.recordStarts = recordStarts.toArray();
+    index.countStarts = new int [countStarts.size()];
+    int i;
+    for ( i = 0; i < index.countStarts.length; i++ ) {
+      index.countStarts[i] = (int) countStarts.get(i);
+    }
+    index.pids = new int [entries.size()];
+    index.counts = new int [entries.size()];
+    for ( i = 0; i < index.pids.length; i++ ) {
+      index.pids[i] = (int) (entries.get(i) >>> 32);
+      index.counts[i] = (int) entries.get(i);
+    }
+    return index;
+  }
+
+  /*************************************************
+  * Moves a block's PID counts to the entries, in
+  * PID order, and clears them for the next block.
+  * @return the number of touched PIDs left, zero.
+  *************************************************/
+  private static int closeBlock ( int [] blockCounts, int [] touched, int nTouched,
+  LongList entries ) {
+    java.util.Arrays.sort(touched, 0, nTouched);
+    int i;
+    for ( i = 0; i < nTouched; i++ ) {
+      entries.add(FrameIndex.pack(touched[i], blockCounts[touched[i]]));
+      blockCounts[touched[i]] = 0;
+    }
+    return 0;
+  }
+
+  /*************************************************
+  * Loads the cached index of a trace file, or builds
+  * and caches it if there is none or it is stale.
+  * A cache that cannot be written is skipped; the
+  * index is still returned.
+  * @param trace is the trace file.
+  * @param geometry is the geometry it is read with.
+  * @return the index.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  public static TraceIndex load ( Path trace, Geometry geometry ) throws IOException {
+    TraceIndex index = cached(trace, geometry);
+    if ( index != null ) {
+      return index;
+    }
+    Path cache = cachePath(trace);
+    long size = Files.size(trace);
+    long modified = Files.getLastModifiedTime(trace).toMillis();
+    index = build(Main.openInput(trace.toString(), geometry), DEFAULT_INTERVAL,
+    geometry.getProcesses());
+    try {
+      index.write(cache, size, modified, geometry);
+    } catch ( IOException e ) {
+      // The cache is only a shortcut, e.g. the directory may be read-only.
+    }
+    return index;
+  }
+
+  /*************************************************
+  * Loads the cached index of a trace file without
+  * building one.
+  * @param trace is the trace file.
+  * @param geometry is the geometry it is read with.
+  * @return the index, null if there is no fresh one.
+  * @throws IOException if the trace cannot be read.
+  *************************************************/
+  public static TraceIndex cached ( Path trace, Geometry geometry ) throws IOException {
+    Path cache = cachePath(trace);
+    if ( !Files.isRegularFile(cache) ) {
+      return null;
+    }
+    return read(cache, Files.size(trace), Files.getLastModifiedTime(trace).toMillis(),
+    geometry);
+  }
+
+  /*************************************************
+  * Reports where the index of a trace is cached.
+  * @param trace is the trace file.
+  * @return the trace's path with SUFFIX appended.
+  *************************************************/
+  public static Path cachePath ( Path trace ) {
+    return Paths.get(trace.toString() + SUFFIX);
+  }
+
+  /*************************************************
+  * Writes the index with the trace it describes,
+  * through a temporary file so that a reader never
+  * sees half an index.
+  * @throws IOException if it cannot be written.
+  *************************************************/
+  private void write ( Path cache, long size, long modified, Geometry geometry )
+  throws IOException {
+    Path temp = Paths.get(cache.toString() + ".tmp");
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+    Files.newOutputStream(temp), 64 << 10));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(size);
+      out.writeLong(modified);
+      out.writeInt(geometry.getPageSize());
+      out.writeInt(geometry.getAddressBits());
+      out.writeInt(geometry.getProcesses());
+      out.writeInt(interval);
+      out.writeInt(blocks);
+      out.writeInt(pids.length);
+      int i;
+      for ( i = 0; i <= blocks; i++ ) {
+        out.writeLong(offsets[i]);
+        out.writeLong(recordStarts[i]);
+        out.writeInt(countStarts[i]);
+      }
+      for ( i = 0; i < pids.length; i++ ) {
+        out.writeInt(pids[i]);
+        out.writeInt(counts[i]);
+      }
+    } finally {
+      out.close();
+    }
+    Files.move(temp, cache, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /*************************************************
+  * Reads a cached index if it still describes the
+  * trace as read with the given geometry.
+  * @return the index, null if it is stale.
+  * @throws IOException if it cannot be read.
+  *************************************************/
+  private static TraceIndex read ( Path cache, long size, long modified, Geometry geometry )
+  throws IOException {
+    DataInputStream in = new DataInputStream(new BufferedInputStream(
+    Files.newInputStream(cache), 64 << 10));
+    try {
+      if ( in.readInt() != MAGIC || in.readInt() != VERSION
+      || in.readLong() != size || in.readLong() != modified
+      || in.readInt() != geometry.getPageSize()
+      || in.readInt() != geometry.getAddressBits()
+      || in.readInt() != geometry.getProcesses() ) {
+        return null;
+      }
+      TraceIndex index = new TraceIndex();
+      index.interval = in.readInt();
+      index.blocks = in.readInt();
+      int entries = in.readInt();
+      index.offsets = new long [index.blocks + 1];
+      index.recordStarts = new long [index.blocks + 1];
+      index.countStarts = new int [index.blocks + 1];
+      int i;
+      for ( i = 0; i <= index.blocks; i++ ) {
+        index.offsets[i] = in.readLong();
+        index.recordStarts[i] = in.readLong();
+        index.countStarts[i] = in.readInt();
+      }
+      index.pids = new int [entries];
+      index.counts = new int [entries];
+      index.totals = new long [geometry.getProcesses() + 1];
+      for ( i = 0; i < entries; i++ ) {
+        index.pids[i] = in.readInt();
+        index.counts[i] = in.readInt();
+        index.totals[index.pids[i]] += index.counts[i];
+        index.references += index.counts[i];
+      }
+      return index;
+    } catch ( java.io.EOFException e ) {
+      return null; // Truncated, e.g. by a crash while caching.
+    } finally {
+      in.close();
+    }
+  }
+
+  /*******************************************************
+  * Positions a source of the indexed trace so that its
+  * next record is the one after the given reference,
+  * skipping less than a block. Exit records before that
+  * point are skipped with the references.
+  * @param input is a source over the indexed trace.
+  * @param reference is the number of references to skip.
+  * @return the references skipped, less than reference
+  * if the trace has fewer.
+  * @throws IOException if the trace cannot be read.
+  *******************************************************/
+  public long seek ( ReferenceSource input, long reference ) throws IOException {
+    if ( blocks == 0 ) {
+      input.seek(offsets[0]);
+      return 0;
+    }
+    int block = (int) Math.min(reference / interval, blocks - 1);
+    input.seek(offsets[block]);
+    long at = (long) block * interval;
+    while ( at < reference && input.next() ) {
+      if ( input.page() != ReferenceSource.EXIT ) {
+        at++;
+      }
+    }
+    return at;
+  }
+
+  /*******************************************************
+  * Restricts a source of the indexed trace to a range of
+  * blocks, e.g. for one of several threads that read the
+  * trace in parallel.
+  * @param input is a source over the indexed trace.
+  * @param from is the first block.
+  * @param to is the block after the last.
+  * @return a source over just the records of the blocks.
+  * @throws IOException if the trace cannot be read.
+  *******************************************************/
+  public ReferenceSource range ( ReferenceSource input, int from, int to ) throws IOException {
+    input.seek(offsets[from]);
+    return new Range(input, recordStarts[to] - recordStarts[from]);
+  }
+
+  /*******************************************
+  * Reports the references per block.
+  * @return the block size.
+  *******************************************/
+  public int getInterval () {
+    return this.interval;
+  }
+
+  /*******************************************
+  * Reports the number of blocks.
+  * @return the block count.
+  *******************************************/
+  public int getBlocks () {
+    return this.blocks;
+  }
+
+  /*******************************************
+  * Reports the references in the trace.
+  * @return the reference count.
+  *******************************************/
+  public long getReferences () {
+    return this.references;
+  }
+
+  /*******************************************
+  * Reports the records in the trace, exits
+  * included.
+  * @return the record count.
+  *******************************************/
+  public long getRecords () {
+    return this.recordStarts[blocks];
+  }
+
+  /*******************************************
+  * Reports the index of a block's first record.
+  * @param block is from 0 to getBlocks().
+  * @return the record index.
+  *******************************************/
+  public long getRecordStart ( int block ) {
+    return this.recordStarts[block];
+  }
+
+  /*******************************************
+  * Reports the references a process makes.
+  * @param pid is the PID of the process.
+  * @return the reference count, 0 for an unknown PID.
+  *******************************************/
+  public long getReferences ( int pid ) {
+    return pid > 0 && pid < totals.length ? totals[pid] : 0;
+  }
+
+  /*******************************************
+  * Reports the references a process makes in
+  * a block.
+  * @param pid is the PID of the process.
+  * @param block is the block.
+  * @return the reference count.
+  *******************************************/
+  public int getReferences ( int pid, int block ) {
+    int at = java.util.Arrays.binarySearch(pids, countStarts[block],
+    countStarts[block + 1], pid);
+    return at < 0 ? 0 : counts[at];
+  }
+
+  /******************************************************************
+  * A source that stops after a number of records.
+  ******************************************************************/
+  private static class Range implements ReferenceSource {
+
+    /** The source being read. */
+    private final ReferenceSource input;
+
+    /** The records in the range. */
+    private final long length;
+
+    /** The records read so far. */
+    private long read;
+
+    Range ( ReferenceSource pInput, long pLength ) {
+      this.input = pInput;
+      this.length = pLength;
+    }
+
+    @Override
+    public boolean next () throws IOException {
+      if ( read == length || !input.next() ) {
+        return false;
+      }
+      read++;
+      return true;
+    }
+
+    @Override
+    public int pid () {
+      return input.pid();
+    }
+
+    @Override
+    public int page () {
+      return input.page();
+    }
+
+    @Override
+    public double progress () {
+      return length == 0 ? 1.0 : read / (double) length;
+    }
+
+    @Override
+    public void close () throws IOException {
+      input.close();
+    }
+  }
+
+  /******************************************************************
+  * A growable list of longs, for building the index.
+  ******************************************************************/
+  private static class LongList {
+
+    /** The values. */
+    private long [] values = new long [64];
+
+    /** The number of values. */
+    private int size;
+
+    void add ( long value ) {
+      if ( size == values.length ) {
+        values = java.util.Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    long get ( int i ) {
+      return values[i];
+    }
+
+    int size () {
+      return size;
+    }
+
+    long [] toArray () {
+      return java.util.Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+import java.nio.ByteBuffer;
+/******************************************************************
+* Parses "P<pid>:\t<binary page>" trace lines straight from bytes,
+* and "P<pid>:\texit" lines saying the process exited.
+* Decodes the PID and page number digit by digit without creating
+* Strings, so parsing allocates nothing. PIDs and pages may have
+* any number of digits as long as they fit the geometry.
+* Blank lines are skipped quietly; malformed or out-of-range lines
+* are reported with their line number and skipped.
+* @since 10/18/2026
+******************************************************************/
+public class TraceParser {
+
+  /** Returned by parse for a line that holds no reference. */
+  public static final long SKIP = -1L;
+
+  /** The word marking an exit record. */
+  private static final byte [] EXIT_WORD = {'e', 'x', 'i', 't'};
+
+  /** The geometry bounding PIDs and pages. */
+  private Geometry geometry;
+
+  /** The number of lines that were reported and skipped. */
+  private long rejected;
+
+  /** Whether rejected lines are printed to standard error. */
+  private boolean verbose;
+
+  /***************************************************
+  * Instantiates a parser for the given geometry.
+  * @param pGeometry bounds the PIDs and page numbers.
+  ***************************************************/
+  public TraceParser ( Geometry pGeometry ) {
+    this.geometry = pGeometry;
+    this.verbose = true;
+  }
+
+  /*****************************************************
+  * Parses the line held in buf between from and to.
+  * Uses absolute reads, so the buffer position is left
+  * untouched.
+  * @param buf holds the line.
+  * @param from is the index of the first byte.
+  * @param to is the index after the last byte, without
+  * the line terminator.
+  * @param lineNumber is the line number, for reporting.
+  * @return the pid and page packed as pid<<32|page, with
+  * ReferenceSource.EXIT as the page of an exit record,
+  * or SKIP for blank, malformed or out-of-range lines.
+  *****************************************************/
+  public long parse ( ByteBuffer buf, int from, int to, long lineNumber ) {
+
+    int i = skipBlanks(buf, from, to);
+    if ( i == to ) {
+      return SKIP; // A blank line e.g. a trailing newline.
+    }
+    if ( buf.get(i) != 'P' ) {
+      return reject(lineNumber, "expected 'P'");
+    }
+    i++;
+
+    // Decimal PID up to the colon.
+    int start = i;
+    long pid = 0;
+    byte b;
+    while ( i < to && (b = buf.get(i)) >= '0' && b <= '9' ) {
+      pid = pid * 10 + (b - '0');
+      if ( pid > geometry.getProcesses() ) {
+        return reject(lineNumber, "unknown process");
+      }
+      i++;
+    }
+    if ( i == start ) {
+      return reject(lineNumber, "missing PID");
+    }
+    if ( pid < 1 ) {
+      return reject(lineNumber, "unknown process");
+    }
+    if ( i == to || buf.get(i) != ':' ) {
+      return reject(lineNumber, "expected ':' after the PID");
+    }
+    i = skipBlanks(buf, i + 1, to);
+
+    if ( i < to && buf.get(i) == 'e' ) {
+      int k;
+      for ( k = 0; k < EXIT_WORD.length; k++, i++ ) {
+        if ( i == to || buf.get(i) != EXIT_WORD[k] ) {
+          return reject(lineNumber, "expected 'exit' or a binary page number");
+        }
+      }
+      if ( skipBlanks(buf, i, to) != to ) {
+        return reject(lineNumber, "unexpected text after 'exit'");
+      }
+      return (pid << 32) | (ReferenceSource.EXIT & 0xFFFFFFFFL);
+    }
+
+    // Binary page number. '0' and '1' differ only in the low bit, so
+    // b | 1 == '1' tests for either without an unpredictable branch.
+    start = i;
+    int pageBits = geometry.getPageBits();
+    long page = 0;
+    while ( i < to && ((b = buf.get(i)) | 1) == '1' ) {
+      page = (page << 1) | (b - '0');
+      if ( page >>> pageBits != 0 ) {
+        return reject(lineNumber, "page outside the address space");
+      }
+      i++;
+    }
+    if ( i == start ) {
+      return reject(lineNumber, "missing binary page number");
+    }
+    if ( skipBlanks(buf, i, to) != to ) {
+      return reject(lineNumber, "unexpected text after the page number");
+    }
+    return (pid << 32) | page;
+  }
+
+  /*********************************************
+  * Reports the number of lines that were skipped
+  * because they were malformed or out of range.
+  * @return the rejected line count.
+  *********************************************/
+  public long getRejectedLines () {
+    return this.rejected;
+  }
+
+  /*********************************************
+  * Turns printing of rejected lines on or off.
+  * @param pVerbose is true to print them.
+  *********************************************/
+  public void setVerbose ( boolean pVerbose ) {
+    this.verbose = pVerbose;
+  }
+
+  /*********************************************
+  * Counts and reports a line being skipped.
+  * @return SKIP, for the caller to pass on.
+  *********************************************/
+  private long reject ( long lineNumber, String reason ) {
+    rejected++;
+    if ( verbose ) {
+      System.err.println("Ignoring line " + lineNumber + ": " + reason);
+    }
+    return SKIP;
+  }
+
+  /*********************************************
+  * Skips spaces and tabs.
+  * @return the index of the first other byte.
+  *********************************************/
+  private static int skipBlanks ( ByteBuffer buf, int i, int to ) {
+    byte b;
+    while ( i < to && ((b = buf.get(i)) == ' ' || b == '\t') ) {
+      i++;
+    }
+    return i;
+  }
+}
@@ -0,0 +1,129 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+/******************************************************************
+* Streams references from a text trace one line at a time.
+* Each line looks like "P<pid>:\t<binary page>", e.g.
+* "P3:\t000101", or "P3:\texit" when the process exits.
+* Only a block of input is held in memory.
+* Works over any InputStream, e.g. standard input; local files
+* are better served by the MappedTraceReader.
+* @since 10/18/2026
+******************************************************************/
+public class TraceReader implements ReferenceSource {
+
+  /** The number of bytes read from the stream at a time. */
+  private static final int BLOCK = 64 << 10;
+
+  /** The stream over the trace text. */
+  private InputStream in;
+
+  /** Decodes the lines straight out of the buffer. */
+  private TraceParser parser;
+
+  /** The block of input being parsed. */
+  private ByteBuffer buf;
+
+  /** The current reference. */
+  private int pid, page;
+
+  /** The number of lines read so far. */
+  private long lineNumber;
+
+  /** Whether the stream has no more bytes. */
+  private boolean eof;
+
+  /** Whether the end of input was reached. */
+  private boolean done;
+
+  /***************************************************
+  * Instantiates a reader over the given trace text.
+  * @param pIn is the trace text.
+  * @param pGeometry bounds the PIDs and page numbers.
+  ***************************************************/
+  public TraceReader ( InputStream pIn, Geometry pGeometry ) {
+    this.in = pIn;
+    this.parser = new TraceParser(pGeometry);
+    this.buf = ByteBuffer.allocate(BLOCK);
+    this.buf.limit(0);
+  }
+
+  @Override
+  public boolean next () throws IOException {
+    while ( !done ) {
+      int start = buf.position();
+      int i = start;
+
+      // Find the end of the line, reading more input as needed.
+      while ( i == buf.limit() || buf.get(i) != '\n' ) {
+        if ( i == buf.limit() ) {
+          if ( eof ) {
+            break;
+          }
+          i -= start;
+          start = 0;
+          fill();
+        } else {
+          i++;
+        }
+      }
+      if ( start == i && eof && i == buf.limit() ) {
+        done = true;
+        break;
+      }
+
+      int end = i;
+      if ( end > start && buf.get(end - 1) == '\r' ) {
+        end--;
+      }
+      buf.position(Math.min(i + 1, buf.limit()));
+      lineNumber++;
+      long ref = parser.parse(buf, start, end, lineNumber);
+      if ( ref != TraceParser.SKIP ) {
+        pid = (int) (ref >>> 32);
+        page = (int) ref;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int pid () {
+    return this.pid;
+  }
+
+  @Override
+  public int page () {
+    return this.page;
+  }
+
+  @Override
+  public void close () throws IOException {
+    done = true;
+    in.close();
+  }
+
+  /*******************************************************
+  * Moves the unparsed tail of the buffer to the front and
+  * reads more input after it, growing the buffer only if
+  * a single line fills it.
+  * @throws IOException if the stream cannot be read.
+  *******************************************************/
+  private void fill () throws IOException {
+    buf.compact();
+    if ( !buf.hasRemaining() ) {
+      ByteBuffer grown = ByteBuffer.allocate(buf.capacity() * 2);
+      buf.flip();
+      grown.put(buf);
+      buf = grown;
+    }
+    int n = in.read(buf.array(), buf.position(), buf.remaining());
+    if ( n < 0 ) {
+      eof = true;
+    } else {
+      buf.position(buf.position() + n);
+    }
+    buf.flip();
+  }
+}